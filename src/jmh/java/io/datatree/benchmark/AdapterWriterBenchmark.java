@@ -0,0 +1,93 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * Serializer benchmark of all adapters (except the read-only "TomlJtoml2").
+ * Run with "gradlew jmh" (the task enables the GC profiler, so the
+ * "gc.alloc.rate.norm" metric is also reported).
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AdapterWriterBenchmark {
+
+	// --- PARAMETERS ---
+
+	@Param({ "JsonBoon", "JsonBson", "JsonDSL", "JsonFast", "JsonFlex", "JsonGenson", "JsonGson", "JsonIon",
+			"JsonJackson", "JsonJodd", "JsonJohnzon", "JsonJsonIO", "JsonJsoniter", "JsonNano", "JsonSimple",
+			"JsonSmart", "JsonSojo", "JsonUtil", "YamlJackson", "YamlSnakeYaml", "XmlBuiltin", "XmlJackson",
+			"XmlXStream", "XmlRpcSojo", "TomlJtoml", "TomlToml4j", "PropertiesBuiltin", "PropertiesJackson",
+			"CsvOpenCSV", "TsvOpenCSV", "BsonJackson", "CborJackson", "SmileJackson", "MsgPackJackson",
+			"MsgPackOrg", "IonIon", "KryoKryo" })
+	public String adapter;
+
+	@Param({ "small", "medium", "large" })
+	public String payload;
+
+	// --- STATE ---
+
+	protected AbstractAdapter writer;
+
+	protected Object value;
+
+	@Setup
+	public void setup() throws Exception {
+		writer = BenchmarkData.createAdapter(adapter);
+		value = BenchmarkData.createValue(writer.getFormat(), payload);
+	}
+
+	// --- BENCHMARKS ---
+
+	@Benchmark
+	public String toStringCompact() {
+		return writer.toString(value, null, false, false);
+	}
+
+	@Benchmark
+	public String toStringPretty() {
+		return writer.toString(value, null, true, false);
+	}
+
+	@Benchmark
+	public byte[] toBinary() {
+		return writer.toBinary(value, null, false);
+	}
+
+}
\ No newline at end of file
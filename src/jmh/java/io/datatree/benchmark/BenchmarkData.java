@@ -0,0 +1,171 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.datatree.dom.builtin.AbstractAdapter;
+import io.datatree.dom.adapters.JsonJackson;
+
+/**
+ * Shared payloads and adapter factory of the JMH benchmarks. The "small"
+ * payload is the "sample-small.json" test resource, the "medium" and "large"
+ * payloads contain the records of the small sample repeated (with unique IDs).
+ * Formats with a flat data model (CSV, TSV, TOML) receive a flattened copy of
+ * the same records.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public final class BenchmarkData {
+
+	// --- PAYLOAD SIZES (NUMBER OF RECORDS) ---
+
+	public static final int MEDIUM_RECORDS = 100;
+
+	public static final int LARGE_RECORDS = 10000;
+
+	// --- CACHE OF THE SOURCE SAMPLE ---
+
+	private static Map<String, Object> sample;
+
+	// --- ADAPTER FACTORY ---
+
+	public static final AbstractAdapter createAdapter(String name) throws Exception {
+		String className = name.indexOf('.') == -1 ? "io.datatree.dom.adapters." + name : name;
+		return (AbstractAdapter) Class.forName(className).newInstance();
+	}
+
+	public static final AbstractAdapter createSourceWriter(String name) throws Exception {
+
+		// The "io.ous.jtoml" API has no writer functionality
+		if ("TomlJtoml2".equals(name)) {
+			return createAdapter("TomlToml4j");
+		}
+		return createAdapter(name);
+	}
+
+	// --- PAYLOAD FACTORY ---
+
+	@SuppressWarnings("unchecked")
+	public static final synchronized Object createValue(String format, String payload) throws Exception {
+		if (sample == null) {
+			sample = (Map<String, Object>) new JsonJackson().parse(loadString("sample-small.json"));
+		}
+		List<Object> records = (List<Object>) sample.get("data");
+		int count;
+		switch (payload) {
+		case "small":
+			count = records.size();
+			break;
+		case "medium":
+			count = MEDIUM_RECORDS;
+			break;
+		case "large":
+			count = LARGE_RECORDS;
+			break;
+		default:
+			throw new IllegalArgumentException("Unknown payload size: " + payload);
+		}
+		ArrayList<Object> list = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> record = (Map<String, Object>) records.get(i % records.size());
+			if (i < records.size()) {
+				list.add(record);
+			} else {
+				Map<String, Object> copy = new LinkedHashMap<>(record);
+				copy.put("id", record.get("id") + "_" + i);
+				list.add(copy);
+			}
+		}
+		switch (format) {
+		case "csv":
+		case "tsv":
+
+			// List of rows
+			ArrayList<Object> rows = new ArrayList<>(count);
+			for (Object record : list) {
+				LinkedHashMap<String, Object> flat = new LinkedHashMap<>();
+				flatten(flat, null, record);
+				rows.add(new ArrayList<>(flat.values()));
+			}
+			return rows;
+
+		case "toml":
+
+			// Tables with primitive values
+			LinkedHashMap<String, Object> tables = new LinkedHashMap<>();
+			int index = 0;
+			for (Object record : list) {
+				LinkedHashMap<String, Object> flat = new LinkedHashMap<>();
+				flatten(flat, null, record);
+				tables.put("record" + index++, flat);
+			}
+			return tables;
+
+		default:
+
+			// Structure of the original sample
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("data", list);
+			return map;
+		}
+	}
+
+	private static final void flatten(Map<String, Object> target, String prefix, Object value) {
+		if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				String key = String.valueOf(entry.getKey());
+				flatten(target, prefix == null ? key : prefix + '_' + key, entry.getValue());
+			}
+			return;
+		}
+		if (value instanceof Collection) {
+			int index = 0;
+			for (Object item : (Collection<?>) value) {
+				flatten(target, prefix + '_' + index++, item);
+			}
+			return;
+		}
+		target.put(prefix, value);
+	}
+
+	// --- LOAD TEST RESOURCE ---
+
+	public static final String loadString(String name) throws Exception {
+		try (InputStream in = BenchmarkData.class.getResourceAsStream("/" + name)) {
+			if (in == null) {
+				throw new IllegalArgumentException("Missing resource: " + name);
+			}
+			ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+			byte[] packet = new byte[4096];
+			int i;
+			while ((i = in.read(packet)) != -1) {
+				out.write(packet, 0, i);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8).trim();
+		}
+	}
+
+}
\ No newline at end of file
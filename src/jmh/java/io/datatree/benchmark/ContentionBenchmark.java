@@ -0,0 +1,292 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Statistics;
+
+import io.datatree.dom.adapters.AdapterCalibrator;
+import io.datatree.dom.adapters.ObjectPool;
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * Multi-threaded benchmark of the adapters with shared object pools (parser
+ * / writer caches) or shared, non-thread-local mappers. The public
+ * {@link ObjectPool} (Queue) fields of the adapter (eg. "JsonDSL.writers" or
+ * "JsonSmart.parsers") are replaced with a counting pool, so the "poolHits"
+ * (recycled instance), "poolMisses" (new instance created), "poolReturns"
+ * (instance put back into the pool) and "poolDrops" (pool was full) counters
+ * are reported next to the primary result. Run one thread count with the generic JMH task:<br>
+ * <br>
+ * gradlew jmh -PjmhArgs="ContentionBenchmark -t 8 -p adapter=JsonSmart"<br>
+ * <br>
+ * ...or run the {@link #main(String[])} method (or "gradlew jmhContention"),
+ * which drives each adapter from 1 to 2 x cores threads and prints the
+ * throughput scaling, the tail latency (p50 / p99 / p99.9) and the pool hit
+ * ratio per thread count.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+
+	// --- PARAMETERS ---
+
+	@Param({ "JsonDSL", "JsonJohnzon", "JsonSmart", "JsonBoon", "JsonSimple", "JsonJodd", "JsonIon", "IonIon",
+			"TomlJtoml", "TomlToml4j", "JsonGson", "YamlSnakeYaml" })
+	public String adapter;
+
+	@Param({ "small", "medium" })
+	public String payload;
+
+	// --- SHARED STATE ---
+
+	protected AbstractAdapter instance;
+
+	protected boolean binary;
+
+	protected Object value;
+
+	protected String text;
+
+	protected byte[] bytes;
+
+	@Setup
+	public void setup() throws Exception {
+		instance = BenchmarkData.createAdapter(adapter);
+		installCountingPools(instance);
+		binary = AdapterCalibrator.isBinary(instance.getFormat());
+		value = BenchmarkData.createValue(instance.getFormat(), payload);
+		AbstractAdapter writer = BenchmarkData.createSourceWriter(adapter);
+		text = writer.toString(value, null, false, false);
+		bytes = writer.toBinary(value, null, false);
+	}
+
+	// --- BENCHMARKS ---
+
+	@Benchmark
+	public Object parse(PoolCounters counters) throws Exception {
+		if (binary) {
+			return instance.parse(bytes);
+		}
+		return instance.parse(text);
+	}
+
+	@Benchmark
+	public Object write(PoolCounters counters) {
+		if (binary) {
+			return instance.toBinary(value, null, false);
+		}
+		return instance.toString(value, null, false, false);
+	}
+
+	// --- PER-THREAD POOL COUNTERS ---
+
+	protected static final ThreadLocal<PoolCounters> COUNTERS = new ThreadLocal<>();
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class PoolCounters {
+
+		public long poolHits;
+
+		public long poolMisses;
+
+		public long poolReturns;
+
+		public long poolDrops;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			poolHits = 0;
+			poolMisses = 0;
+			poolReturns = 0;
+			poolDrops = 0;
+			COUNTERS.set(this);
+		}
+
+	}
+
+	// --- COUNTING POOL ---
+
+	protected static final void installCountingPools(Object adapter) throws Exception {
+		for (Field field : adapter.getClass().getFields()) {
+			if (field.getType().isAssignableFrom(ObjectPool.class) && !Modifier.isStatic(field.getModifiers())) {
+				Object pool = field.get(adapter);
+				if (pool instanceof ObjectPool && !(pool instanceof CountingPool)) {
+					field.set(adapter, new CountingPool<Object>(((ObjectPool<?>) pool).getCapacity()));
+				}
+			}
+		}
+	}
+
+	protected static class CountingPool<T> extends ObjectPool<T> {
+
+		protected CountingPool(int capacity) {
+			super(capacity);
+		}
+
+		@Override
+		public T poll() {
+			T item = super.poll();
+			PoolCounters counters = COUNTERS.get();
+			if (counters != null) {
+				if (item == null) {
+					counters.poolMisses++;
+				} else {
+					counters.poolHits++;
+				}
+			}
+			return item;
+		}
+
+		@Override
+		public boolean offer(T item) {
+			boolean added = super.offer(item);
+			PoolCounters counters = COUNTERS.get();
+			if (counters != null) {
+				if (added) {
+					counters.poolReturns++;
+				} else {
+					counters.poolDrops++;
+				}
+			}
+			return added;
+		}
+
+	}
+
+	// --- SCALING REPORT ---
+
+	/**
+	 * Runs the benchmark with 1, 2, 4... 2 x cores threads. Optional
+	 * arguments: comma-separated list of adapters, payload ("small" or
+	 * "medium"), operation ("parse" or "write").
+	 * 
+	 * @param args
+	 *            [adapters] [payload] [operation]
+	 * 
+	 * @throws Exception
+	 *             any JMH exception
+	 */
+	public static void main(String[] args) throws Exception {
+		String adapters = args.length > 0 ? args[0] : null;
+		String payload = args.length > 1 ? args[1] : "small";
+		String operation = args.length > 2 ? args[2] : "parse|write";
+
+		int cores = Runtime.getRuntime().availableProcessors();
+		ArrayList<Integer> threadCounts = new ArrayList<>();
+		for (int threads = 1; threads < cores * 2; threads *= 2) {
+			threadCounts.add(threads);
+		}
+		threadCounts.add(cores * 2);
+
+		// Key: "adapter.operation", value: results by thread count
+		LinkedHashMap<String, LinkedHashMap<Integer, RunResult[]>> results = new LinkedHashMap<>();
+		for (int threads : threadCounts) {
+			for (Mode mode : new Mode[] { Mode.Throughput, Mode.SampleTime }) {
+				ChainedOptionsBuilder builder = new OptionsBuilder()
+						.include(ContentionBenchmark.class.getName() + ".(" + operation + ")$").threads(threads)
+						.mode(mode).param("payload", payload);
+				if (adapters != null) {
+					builder.param("adapter", adapters.split(","));
+				}
+				if (mode == Mode.SampleTime) {
+					builder.timeUnit(TimeUnit.MICROSECONDS);
+				}
+				Collection<RunResult> runResults = new Runner(builder.build()).run();
+				for (RunResult runResult : runResults) {
+					String benchmark = runResult.getParams().getBenchmark();
+					String key = runResult.getParams().getParam("adapter") + "."
+							+ benchmark.substring(benchmark.lastIndexOf('.') + 1);
+					RunResult[] pair = results.computeIfAbsent(key, k -> new LinkedHashMap<>())
+							.computeIfAbsent(threads, t -> new RunResult[2]);
+					pair[mode == Mode.Throughput ? 0 : 1] = runResult;
+				}
+			}
+		}
+
+		// Print report
+		System.out.println();
+		System.out.println(String.format("%-28s %7s %14s %8s %10s %10s %10s %10s", "Benchmark", "Threads",
+				"ops/s", "Scaling", "p50 (us)", "p99 (us)", "p99.9 (us)", "Pool hits"));
+		for (Map.Entry<String, LinkedHashMap<Integer, RunResult[]>> entry : results.entrySet()) {
+			double baseline = 0;
+			for (Map.Entry<Integer, RunResult[]> row : entry.getValue().entrySet()) {
+				RunResult throughput = row.getValue()[0];
+				RunResult sample = row.getValue()[1];
+				double score = throughput == null ? 0 : throughput.getPrimaryResult().getScore();
+				if (baseline == 0) {
+					baseline = score;
+				}
+				Statistics latency = sample == null ? null : sample.getPrimaryResult().getStatistics();
+				System.out.println(String.format("%-28s %7d %14.0f %7.2fx %10.2f %10.2f %10.2f %10s",
+						entry.getKey(), row.getKey(), score, baseline == 0 ? 0 : score / baseline,
+						latency == null ? 0 : latency.getPercentile(50), latency == null ? 0 : latency.getPercentile(99),
+						latency == null ? 0 : latency.getPercentile(99.9), hitRatio(throughput)));
+			}
+		}
+	}
+
+	protected static final String hitRatio(RunResult result) {
+		if (result == null) {
+			return "-";
+		}
+		Result<?> hits = result.getSecondaryResults().get("poolHits");
+		Result<?> misses = result.getSecondaryResults().get("poolMisses");
+		if (hits == null || misses == null) {
+			return "-";
+		}
+		double total = hits.getScore() + misses.getScore();
+		if (total == 0) {
+			return "-";
+		}
+		return String.format("%.1f%%", hits.getScore() * 100 / total);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,176 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * Startup-time benchmark of the adapters. Each measurement runs in a fresh JVM
+ * (single shot, many forks):<br>
+ * <br>
+ * - "classLoad": loading and initializing the adapter class,<br>
+ * - "construct": class loading + constructor,<br>
+ * - "firstCall": class loading + constructor + the first write and the first
+ * parse.<br>
+ * <br>
+ * The sample data is built from plain Java collections, so no adapter
+ * dependency is loaded before the measurement. Run with "gradlew jmhStartup"
+ * (the {@link #main(String[])} method prints the cost of the separate phases).
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+	// --- PARAMETERS ---
+
+	@Param({ "JsonBoon", "JsonBson", "JsonDSL", "JsonFast", "JsonFlex", "JsonGenson", "JsonGson", "JsonIon",
+			"JsonJackson", "JsonJodd", "JsonJohnzon", "JsonJsonIO", "JsonJsoniter", "JsonNano", "JsonSimple",
+			"JsonSmart", "JsonSojo", "JsonUtil", "YamlJackson", "YamlSnakeYaml", "XmlBuiltin", "XmlJackson",
+			"XmlXStream", "XmlRpcSojo", "TomlJtoml", "TomlJtoml2", "TomlToml4j", "PropertiesBuiltin",
+			"PropertiesJackson", "CsvOpenCSV", "TsvOpenCSV", "BsonJackson", "CborJackson", "SmileJackson",
+			"MsgPackJackson", "MsgPackOrg", "IonIon", "KryoKryo" })
+	public String adapter;
+
+	// --- STATE ---
+
+	protected String className;
+
+	protected Object value;
+
+	@Setup
+	public void setup() {
+		className = "io.datatree.dom.adapters." + adapter;
+
+		// Sample data (without loading any adapter class)
+		LinkedHashMap<String, Object> record = new LinkedHashMap<>();
+		record.put("id", "record1");
+		record.put("count", 12);
+		record.put("ratio", 0.5d);
+		record.put("enabled", true);
+		if (adapter.startsWith("Csv") || adapter.startsWith("Tsv")) {
+			value = Arrays.asList(new ArrayList<>(record.values()), new ArrayList<>(record.values()));
+		} else if (adapter.startsWith("Toml")) {
+			LinkedHashMap<String, Object> tables = new LinkedHashMap<>();
+			tables.put("record1", record);
+			value = tables;
+		} else {
+			value = record;
+		}
+	}
+
+	// --- BENCHMARKS ---
+
+	@Benchmark
+	public Class<?> classLoad() throws Exception {
+		return Class.forName(className);
+	}
+
+	@Benchmark
+	public Object construct() throws Exception {
+		return Class.forName(className).newInstance();
+	}
+
+	@Benchmark
+	public Object firstCall() throws Exception {
+		AbstractAdapter instance = (AbstractAdapter) Class.forName(className).newInstance();
+		if ("TomlJtoml2".equals(adapter)) {
+
+			// Read-only adapter
+			return instance.parse("[record1]\r\nid = \"record1\"\r\ncount = 12\r\n");
+		}
+		byte[] bytes = instance.toBinary(value, null, false);
+		return instance.parse(bytes);
+	}
+
+	// --- PHASE REPORT ---
+
+	/**
+	 * Runs the benchmark and prints the class loading, constructor and first
+	 * call latencies (averages of the forks) per adapter.
+	 * 
+	 * @param args
+	 *            [adapters (comma-separated list)] [forks]
+	 * 
+	 * @throws Exception
+	 *             any JMH exception
+	 */
+	public static void main(String[] args) throws Exception {
+		ChainedOptionsBuilder builder = new OptionsBuilder().include(StartupBenchmark.class.getName());
+		if (args.length > 0) {
+			builder.param("adapter", args[0].split(","));
+		}
+		if (args.length > 1) {
+			builder.forks(Integer.parseInt(args[1]));
+		}
+		Collection<RunResult> runResults = new Runner(builder.build()).run();
+
+		// Scores by adapter: class loading, construction, first call
+		LinkedHashMap<String, double[]> scores = new LinkedHashMap<>();
+		for (RunResult runResult : runResults) {
+			String benchmark = runResult.getParams().getBenchmark();
+			String method = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+			double[] values = scores.computeIfAbsent(runResult.getParams().getParam("adapter"), k -> new double[3]);
+			double score = runResult.getPrimaryResult().getScore();
+			if ("classLoad".equals(method)) {
+				values[0] = score;
+			} else if ("construct".equals(method)) {
+				values[1] = score;
+			} else {
+				values[2] = score;
+			}
+		}
+		System.out.println();
+		System.out.println(String.format("%-20s %14s %14s %14s %14s", "Adapter", "load (ms)", "construct (ms)",
+				"1st call (ms)", "total (ms)"));
+		for (Map.Entry<String, double[]> entry : scores.entrySet()) {
+			double[] values = entry.getValue();
+			System.out.println(String.format("%-20s %14.2f %14.2f %14.2f %14.2f", entry.getKey(), values[0],
+					Math.max(0, values[1] - values[0]), Math.max(0, values[2] - values[1]), values[2]));
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,230 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.datatree.dom.adapters.AdapterCalibrator;
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * Format-to-format transcoding benchmark (eg. "JsonJackson parse -&gt;
+ * MsgPackOrg toBinary"). Measures every reader -&gt; writer pair of the
+ * "reader" and "writer" parameters. By default the readers are all JSON
+ * adapters plus one or two adapters of every other format (XML, YAML, TOML,
+ * Properties, CSV, TSV and the binary formats), and the writers cover every
+ * format. The full default matrix has more than a thousand benchmarks, so
+ * it is usually narrowed with "-p" options. A pair whose writer cannot
+ * represent the data of the reader fails in the setup, and is shown as
+ * "n/a" in the matrix. Run with the generic JMH task:<br>
+ * <br>
+ * gradlew jmh -PjmhArgs="TranscodeBenchmark -p reader=JsonDSL -p writer=CborJackson,SmileJackson"<br>
+ * <br>
+ * ...or run the {@link #main(String[])} method (or "gradlew jmhTranscode"),
+ * which prints a matrix of the throughput, the allocated bytes per operation
+ * and the size of the resulting payload for each pair and dataset.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranscodeBenchmark {
+
+	// --- PARAMETERS ---
+
+	@Param({ "JsonJackson", "JsonDSL", "JsonSmart", "JsonBoon", "JsonFast", "JsonGson", "JsonJsoniter", "XmlJackson",
+			"XmlXStream", "YamlJackson", "YamlSnakeYaml", "TomlJtoml2", "PropertiesJackson", "CsvOpenCSV", "TsvOpenCSV",
+			"MsgPackOrg", "MsgPackJackson", "CborJackson", "SmileJackson", "IonIon", "BsonJackson", "KryoKryo" })
+	public String reader;
+
+	@Param({ "JsonJackson", "JsonDSL", "XmlJackson", "XmlXStream", "YamlJackson", "YamlSnakeYaml", "TomlToml4j",
+			"PropertiesJackson", "CsvOpenCSV", "TsvOpenCSV", "MsgPackOrg", "MsgPackJackson", "CborJackson",
+			"SmileJackson", "IonIon", "BsonJackson", "KryoKryo" })
+	public String writer;
+
+	@Param({ "small", "medium", "large" })
+	public String payload;
+
+	// --- STATE ---
+
+	protected AbstractAdapter input;
+
+	protected AbstractAdapter output;
+
+	protected boolean binaryInput;
+
+	protected boolean binaryOutput;
+
+	protected String text;
+
+	protected byte[] bytes;
+
+	@Setup
+	public void setup() throws Exception {
+		input = BenchmarkData.createAdapter(reader);
+		output = BenchmarkData.createAdapter(writer);
+		binaryInput = AdapterCalibrator.isBinary(input.getFormat());
+		binaryOutput = AdapterCalibrator.isBinary(output.getFormat());
+		Object value = BenchmarkData.createValue(input.getFormat(), payload);
+		AbstractAdapter source = BenchmarkData.createSourceWriter(reader);
+		if (binaryInput) {
+			bytes = source.toBinary(value, null, false);
+		} else {
+			text = source.toString(value, null, false, false);
+		}
+
+		// Check that the writer can represent the data of the reader
+		try {
+			transcode();
+		} catch (Exception cause) {
+			throw new IllegalStateException(
+					"The \"" + writer + "\" writer cannot transcode the data of the \"" + reader + "\" reader!", cause);
+		}
+	}
+
+	// --- BENCHMARK ---
+
+	@Benchmark
+	public Object transcode() throws Exception {
+		Object value = binaryInput ? input.parse(bytes) : input.parse(text);
+		if (binaryOutput) {
+			return output.toBinary(value, null, false);
+		}
+		return output.toString(value, null, false, false);
+	}
+
+	// --- PAYLOAD SIZE ---
+
+	/**
+	 * Returns the size of the transcoded payload in bytes.
+	 * 
+	 * @return size of the output
+	 * 
+	 * @throws Exception
+	 *             unable to transcode the data
+	 */
+	public int outputSize() throws Exception {
+		Object result = transcode();
+		if (result instanceof byte[]) {
+			return ((byte[]) result).length;
+		}
+		return String.valueOf(result).getBytes(StandardCharsets.UTF_8).length;
+	}
+
+	// --- MATRIX REPORT ---
+
+	/**
+	 * Runs the benchmark for each reader -&gt; writer pair and prints the
+	 * matrix. With the "sizes" option only the payload sizes are printed
+	 * (without running JMH).
+	 * 
+	 * @param args
+	 *            [sizes] [readers] [writers] [payloads] (comma-separated lists)
+	 * 
+	 * @throws Exception
+	 *             any exception
+	 */
+	public static void main(String[] args) throws Exception {
+		int i = 0;
+		boolean sizesOnly = args.length > 0 && "sizes".equals(args[0]);
+		if (sizesOnly) {
+			i++;
+		}
+		String[] readers = args.length > i ? args[i].split(",") : defaults("reader");
+		String[] writers = args.length > i + 1 ? args[i + 1].split(",") : defaults("writer");
+		String[] payloads = args.length > i + 2 ? args[i + 2].split(",") : defaults("payload");
+
+		// Measure throughput and allocation
+		LinkedHashMap<String, RunResult> results = new LinkedHashMap<>();
+		if (!sizesOnly) {
+			Collection<RunResult> runResults = new Runner(new OptionsBuilder()
+					.include(TranscodeBenchmark.class.getName() + ".transcode$").param("reader", readers)
+					.param("writer", writers).param("payload", payloads).addProfiler(GCProfiler.class).build()).run();
+			for (RunResult runResult : runResults) {
+				results.put(runResult.getParams().getParam("reader") + '>' + runResult.getParams().getParam("writer")
+						+ '>' + runResult.getParams().getParam("payload"), runResult);
+			}
+		}
+
+		// Print matrix
+		System.out.println();
+		System.out.println(String.format("%-8s %-16s %-16s %14s %14s %14s", "Payload", "Reader", "Writer", "ops/s",
+				"alloc (B/op)", "output (B)"));
+		for (String payload : payloads) {
+			for (String reader : readers) {
+				for (String writer : writers) {
+					String size;
+					try {
+						TranscodeBenchmark benchmark = new TranscodeBenchmark();
+						benchmark.reader = reader;
+						benchmark.writer = writer;
+						benchmark.payload = payload;
+						benchmark.setup();
+						size = Integer.toString(benchmark.outputSize());
+					} catch (Throwable cause) {
+						size = "n/a";
+					}
+					String score = "-";
+					String allocation = "-";
+					RunResult runResult = results.get(reader + '>' + writer + '>' + payload);
+					if (runResult != null) {
+						score = String.format("%.0f", runResult.getPrimaryResult().getScore());
+						Result<?> norm = runResult.getSecondaryResults().get("gc.alloc.rate.norm");
+						if (norm == null) {
+							norm = runResult.getSecondaryResults().get("\u00b7gc.alloc.rate.norm");
+						}
+						if (norm != null) {
+							allocation = String.format("%.0f", norm.getScore());
+						}
+					}
+					System.out.println(String.format("%-8s %-16s %-16s %14s %14s %14s", payload, reader, writer,
+							score, allocation, size));
+				}
+			}
+		}
+	}
+
+	protected static final String[] defaults(String field) throws Exception {
+		return TranscodeBenchmark.class.getField(field).getAnnotation(Param.class).value();
+	}
+
+}
\ No newline at end of file
@@ -35,11 +35,19 @@ public class ExtendedWriter extends JsonWriterBase<ExtendedWriter> {
 		super(new StringBuilder(256), indent);
 	}
 
+	public ExtendedWriter(Appendable target, String indent) {
+		super(target, indent);
+	}
+
 	public final String done() {
 		super.doneInternal();
 		return appendable.toString();
 	}
 
+	public final void finish() {
+		super.doneInternal();
+	}
+
 	@Override
 	public ExtendedWriter value(String key, Object o) {
 		if (o == null)
@@ -17,8 +17,14 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.LinkedHashMap;
+import java.util.LinkedList;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.datatree.dom.Config;
@@ -29,7 +35,7 @@ import io.datatree.dom.builtin.AbstractAdapter;
  * 
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
-public abstract class AbstractJacksonAdapter extends AbstractAdapter {
+public abstract class AbstractJacksonAdapter extends AbstractAdapter implements ByteStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -58,4 +64,41 @@ public abstract class AbstractJacksonAdapter extends AbstractAdapter {
 		return mapper.readValue(source, LinkedHashMap.class);
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, OutputStream target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+			ObjectMapper m = getMapper(pretty);
+			try (JsonGenerator generator = m.getFactory().createGenerator(target)) {
+				generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+				m.writeValue(generator, input);
+			}
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(InputStream source) throws Exception {
+		try (JsonParser parser = mapper.getFactory().createParser(source)) {
+			parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+			return readValue(parser);
+		}
+	}
+
+	protected Object readValue(JsonParser parser) throws Exception {
+		if (parser.nextToken() == JsonToken.START_ARRAY) {
+			return mapper.readValue(parser, LinkedList.class);
+		}
+		return mapper.readValue(parser, LinkedHashMap.class);
+	}
+
+	// --- MAPPER OF THE WRITER ---
+
+	protected ObjectMapper getMapper(boolean pretty) {
+		return mapper;
+	}
+
 }
@@ -17,6 +17,12 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.datatree.dom.BASE64;
@@ -26,7 +32,8 @@ import io.datatree.dom.BASE64;
  * 
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
-public abstract class AbstractJacksonBinaryAdapter extends AbstractJacksonAdapter {
+public abstract class AbstractJacksonBinaryAdapter extends AbstractJacksonAdapter
+		implements ByteBufferAdapter, FramedAdapter {
 
 	// --- CONSTRUCTOR ---
 
@@ -40,6 +47,11 @@ public abstract class AbstractJacksonBinaryAdapter extends AbstractJacksonAdapte
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return BASE64.encode(toBinary(value, meta, insertMeta));
 	}
+
+	@Override
+	public void toBinary(Object value, Object meta, boolean insertMeta, ByteBuffer target) {
+		write(value, meta, false, insertMeta, new ByteBufferOutputStream(target));
+	}
 	
 	// --- IMPLEMENTED PARSER METHOD ---
 
@@ -48,4 +60,64 @@ public abstract class AbstractJacksonBinaryAdapter extends AbstractJacksonAdapte
 		return parse(BASE64.decode(source));
 	}
 
-}
+	@Override
+	public Object parse(ByteBuffer source) throws Exception {
+		final JsonParser parser;
+		if (source.hasArray()) {
+
+			// Parse the backing array in place
+			parser = mapper.getFactory().createParser(source.array(), source.arrayOffset() + source.position(),
+					source.remaining());
+		} else {
+			parser = mapper.getFactory().createParser(new ByteBufferInputStream(source));
+		}
+		try {
+			return readValue(parser);
+		} finally {
+			parser.close();
+			source.position(source.limit());
+		}
+	}
+
+	// --- LENGTH-PREFIXED FRAMES ---
+
+	@Override
+	public FrameEncoder createFrameEncoder(OutputStream buffer) throws Exception {
+
+		// One generator for all records of the stream
+		JsonGenerator generator = getFrameFactory().createGenerator(buffer);
+		return (value, meta) -> {
+			toBinary(value, meta, true, (input) -> {
+				mapper.writeValue(generator, input);
+				generator.flush();
+				return null;
+			});
+		};
+	}
+
+	@Override
+	public FrameDecoder createFrameDecoder() throws Exception {
+
+		// Jackson parsers cannot be re-targeted, but parsers created from
+		// byte arrays share the recycled buffers and symbol tables of the
+		// factory
+		JsonFactory factory = getFrameFactory();
+		return (source, offset, length) -> {
+			try (JsonParser parser = factory.createParser(source, offset, length)) {
+				return readValue(parser);
+			}
+		};
+	}
+
+	/**
+	 * Returns the JsonFactory of the frame encoders and decoders. Formats with
+	 * stream-level state (eg. headers) must return a factory which produces
+	 * self-contained frames.
+	 * 
+	 * @return factory of the frames
+	 */
+	protected JsonFactory getFrameFactory() {
+		return mapper.getFactory();
+	}
+
+}
\ No newline at end of file
@@ -31,9 +31,14 @@ import io.datatree.dom.Config;
  */
 public abstract class AbstractJacksonTextAdapter extends AbstractJacksonAdapter {
 
-	// --- PRETTY WRITER ---
+	// --- PRETTY WRITER (CREATED ON FIRST USE) ---
 
-	public ObjectMapper prettyMapper;
+	/**
+	 * Pretty printer (ObjectMapper). It is {@code null} until the first
+	 * pretty-printed output (or the first {@link #getPrettyMapper()} call). A
+	 * mapper set here before that is used as is.
+	 */
+	public volatile ObjectMapper prettyMapper;
 
 	// --- NAME OF THE FORMAT ---
 	
@@ -46,20 +51,40 @@ public abstract class AbstractJacksonTextAdapter extends AbstractJacksonAdapter
 
 	public AbstractJacksonTextAdapter(ObjectMapper mapper) {
 		super(mapper);
-		prettyMapper = mapper.copy();
-		if (Config.USE_TIMESTAMPS) {
-			prettyMapper.setDateFormat(Config.TIMESTAMP_FORMATTER);
+	}
+
+	// --- LAZY PRETTY WRITER ---
+
+	public ObjectMapper getPrettyMapper() {
+		ObjectMapper pm = prettyMapper;
+		if (pm == null) {
+			synchronized (this) {
+				pm = prettyMapper;
+				if (pm == null) {
+					pm = mapper.copy();
+					if (Config.USE_TIMESTAMPS) {
+						pm.setDateFormat(Config.TIMESTAMP_FORMATTER);
+					}
+					pm.enable(SerializationFeature.INDENT_OUTPUT);
+					prettyMapper = pm;
+				}
+			}
 		}
-		prettyMapper.enable(SerializationFeature.INDENT_OUTPUT);
+		return pm;
 	}
 	
+	@Override
+	protected ObjectMapper getMapper(boolean pretty) {
+		return pretty ? getPrettyMapper() : mapper;
+	}
+
 	// --- IMPLEMENTED WRITER METHODS ---
 
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
-			if (pretty && prettyMapper != null) {
-				return prettyMapper.writeValueAsString(input);
+			if (pretty) {
+				return getPrettyMapper().writeValueAsString(input);
 			}
 			return mapper.writeValueAsString(input);
 		});
@@ -0,0 +1,523 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import io.datatree.dom.TreeReader;
+import io.datatree.dom.TreeReaderRegistry;
+import io.datatree.dom.TreeWriter;
+import io.datatree.dom.TreeWriterRegistry;
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * <b>ADAPTER CALIBRATOR</b><br>
+ * <br>
+ * Description: Opt-in calibration step, which micro-benchmarks the adapters of
+ * a format available on the classpath against representative payloads, and
+ * registers the fastest reader and the fastest writer (separately) into the
+ * TreeReaderRegistry and TreeWriterRegistry. The static ranking of the
+ * "@Priority" annotations is not always the fastest combination for the given
+ * hardware and payload shapes. Readers are only accepted if they return the
+ * same structures as the current (default) reader of the format. Writers are
+ * only accepted if the current reader parses their output back into the same
+ * structures. Numbers are compared by value, Maps regardless of the order of
+ * their keys.<br>
+ * <br>
+ * <b>Calibrate with supplied payloads:</b><br>
+ * <br>
+ * AdapterCalibrator calibrator = new AdapterCalibrator();<br>
+ * calibrator.calibrate("json", samplePayload1, samplePayload2);<br>
+ * <br>
+ * <b>Calibrate with payloads sampled from the live traffic:</b><br>
+ * <br>
+ * calibrator.sample("json", incomingJsonString);<br>
+ * ...<br>
+ * calibrator.calibrate("json");<br>
+ * <br>
+ * Samples can be raw structures (Map, List, etc.), or String / byte array
+ * sources in the given format.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AdapterCalibrator {
+
+	// --- KNOWN ADAPTERS ---
+
+	public static final Map<String, String[]> CANDIDATES = new LinkedHashMap<>();
+
+	static {
+		CANDIDATES.put("json",
+				new String[] { "JsonJackson", "JsonBoon", "JsonFast", "JsonJodd", "JsonSmart", "JsonGenson", "JsonGson",
+						"JsonDSL", "JsonJohnzon", "JsonIon", "JsonJsoniter", "JsonBson", "JsonUtil", "JsonNano",
+						"JsonSimple", "JsonFlex", "JsonJsonIO", "JsonSojo", "io.datatree.dom.builtin.JsonBuiltin" });
+		CANDIDATES.put("xml", new String[] { "XmlXStream", "XmlBuiltin", "XmlJackson" });
+		CANDIDATES.put("yaml", new String[] { "YamlJackson", "YamlSnakeYaml" });
+		CANDIDATES.put("toml", new String[] { "TomlJtoml2", "TomlToml4j", "TomlJtoml" });
+		CANDIDATES.put("properties", new String[] { "PropertiesBuiltin", "PropertiesJackson" });
+		CANDIDATES.put("csv", new String[] { "CsvOpenCSV" });
+		CANDIDATES.put("tsv", new String[] { "TsvOpenCSV" });
+		CANDIDATES.put("msgpack", new String[] { "MsgPackOrg", "MsgPackJackson" });
+		CANDIDATES.put("cbor", new String[] { "CborJackson" });
+		CANDIDATES.put("smile", new String[] { "SmileJackson" });
+		CANDIDATES.put("bson", new String[] { "BsonJackson" });
+		CANDIDATES.put("ion", new String[] { "IonIon" });
+		CANDIDATES.put("kryo", new String[] { "KryoKryo" });
+	}
+
+	/**
+	 * Formats with binary (non-textual) output.
+	 */
+	public static final String[] BINARY_FORMATS = { "msgpack", "cbor", "smile", "bson", "ion", "kryo", "java" };
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Warm-up time per adapter (milliseconds).
+	 */
+	public long warmupMillis = 200;
+
+	/**
+	 * Measurement time per adapter (milliseconds).
+	 */
+	public long measureMillis = 500;
+
+	/**
+	 * Number of measurement rounds (the median is used).
+	 */
+	public int rounds = 5;
+
+	/**
+	 * Max number of payloads stored per format by the {@link #sample} method.
+	 */
+	public int maxSamples = 32;
+
+	/**
+	 * Register the fastest reader and writer into the registries.
+	 */
+	public boolean register = true;
+
+	// --- SAMPLES OF THE LIVE TRAFFIC ---
+
+	protected final HashMap<String, List<Object>> samples = new HashMap<>();
+
+	protected final HashMap<String, Long> sampleCounters = new HashMap<>();
+
+	protected final Random random = new Random();
+
+	/**
+	 * Stores a payload of the live traffic (uses reservoir sampling, so each
+	 * payload has the same chance to be used for calibration).
+	 * 
+	 * @param format
+	 *            format (eg. "json")
+	 * @param payload
+	 *            String / byte array source or raw structure
+	 */
+	public synchronized void sample(String format, Object payload) {
+		if (payload == null || maxSamples < 1) {
+			return;
+		}
+		List<Object> list = samples.computeIfAbsent(format, key -> new ArrayList<>());
+		long count = sampleCounters.getOrDefault(format, 0L) + 1;
+		sampleCounters.put(format, count);
+		if (list.size() < maxSamples) {
+			list.add(payload);
+			return;
+		}
+		long index = (long) (random.nextDouble() * count);
+		if (index < maxSamples) {
+			list.set((int) index, payload);
+		}
+	}
+
+	// --- CALIBRATE ---
+
+	/**
+	 * Calibrates the adapters of the specified format using the payloads
+	 * collected by the {@link #sample} method.
+	 * 
+	 * @param format
+	 *            format (eg. "json")
+	 * 
+	 * @return result of the calibration
+	 */
+	public Result calibrate(String format) {
+		List<Object> list;
+		synchronized (this) {
+			list = samples.get(format);
+			list = list == null ? null : new ArrayList<>(list);
+		}
+		if (list == null || list.isEmpty()) {
+			throw new IllegalStateException("No samples collected for format \"" + format + "\"!");
+		}
+		return calibrate(format, list);
+	}
+
+	public Result calibrate(String format, Object... payloads) {
+		return calibrate(format, Arrays.asList(payloads));
+	}
+
+	public Result calibrate(String format, Collection<?> payloads) {
+		boolean binary = isBinary(format);
+
+		// Convert sources to raw structures
+		TreeReader defaultReader = TreeReaderRegistry.getReader(format);
+		TreeWriter defaultWriter = TreeWriterRegistry.getWriter(format);
+		ArrayList<Object> values = new ArrayList<>(payloads.size());
+		try {
+			for (Object payload : payloads) {
+				if (payload instanceof String) {
+					values.add(defaultReader.parse((String) payload));
+				} else if (payload instanceof byte[]) {
+					values.add(defaultReader.parse((byte[]) payload));
+				} else {
+					values.add(payload);
+				}
+			}
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse sample!", cause);
+		}
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("No samples!");
+		}
+
+		// Create sources for the readers, and the reference structures
+		int size = values.size();
+		String[] texts = new String[size];
+		byte[][] binaries = new byte[size][];
+		Object[] expected = new Object[size];
+		try {
+			for (int i = 0; i < size; i++) {
+				if (binary) {
+					binaries[i] = defaultWriter.toBinary(values.get(i), null, false);
+					expected[i] = defaultReader.parse(binaries[i]);
+				} else {
+					texts[i] = defaultWriter.toString(values.get(i), null, false, false);
+					expected[i] = defaultReader.parse(texts[i]);
+				}
+			}
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse sample!", cause);
+		}
+
+		// Measure adapters
+		Result result = new Result(format);
+		for (AbstractAdapter adapter : getAvailableAdapters(format)) {
+			String name = adapter.getClass().getSimpleName();
+
+			// Measure reader
+			long nanos = Long.MAX_VALUE;
+			try {
+				for (int i = 0; i < size; i++) {
+					Object parsed = binary ? adapter.parse(binaries[i]) : adapter.parse(texts[i]);
+					if (!isEqual(expected[i], parsed)) {
+						throw new IllegalStateException("Unexpected result!");
+					}
+				}
+				nanos = measure(() -> {
+					for (int i = 0; i < size; i++) {
+						if (binary) {
+							adapter.parse(binaries[i]);
+						} else {
+							adapter.parse(texts[i]);
+						}
+					}
+				});
+			} catch (Throwable unsupported) {
+
+				// Read-only adapter, or unable to parse the samples
+			}
+			result.readerNanos.put(name, nanos);
+			if (nanos < result.bestReaderNanos) {
+				result.bestReaderNanos = nanos;
+				result.reader = adapter;
+			}
+
+			// Measure writer
+			nanos = Long.MAX_VALUE;
+			try {
+				for (int i = 0; i < size; i++) {
+					Object parsed;
+					if (binary) {
+						parsed = defaultReader.parse(adapter.toBinary(values.get(i), null, false));
+					} else {
+						parsed = defaultReader.parse(adapter.toString(values.get(i), null, false, false));
+					}
+					if (!isEqual(expected[i], parsed)) {
+						throw new IllegalStateException("Unexpected result!");
+					}
+				}
+				nanos = measure(() -> {
+					for (int i = 0; i < size; i++) {
+						if (binary) {
+							adapter.toBinary(values.get(i), null, false);
+						} else {
+							adapter.toString(values.get(i), null, false, false);
+						}
+					}
+				});
+			} catch (Throwable unsupported) {
+
+				// Write-only adapter, or the output is not readable
+			}
+			result.writerNanos.put(name, nanos);
+			if (nanos < result.bestWriterNanos) {
+				result.bestWriterNanos = nanos;
+				result.writer = adapter;
+			}
+		}
+
+		// Register the fastest implementations
+		if (register) {
+			if (result.reader != null) {
+				TreeReaderRegistry.setReader(format, result.reader);
+			}
+			if (result.writer != null) {
+				TreeWriterRegistry.setWriter(format, result.writer);
+			}
+		}
+		return result;
+	}
+
+	// --- MEASUREMENT ---
+
+	@FunctionalInterface
+	protected static interface Task {
+
+		void run() throws Exception;
+
+	}
+
+	/**
+	 * Returns the median execution time of the task in nanoseconds.
+	 * 
+	 * @param task
+	 *            task to measure
+	 * 
+	 * @return median execution time
+	 * 
+	 * @throws Exception
+	 *             any exception
+	 */
+	protected long measure(Task task) throws Exception {
+
+		// Warm up
+		long end = System.nanoTime() + warmupMillis * 1000000L;
+		do {
+			task.run();
+		} while (System.nanoTime() < end);
+
+		// Measure
+		int count = Math.max(1, rounds);
+		long[] results = new long[count];
+		long roundNanos = Math.max(1, measureMillis * 1000000L / count);
+		for (int r = 0; r < count; r++) {
+			long start = System.nanoTime();
+			long now;
+			long loops = 0;
+			do {
+				task.run();
+				loops++;
+				now = System.nanoTime();
+			} while (now - start < roundNanos);
+			results[r] = (now - start) / loops;
+		}
+		Arrays.sort(results);
+		return results[count / 2];
+	}
+
+	// --- COMPARE STRUCTURES ---
+
+	/**
+	 * Compares two parsed structures. Numbers are compared by value (eg. 3
+	 * equals to 3L and 3.0), Maps are compared regardless of the order of
+	 * their keys, Lists and arrays are compared item by item.
+	 * 
+	 * @param expected
+	 *            reference structure
+	 * @param actual
+	 *            structure to check
+	 * 
+	 * @return {@code true} if the structures are equal
+	 */
+	public static final boolean isEqual(Object expected, Object actual) {
+		if (expected == actual) {
+			return true;
+		}
+		if (expected == null || actual == null) {
+			return false;
+		}
+		if (expected instanceof Map) {
+			if (!(actual instanceof Map)) {
+				return false;
+			}
+			Map<?, ?> expectedMap = (Map<?, ?>) expected;
+			Map<?, ?> actualMap = (Map<?, ?>) actual;
+			if (expectedMap.size() != actualMap.size()) {
+				return false;
+			}
+			for (Map.Entry<?, ?> entry : expectedMap.entrySet()) {
+				Object key = entry.getKey();
+				if (!actualMap.containsKey(key) || !isEqual(entry.getValue(), actualMap.get(key))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (expected instanceof byte[] && actual instanceof byte[]) {
+			return Arrays.equals((byte[]) expected, (byte[]) actual);
+		}
+		if (isList(expected)) {
+			if (!isList(actual)) {
+				return false;
+			}
+			Iterator<?> expectedItems = iterator(expected);
+			Iterator<?> actualItems = iterator(actual);
+			while (expectedItems.hasNext()) {
+				if (!actualItems.hasNext() || !isEqual(expectedItems.next(), actualItems.next())) {
+					return false;
+				}
+			}
+			return !actualItems.hasNext();
+		}
+		if (expected instanceof Number && actual instanceof Number) {
+			try {
+				return new BigDecimal(expected.toString()).compareTo(new BigDecimal(actual.toString())) == 0;
+			} catch (NumberFormatException nanOrInfinite) {
+				return expected.toString().equals(actual.toString());
+			}
+		}
+		return expected.equals(actual);
+	}
+
+	protected static final boolean isList(Object value) {
+		return value instanceof Collection || (value.getClass().isArray() && !(value instanceof byte[]));
+	}
+
+	protected static final Iterator<?> iterator(Object value) {
+		if (value instanceof Collection) {
+			return ((Collection<?>) value).iterator();
+		}
+		int length = Array.getLength(value);
+		ArrayList<Object> list = new ArrayList<>(length);
+		for (int i = 0; i < length; i++) {
+			list.add(Array.get(value, i));
+		}
+		return list.iterator();
+	}
+
+	// --- AVAILABLE ADAPTERS ---
+
+	/**
+	 * Returns the instances of the known adapters of the specified format,
+	 * which are available on the classpath.
+	 * 
+	 * @param format
+	 *            format (eg. "json")
+	 * 
+	 * @return list of adapters
+	 */
+	public static final List<AbstractAdapter> getAvailableAdapters(String format) {
+		String[] names = CANDIDATES.get(format);
+		if (names == null) {
+			return Collections.emptyList();
+		}
+		ArrayList<AbstractAdapter> adapters = new ArrayList<>(names.length);
+		for (String name : names) {
+			try {
+				String className = name.indexOf('.') == -1 ? "io.datatree.dom.adapters." + name : name;
+				adapters.add((AbstractAdapter) Class.forName(className).newInstance());
+			} catch (Throwable notAvailable) {
+
+				// Dependency not found
+			}
+		}
+		return adapters;
+	}
+
+	public static final boolean isBinary(String format) {
+		for (String binaryFormat : BINARY_FORMATS) {
+			if (binaryFormat.equals(format)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// --- RESULT ---
+
+	public static class Result {
+
+		public final String format;
+
+		public AbstractAdapter reader;
+
+		public AbstractAdapter writer;
+
+		public long bestReaderNanos = Long.MAX_VALUE;
+
+		public long bestWriterNanos = Long.MAX_VALUE;
+
+		/**
+		 * Measured execution times (nanoseconds per payload set, or
+		 * Long.MAX_VALUE if the adapter is not usable) by adapter name.
+		 */
+		public final LinkedHashMap<String, Long> readerNanos = new LinkedHashMap<>();
+
+		public final LinkedHashMap<String, Long> writerNanos = new LinkedHashMap<>();
+
+		public Result(String format) {
+			this.format = format;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder tmp = new StringBuilder(256);
+			tmp.append("Calibration of \"").append(format).append("\" format:\r\n");
+			tmp.append("  fastest reader: ").append(reader == null ? "none" : reader.getClass().getSimpleName());
+			tmp.append("\r\n  fastest writer: ").append(writer == null ? "none" : writer.getClass().getSimpleName());
+			for (Map.Entry<String, Long> entry : readerNanos.entrySet()) {
+				Long writerNano = writerNanos.get(entry.getKey());
+				tmp.append("\r\n  ").append(entry.getKey()).append(": read ").append(toString(entry.getValue()))
+						.append(", write ").append(toString(writerNano));
+			}
+			return tmp.toString();
+		}
+
+		protected static final String toString(Long nanos) {
+			if (nanos == null || nanos == Long.MAX_VALUE) {
+				return "n/a";
+			}
+			return nanos + " ns";
+		}
+
+	}
+
+}
\ No newline at end of file
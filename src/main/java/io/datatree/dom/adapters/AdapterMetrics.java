@@ -0,0 +1,214 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of one adapter (parse / serialize latency histograms, input and
+ * output sizes, error counts and allocated bytes), collected by the
+ * {@link MetricsAdapter}. Instances are registered as JMX MBeans with the
+ * name "io.datatree:type=AdapterMetrics,format=[format],adapter=[name]".
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AdapterMetrics implements AdapterMetricsMBean {
+
+	// --- IDENTIFIERS ---
+
+	protected final String format;
+
+	protected final String adapter;
+
+	// --- PARSER METRICS ---
+
+	public final LatencyHistogram parseLatency = new LatencyHistogram();
+
+	public final LongAdder parseErrors = new LongAdder();
+
+	public final LongAdder bytesRead = new LongAdder();
+
+	public final LongAdder charsRead = new LongAdder();
+
+	public final LongAdder parseAllocatedBytes = new LongAdder();
+
+	// --- SERIALIZER METRICS ---
+
+	public final LatencyHistogram serializeLatency = new LatencyHistogram();
+
+	public final LongAdder serializeErrors = new LongAdder();
+
+	public final LongAdder bytesWritten = new LongAdder();
+
+	public final LongAdder charsWritten = new LongAdder();
+
+	public final LongAdder serializeAllocatedBytes = new LongAdder();
+
+	// --- CONSTRUCTOR ---
+
+	public AdapterMetrics(String format, String adapter) {
+		this.format = format;
+		this.adapter = adapter;
+	}
+
+	// --- IDENTIFIERS ---
+
+	@Override
+	public String getFormat() {
+		return format;
+	}
+
+	@Override
+	public String getAdapter() {
+		return adapter;
+	}
+
+	// --- PARSER METRICS ---
+
+	@Override
+	public long getParseCount() {
+		return parseLatency.getCount();
+	}
+
+	@Override
+	public long getParseErrors() {
+		return parseErrors.sum();
+	}
+
+	@Override
+	public double getParseMeanNanos() {
+		return parseLatency.getMean();
+	}
+
+	@Override
+	public long getParseP50Nanos() {
+		return parseLatency.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getParseP99Nanos() {
+		return parseLatency.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getParseP999Nanos() {
+		return parseLatency.getValueAtPercentile(99.9);
+	}
+
+	@Override
+	public long getParseMaxNanos() {
+		return parseLatency.getMax();
+	}
+
+	@Override
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	@Override
+	public long getCharsRead() {
+		return charsRead.sum();
+	}
+
+	@Override
+	public long getParseAllocatedBytes() {
+		return parseAllocatedBytes.sum();
+	}
+
+	// --- SERIALIZER METRICS ---
+
+	@Override
+	public long getSerializeCount() {
+		return serializeLatency.getCount();
+	}
+
+	@Override
+	public long getSerializeErrors() {
+		return serializeErrors.sum();
+	}
+
+	@Override
+	public double getSerializeMeanNanos() {
+		return serializeLatency.getMean();
+	}
+
+	@Override
+	public long getSerializeP50Nanos() {
+		return serializeLatency.getValueAtPercentile(50);
+	}
+
+	@Override
+	public long getSerializeP99Nanos() {
+		return serializeLatency.getValueAtPercentile(99);
+	}
+
+	@Override
+	public long getSerializeP999Nanos() {
+		return serializeLatency.getValueAtPercentile(99.9);
+	}
+
+	@Override
+	public long getSerializeMaxNanos() {
+		return serializeLatency.getMax();
+	}
+
+	@Override
+	public long getBytesWritten() {
+		return bytesWritten.sum();
+	}
+
+	@Override
+	public long getCharsWritten() {
+		return charsWritten.sum();
+	}
+
+	@Override
+	public long getSerializeAllocatedBytes() {
+		return serializeAllocatedBytes.sum();
+	}
+
+	// --- OPERATIONS ---
+
+	@Override
+	public void reset() {
+		parseLatency.reset();
+		parseErrors.reset();
+		bytesRead.reset();
+		charsRead.reset();
+		parseAllocatedBytes.reset();
+		serializeLatency.reset();
+		serializeErrors.reset();
+		bytesWritten.reset();
+		charsWritten.reset();
+		serializeAllocatedBytes.reset();
+	}
+
+	// --- TO STRING ---
+
+	@Override
+	public String toString() {
+		return format + '/' + adapter + " [parse: count=" + getParseCount() + ", errors=" + getParseErrors()
+				+ ", p50=" + getParseP50Nanos() + "ns, p99=" + getParseP99Nanos() + "ns, max=" + getParseMaxNanos()
+				+ "ns, bytes=" + getBytesRead() + ", chars=" + getCharsRead() + ", allocated="
+				+ getParseAllocatedBytes() + "] [serialize: count=" + getSerializeCount() + ", errors="
+				+ getSerializeErrors() + ", p50=" + getSerializeP50Nanos() + "ns, p99=" + getSerializeP99Nanos()
+				+ "ns, max=" + getSerializeMaxNanos() + "ns, bytes=" + getBytesWritten() + ", chars="
+				+ getCharsWritten() + ", allocated=" + getSerializeAllocatedBytes() + "]";
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+/**
+ * JMX interface of the {@link AdapterMetrics}. Latencies are in
+ * nanoseconds, sizes are in bytes (binary data, and String data when
+ * "MetricsAdapter.countUtf8Bytes" is set) or in characters (String data).
+ * Only the successful calls are measured; failed calls are counted by the
+ * "Errors" attributes.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public interface AdapterMetricsMBean {
+
+	// --- IDENTIFIERS ---
+
+	String getFormat();
+
+	String getAdapter();
+
+	// --- PARSER METRICS ---
+
+	long getParseCount();
+
+	long getParseErrors();
+
+	double getParseMeanNanos();
+
+	long getParseP50Nanos();
+
+	long getParseP99Nanos();
+
+	long getParseP999Nanos();
+
+	long getParseMaxNanos();
+
+	long getBytesRead();
+
+	long getCharsRead();
+
+	long getParseAllocatedBytes();
+
+	// --- SERIALIZER METRICS ---
+
+	long getSerializeCount();
+
+	long getSerializeErrors();
+
+	double getSerializeMeanNanos();
+
+	long getSerializeP50Nanos();
+
+	long getSerializeP99Nanos();
+
+	long getSerializeP999Nanos();
+
+	long getSerializeMaxNanos();
+
+	long getBytesWritten();
+
+	long getCharsWritten();
+
+	long getSerializeAllocatedBytes();
+
+	// --- OPERATIONS ---
+
+	void reset();
+
+}
\ No newline at end of file
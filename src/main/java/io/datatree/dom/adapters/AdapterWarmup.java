@@ -0,0 +1,306 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.datatree.dom.TreeReader;
+import io.datatree.dom.TreeReaderRegistry;
+import io.datatree.dom.TreeWriter;
+import io.datatree.dom.TreeWriterRegistry;
+
+/**
+ * <b>ADAPTER WARM-UP</b><br>
+ * <br>
+ * Description: Runs the registered (or the specified) reader and writer of a
+ * format through serialize / parse cycles with representative payloads before
+ * the application starts to serve traffic. The warm-up triggers the JIT
+ * compilation of the hot paths (eg. JsonIon.write, the recursion of
+ * XmlBuiltin, the Kryo serializers), and fills the object pools of the
+ * adapters (the pools are filled up to the number of the warm-up threads).
+ * The warm-up stops when the average latency of the last batches is stable,
+ * or when the time / iteration budget is exhausted. The stability check
+ * starts only after "minIterations" cycles (by default, the C2 compile
+ * threshold of the JVM), because the interpreted or C1-compiled code can
+ * also produce stable latencies.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * AdapterWarmup warmup = new AdapterWarmup();<br>
+ * warmup.maxMillis = 3000;<br>
+ * AdapterWarmup.Result result = warmup.warmUp("json", samplePayload);<br>
+ * System.out.println(result);
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AdapterWarmup {
+
+	// --- BUDGET ---
+
+	/**
+	 * Max time of the warm-up (milliseconds).
+	 */
+	public long maxMillis = 5000;
+
+	/**
+	 * Max number of serialize + parse cycles (all threads).
+	 */
+	public long maxIterations = 1000000;
+
+	/**
+	 * Min number of serialize + parse cycles (all threads) before the
+	 * stability check. The default value is the "Tier4CompileThreshold" of
+	 * the JVM (or 15000, if it is not available).
+	 */
+	public long minIterations = getCompileThreshold();
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Number of warm-up threads (and the number of pooled parsers / writers).
+	 */
+	public int threads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Number of cycles per measured batch.
+	 */
+	public int batchSize = 200;
+
+	/**
+	 * Number of the last batches that must be within the tolerance.
+	 */
+	public int stableBatches = 5;
+
+	/**
+	 * Max relative deviation of the stable batches (0.1 = 10%).
+	 */
+	public double tolerance = 0.1;
+
+	/**
+	 * Warm up the "pretty" writer too.
+	 */
+	public boolean pretty;
+
+	// --- WARM UP ---
+
+	/**
+	 * Warms up the registered reader and writer of the specified format.
+	 * 
+	 * @param format
+	 *            format (eg. "json")
+	 * @param payloads
+	 *            String / byte array sources or raw structures
+	 * 
+	 * @return result of the warm-up
+	 */
+	public Result warmUp(String format, Object... payloads) {
+		return warmUp(format, TreeReaderRegistry.getReader(format), TreeWriterRegistry.getWriter(format),
+				Arrays.asList(payloads));
+	}
+
+	public Result warmUp(String format, TreeReader reader, TreeWriter writer, Collection<?> payloads) {
+		boolean binary = AdapterCalibrator.isBinary(format);
+
+		// Convert sources to raw structures
+		ArrayList<Object> values = new ArrayList<>(payloads.size());
+		try {
+			for (Object payload : payloads) {
+				if (payload instanceof String) {
+					values.add(reader.parse((String) payload));
+				} else if (payload instanceof byte[]) {
+					values.add(reader.parse((byte[]) payload));
+				} else {
+					values.add(payload);
+				}
+			}
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse sample!", cause);
+		}
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("No samples!");
+		}
+
+		// Start warm-up threads
+		Result result = new Result(format);
+		long start = System.nanoTime();
+		long deadline = start + maxMillis * 1000000L;
+		AtomicBoolean stop = new AtomicBoolean();
+		AtomicLong iterations = new AtomicLong();
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		int count = Math.max(1, threads);
+		Thread[] workers = new Thread[count];
+		for (int t = 0; t < count; t++) {
+			boolean measure = t == 0;
+			workers[t] = new Thread(() -> {
+				double[] batches = new double[Math.max(2, stableBatches)];
+				int batchIndex = 0;
+				try {
+					while (!stop.get()) {
+						long batchStart = System.nanoTime();
+						for (int i = 0; i < batchSize; i++) {
+							Object value = values.get(i % values.size());
+							if (binary) {
+								reader.parse(writer.toBinary(value, null, false));
+							} else {
+								reader.parse(writer.toString(value, null, false, false));
+								if (pretty) {
+									writer.toString(value, null, true, false);
+								}
+							}
+						}
+						long now = System.nanoTime();
+						long total = iterations.addAndGet(batchSize);
+						if (total >= maxIterations || now >= deadline) {
+							stop.set(true);
+						}
+						if (!measure) {
+							continue;
+						}
+
+						// Steady state detection
+						double nanos = (double) (now - batchStart) / batchSize;
+						if (result.firstBatchNanos == 0) {
+							result.firstBatchNanos = nanos;
+						}
+						result.nanosPerCycle = nanos;
+						if (total - batchSize < minIterations) {
+
+							// Hot paths are not compiled by C2 yet
+							continue;
+						}
+						batches[batchIndex++ % batches.length] = nanos;
+						if (batchIndex >= batches.length && isStable(batches)) {
+							result.steady = true;
+							result.steadyAfterIterations = total;
+							result.steadyAfterMillis = (now - start) / 1000000L;
+							stop.set(true);
+						}
+					}
+				} catch (Throwable cause) {
+					error.compareAndSet(null, cause);
+					stop.set(true);
+				}
+			}, "warmup-" + format + "-" + t);
+			workers[t].setDaemon(true);
+			workers[t].start();
+		}
+		for (Thread worker : workers) {
+			try {
+				worker.join();
+			} catch (InterruptedException interrupt) {
+				stop.set(true);
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		if (error.get() != null) {
+			throw new IllegalStateException("Warm-up of \"" + format + "\" failed!", error.get());
+		}
+		result.iterations = iterations.get();
+		result.elapsedMillis = (System.nanoTime() - start) / 1000000L;
+		return result;
+	}
+
+	/**
+	 * Returns the number of invocations that trigger the C2 (tier 4)
+	 * compilation of a method.
+	 * 
+	 * @return value of the "Tier4CompileThreshold" JVM option, or 15000
+	 */
+	public static final long getCompileThreshold() {
+		try {
+			com.sun.management.HotSpotDiagnosticMXBean bean = ManagementFactory
+					.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+			return Long.parseLong(bean.getVMOption("Tier4CompileThreshold").getValue());
+		} catch (Throwable notAvailable) {
+
+			// Not a HotSpot JVM
+			return 15000;
+		}
+	}
+
+	protected boolean isStable(double[] batches) {
+		double sum = 0;
+		for (double nanos : batches) {
+			sum += nanos;
+		}
+		double average = sum / batches.length;
+		for (double nanos : batches) {
+			if (Math.abs(nanos - average) > average * tolerance) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// --- RESULT ---
+
+	public static class Result {
+
+		public final String format;
+
+		/**
+		 * Steady state was reached (within the budget).
+		 */
+		public boolean steady;
+
+		public long steadyAfterIterations;
+
+		public long steadyAfterMillis;
+
+		public long iterations;
+
+		public long elapsedMillis;
+
+		/**
+		 * Average latency of a cycle in the first and the last batch
+		 * (nanoseconds).
+		 */
+		public double firstBatchNanos;
+
+		public double nanosPerCycle;
+
+		public Result(String format) {
+			this.format = format;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder tmp = new StringBuilder(128);
+			tmp.append("Warm-up of \"").append(format).append("\": ");
+			if (steady) {
+				tmp.append("steady state reached after ").append(steadyAfterIterations).append(" cycles (")
+						.append(steadyAfterMillis).append(" ms)");
+			} else {
+				tmp.append("steady state NOT reached in ").append(iterations).append(" cycles (")
+						.append(elapsedMillis).append(" ms)");
+			}
+			tmp.append(", first batch: ").append(Math.round(firstBatchNanos)).append(" ns/cycle, last batch: ")
+					.append(Math.round(nanosPerCycle)).append(" ns/cycle");
+			return tmp.toString();
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,286 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import io.datatree.Tree;
+
+/**
+ * <b>NON-BLOCKING (ASYNC) JSON / SMILE PARSER</b><br>
+ * <br>
+ * Description: Feed-style parser, based on Jackson's non-blocking parser (see
+ * JsonJackson.createAsyncParser and SmileJackson.createAsyncParser). The
+ * input is fed in byte chunks as they arrive from the network, and the
+ * complete top-level values are returned as Trees. The tokens of the current
+ * value are collected into a TokenBuffer; no thread is blocked while waiting
+ * for the rest of the payload.<br>
+ * <br>
+ * Backpressure: a new chunk can only be fed when the previous one has been
+ * fully consumed ({@link #needMoreInput()} returns {@code true}), and the
+ * chunks are consumed by calling {@link #next()}. A slow consumer therefore
+ * automatically stops the feeding of new chunks. The fed byte arrays must
+ * not be modified until they are consumed.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * AsyncTreeParser parser = jsonJackson.createAsyncParser();<br>
+ * <br>
+ * // On each received chunk<br>
+ * parser.feed(chunk, 0, length);<br>
+ * Tree value;<br>
+ * while ((value = parser.next()) != null) {<br>
+ * &nbsp;&nbsp;...<br>
+ * }<br>
+ * <br>
+ * // At the end of the request body<br>
+ * parser.endOfInput();<br>
+ * while ((value = parser.next()) != null) {<br>
+ * &nbsp;&nbsp;...<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AsyncTreeParser implements Closeable {
+
+	// --- ADAPTER AND PARSER ---
+
+	protected final AbstractJacksonAdapter adapter;
+	protected final JsonParser parser;
+	protected final ByteArrayFeeder feeder;
+
+	// --- CURRENT VALUE ---
+
+	protected TokenBuffer buffer;
+	protected int depth;
+
+	// --- STATE ---
+
+	protected boolean finished;
+	protected long valueCount;
+
+	// --- CONSTRUCTOR ---
+
+	/**
+	 * Creates an async parser.
+	 * 
+	 * @param adapter
+	 *            Jackson adapter (converts the values)
+	 * @param parser
+	 *            non-blocking parser (eg.
+	 *            JsonFactory.createNonBlockingByteArrayParser())
+	 */
+	public AsyncTreeParser(AbstractJacksonAdapter adapter, JsonParser parser) {
+		this.adapter = adapter;
+		this.parser = parser;
+		this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+	}
+
+	// --- FEED INPUT ---
+
+	/**
+	 * Returns {@code true} when the previous chunk has been fully consumed and
+	 * the parser can accept the next one.
+	 * 
+	 * @return parser needs more input
+	 */
+	public boolean needMoreInput() {
+		return feeder.needMoreInput();
+	}
+
+	public void feed(byte[] chunk) throws IOException {
+		feed(chunk, 0, chunk.length);
+	}
+
+	/**
+	 * Feeds the next chunk of the input.
+	 * 
+	 * @param chunk
+	 *            input bytes (must not be modified until consumed)
+	 * @param offset
+	 *            offset of the first byte
+	 * @param length
+	 *            number of bytes
+	 * 
+	 * @throws IOException
+	 *             the previous chunk has not been consumed yet
+	 */
+	public void feed(byte[] chunk, int offset, int length) throws IOException {
+		feeder.feedInput(chunk, offset, offset + length);
+	}
+
+	/**
+	 * Feeds the next chunk, and passes the completed values to the consumer.
+	 * 
+	 * @param chunk
+	 *            input bytes
+	 * @param offset
+	 *            offset of the first byte
+	 * @param length
+	 *            number of bytes
+	 * @param consumer
+	 *            consumer of the parsed values
+	 * 
+	 * @return number of completed values
+	 * 
+	 * @throws IOException
+	 *             invalid input
+	 */
+	public int feed(byte[] chunk, int offset, int length, Consumer<Tree> consumer) throws IOException {
+		feed(chunk, offset, length);
+		return drain(consumer);
+	}
+
+	/**
+	 * Marks the end of the input (no more chunks will be fed).
+	 */
+	public void endOfInput() {
+		feeder.endOfInput();
+	}
+
+	/**
+	 * Marks the end of the input, and passes the remaining values to the
+	 * consumer.
+	 * 
+	 * @param consumer
+	 *            consumer of the parsed values
+	 * 
+	 * @return number of completed values
+	 * 
+	 * @throws IOException
+	 *             invalid or truncated input
+	 */
+	public int endOfInput(Consumer<Tree> consumer) throws IOException {
+		endOfInput();
+		return drain(consumer);
+	}
+
+	// --- READ VALUES ---
+
+	/**
+	 * Returns the next completed top-level value.
+	 * 
+	 * @return parsed value, or {@code null} if more input is needed (or the
+	 *         end of the input has been reached)
+	 * 
+	 * @throws IOException
+	 *             invalid or truncated input
+	 */
+	public Tree next() throws IOException {
+		if (finished) {
+			return null;
+		}
+		JsonToken token;
+		while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE) {
+			if (token == null) {
+				finished = true;
+				if (depth > 0) {
+					throw new IOException("Unexpected end of input (incomplete value)!");
+				}
+				return null;
+			}
+
+			// Collect the tokens of the current value
+			if (buffer == null) {
+				buffer = new TokenBuffer(adapter.mapper, false);
+			}
+			buffer.copyCurrentEvent(parser);
+			if (token.isStructStart()) {
+				depth++;
+			} else if (token.isStructEnd()) {
+				depth--;
+			}
+			if (depth > 0) {
+				continue;
+			}
+
+			// Top-level value completed
+			Object value;
+			try (JsonParser tokens = buffer.asParser()) {
+				if (token.isStructEnd()) {
+					value = adapter.readValue(tokens);
+				} else {
+					tokens.nextToken();
+					value = adapter.mapper.readValue(tokens, Object.class);
+				}
+			} catch (IOException cause) {
+				throw cause;
+			} catch (Exception cause) {
+				throw new IOException(cause);
+			} finally {
+				buffer = null;
+			}
+			valueCount++;
+			return ParsedTree.create(value);
+		}
+		return null;
+	}
+
+	/**
+	 * Passes all completed values to the consumer.
+	 * 
+	 * @param consumer
+	 *            consumer of the parsed values
+	 * 
+	 * @return number of completed values
+	 * 
+	 * @throws IOException
+	 *             invalid input
+	 */
+	public int drain(Consumer<Tree> consumer) throws IOException {
+		int count = 0;
+		Tree value;
+		while ((value = next()) != null) {
+			consumer.accept(value);
+			count++;
+		}
+		return count;
+	}
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Returns {@code true} when the end of the input has been reached and all
+	 * values have been returned.
+	 * 
+	 * @return end of input
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+	public long getValueCount() {
+		return valueCount;
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+		parser.close();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Binary adapters which can read / write the data directly from / to (heap or
+ * direct) ByteBuffers, without copying the message into a temporary byte
+ * array.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public interface ByteBufferAdapter {
+
+	/**
+	 * Parses the document from the remaining bytes of the buffer (from the
+	 * position to the limit). After the call the position of the buffer is
+	 * equal to its limit.
+	 * 
+	 * @param source
+	 *            heap or direct buffer
+	 * 
+	 * @return parsed structure (Map or List)
+	 * 
+	 * @throws Exception
+	 *             any parser exception
+	 */
+	Object parse(ByteBuffer source) throws Exception;
+
+	/**
+	 * Serializes the structure into the buffer, starting at the buffer's
+	 * position. The position is advanced by the number of written bytes.
+	 * Throws a runtime exception (eg. BufferOverflowException) when the
+	 * remaining space is not enough.
+	 * 
+	 * @param value
+	 *            structure to write (Map, List, etc.)
+	 * @param meta
+	 *            meta structure (or {@code null})
+	 * @param insertMeta
+	 *            insert the meta structure
+	 * @param target
+	 *            heap or direct buffer
+	 */
+	void toBinary(Object value, Object meta, boolean insertMeta, ByteBuffer target);
+
+	default void toBinary(Object value, ByteBuffer target) {
+		toBinary(value, null, false, target);
+	}
+
+}
\ No newline at end of file
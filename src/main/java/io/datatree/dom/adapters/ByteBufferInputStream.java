@@ -0,0 +1,79 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream over the remaining bytes of a (heap or direct) ByteBuffer.
+ * Reading advances the position of the buffer.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class ByteBufferInputStream extends InputStream {
+
+	// --- SOURCE BUFFER ---
+
+	public ByteBuffer buffer;
+
+	// --- CONSTRUCTOR ---
+
+	public ByteBufferInputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	// --- READ METHODS ---
+
+	@Override
+	public int read() {
+		if (!buffer.hasRemaining()) {
+			return -1;
+		}
+		return buffer.get() & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] bytes, int off, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		int remaining = buffer.remaining();
+		if (remaining == 0) {
+			return -1;
+		}
+		if (len > remaining) {
+			len = remaining;
+		}
+		buffer.get(bytes, off, len);
+		return len;
+	}
+
+	@Override
+	public long skip(long n) {
+		int len = (int) Math.max(0, Math.min(n, buffer.remaining()));
+		buffer.position(buffer.position() + len);
+		return len;
+	}
+
+	@Override
+	public int available() {
+		return buffer.remaining();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * OutputStream which writes into a (heap or direct) ByteBuffer, starting at
+ * the buffer's position. Throws BufferOverflowException when the buffer is
+ * full. The target buffer can be replaced between writes (so the stream and
+ * the serializer built on it can be pooled).
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class ByteBufferOutputStream extends OutputStream {
+
+	// --- TARGET BUFFER ---
+
+	public ByteBuffer buffer;
+
+	// --- CONSTRUCTORS ---
+
+	public ByteBufferOutputStream() {
+	}
+
+	public ByteBufferOutputStream(ByteBuffer buffer) {
+		this.buffer = buffer;
+	}
+
+	// --- WRITE METHODS ---
+
+	@Override
+	public void write(int b) {
+		buffer.put((byte) b);
+	}
+
+	@Override
+	public void write(byte[] bytes, int off, int len) {
+		buffer.put(bytes, off, len);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Adapters which can read / write the data directly from / to byte streams,
+ * without materializing the whole document as a String or byte array. The
+ * streams are NOT closed by the adapter.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public interface ByteStreamAdapter {
+
+	/**
+	 * Parses the document from the stream.
+	 * 
+	 * @param source
+	 *            input stream (remains open)
+	 * 
+	 * @return parsed structure (Map or List)
+	 * 
+	 * @throws Exception
+	 *             any I/O or parser exception
+	 */
+	Object parse(InputStream source) throws Exception;
+
+	/**
+	 * Serializes the structure into the stream.
+	 * 
+	 * @param value
+	 *            structure to write (Map, List, etc.)
+	 * @param meta
+	 *            meta structure (or {@code null})
+	 * @param pretty
+	 *            pretty (indented) output
+	 * @param insertMeta
+	 *            insert the meta structure
+	 * @param target
+	 *            output stream (remains open)
+	 */
+	void write(Object value, Object meta, boolean pretty, boolean insertMeta, OutputStream target);
+
+	default void write(Object value, OutputStream target) {
+		write(value, null, false, false, target);
+	}
+
+}
\ No newline at end of file
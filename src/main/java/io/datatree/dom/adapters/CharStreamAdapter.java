@@ -0,0 +1,112 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Text adapters which can read / write the data directly from / to character
+ * streams, without building the whole document as a String. The Readers and
+ * Writers are NOT closed by the adapter.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public interface CharStreamAdapter {
+
+	/**
+	 * Parses the document from the Reader.
+	 * 
+	 * @param source
+	 *            character stream (remains open)
+	 * 
+	 * @return parsed structure (Map or List)
+	 * 
+	 * @throws Exception
+	 *             any I/O or parser exception
+	 */
+	Object parse(Reader source) throws Exception;
+
+	/**
+	 * Serializes the structure into the Writer.
+	 * 
+	 * @param value
+	 *            structure to write (Map, List, etc.)
+	 * @param meta
+	 *            meta structure (or {@code null})
+	 * @param pretty
+	 *            pretty (indented) output
+	 * @param insertMeta
+	 *            insert the meta structure
+	 * @param target
+	 *            character stream (remains open)
+	 */
+	void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target);
+
+	default void write(Object value, Writer target) {
+		write(value, null, false, false, target);
+	}
+
+	// --- UTILITIES ---
+
+	/**
+	 * Returns the first non-whitespace character of the stream, without
+	 * consuming it.
+	 * 
+	 * @param source
+	 *            character stream
+	 * 
+	 * @return first character, or -1 at the end of the stream
+	 * 
+	 * @throws IOException
+	 *             any I/O exception
+	 */
+	static int peek(PushbackReader source) throws IOException {
+		int c;
+		do {
+			c = source.read();
+		} while (c != -1 && (Character.isWhitespace(c) || c == '\uFEFF'));
+		if (c != -1) {
+			source.unread(c);
+		}
+		return c;
+	}
+
+	/**
+	 * Wraps the Reader to protect it against parsers which close their input
+	 * at the end of the document.
+	 * 
+	 * @param source
+	 *            character stream
+	 * 
+	 * @return wrapped stream with an empty close() method
+	 */
+	static Reader keepOpen(Reader source) {
+		return new FilterReader(source) {
+
+			@Override
+			public void close() {
+			}
+
+		};
+	}
+
+}
\ No newline at end of file
@@ -17,8 +17,11 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.Collections;
@@ -71,12 +74,22 @@ import io.datatree.dom.converters.DataConverterRegistry;
  * Innvoke this implementation directly:<br>
  * <br>
  * Tree node = new Tree(inputString, "CsvOpenCSV");<br>
- * String outputString = node.toString("CsvOpenCSV");
+ * String outputString = node.toString("CsvOpenCSV");<br>
+ * <br>
+ * <b>Stream rows (in constant memory):</b><br>
+ * <br>
+ * try (CsvRowReader&lt;Map&lt;String, String&gt;&gt; rows =
+ * csvOpenCSV.readRecords(reader)) {<br>
+ * &nbsp;&nbsp;rows.stream().forEach(row -&gt; ...);<br>
+ * }<br>
+ * try (CsvRowWriter writer = csvOpenCSV.createRowWriter(writer, true)) {<br>
+ * &nbsp;&nbsp;writer.write(rowMap);<br>
+ * }
  * 
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(10)
-public class CsvOpenCSV extends AbstractTextAdapter {
+public class CsvOpenCSV extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- PARSING PROPERTIES ---
 
@@ -101,40 +114,86 @@ public class CsvOpenCSV extends AbstractTextAdapter {
 
 	// --- IMPLEMENTED WRITER METHOD ---
 
-	@SuppressWarnings({ "resource" })
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		if (value == null) {
 			return "";
 		}
 		StringWriter writer = new StringWriter(512);
-		CSVWriter mapper = new CSVWriter(writer, defaultSeparatorChar, defaultQuoteChar, defaultEscapeChar,
-				defaultLineEnd);
+		write(value, meta, pretty, insertMeta, writer);
+		return writer.toString();
+	}
+
+	// --- STREAMING WRITER ---
+
+	@SuppressWarnings({ "resource" })
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		if (value == null) {
+			return;
+		}
+		CSVWriter mapper = createWriter(target);
 		Collection<?> lines = objectToCollection(value);
 		if (lines != null) {
 			final Iterator<?> iterator = lines.iterator();
-			Collection<?> cells;
 			String[] array;
-			Object line;
-			int index;
 			while (iterator.hasNext()) {
-				line = iterator.next();
-				cells = objectToCollection(line);
-				if (cells != null) {
-					array = new String[cells.size()];
-					index = 0;
-					for (Object cell : cells) {
-						try {
-							array[index++] = DataConverterRegistry.convert(String.class, cell);
-						} catch (Exception e) {
-							array[index++] = "";
-						}
-					}
+				array = toRow(iterator.next());
+				if (array != null) {
 					mapper.writeNext(array);
 				}
 			}
 		}
-		return writer.toString();
+		try {
+			mapper.flush();
+		} catch (IOException cause) {
+			throw new IllegalArgumentException(cause);
+		}
+	}
+
+	// --- ROW WRITER ---
+
+	/**
+	 * Creates a row-by-row writer. In "header" mode the keys of the first Map
+	 * are written as a header row, and the values of the Maps are written in
+	 * the order of the header.
+	 * 
+	 * @param target
+	 *            output (closed by the CsvRowWriter)
+	 * @param header
+	 *            header mode
+	 * 
+	 * @return row writer
+	 */
+	public CsvRowWriter createRowWriter(Writer target, boolean header) {
+		return new CsvRowWriter(createWriter(target), header);
+	}
+
+	protected CSVWriter createWriter(Writer target) {
+		return new CSVWriter(target, defaultSeparatorChar, defaultQuoteChar, defaultEscapeChar, defaultLineEnd);
+	}
+
+	// --- OBJECT TO ROW CONVERTER ---
+
+	protected static final String[] toRow(Object line) {
+		Collection<?> cells = objectToCollection(line);
+		if (cells == null) {
+			return null;
+		}
+		String[] array = new String[cells.size()];
+		int index = 0;
+		for (Object cell : cells) {
+			array[index++] = toCell(cell);
+		}
+		return array;
+	}
+
+	protected static final String toCell(Object cell) {
+		try {
+			return DataConverterRegistry.convert(String.class, cell);
+		} catch (Exception e) {
+			return "";
+		}
 	}
 
 	// --- OBJECT TO COLLECTION CONVERTER ---
@@ -164,6 +223,44 @@ public class CsvOpenCSV extends AbstractTextAdapter {
 
 	@Override
 	public Object parse(String source) throws Exception {
+		return parse(new StringReader(source));
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		return createReader(source).readAll();
+	}
+
+	// --- ROW READERS ---
+
+	/**
+	 * Creates a lazy row iterator (one String array per row).
+	 * 
+	 * @param source
+	 *            input (closed by the CsvRowReader)
+	 * 
+	 * @return row reader
+	 */
+	public CsvRowReader<String[]> readRows(Reader source) {
+		return new CsvRowReader<>(createReader(source), false);
+	}
+
+	/**
+	 * Creates a lazy record iterator. The first row is the header, the other
+	 * rows are converted to Maps (header name -&gt; cell value).
+	 * 
+	 * @param source
+	 *            input (closed by the CsvRowReader)
+	 * 
+	 * @return record reader
+	 */
+	public CsvRowReader<Map<String, String>> readRecords(Reader source) {
+		return new CsvRowReader<>(createReader(source), true);
+	}
+
+	protected CSVReader createReader(Reader source) {
 		CSVParserBuilder parserBuilder = new CSVParserBuilder();
 		
 		parserBuilder.withSeparator(defaultSeparatorChar);
@@ -172,12 +269,12 @@ public class CsvOpenCSV extends AbstractTextAdapter {
 		parserBuilder.withIgnoreQuotations(ignoreQuotations);
 		parserBuilder.withIgnoreLeadingWhiteSpace(defaultIgnoreLeadingWhiteSpace);
 		
-		CSVReaderBuilder readerBuilder = new CSVReaderBuilder(new StringReader(source));
+		CSVReaderBuilder readerBuilder = new CSVReaderBuilder(source);
 
 		readerBuilder.withCSVParser(parserBuilder.build());	
 		readerBuilder.withSkipLines(defaultSkipLines);
 		
-		return readerBuilder.build().readAll();
+		return readerBuilder.build();
 	}
 
 }
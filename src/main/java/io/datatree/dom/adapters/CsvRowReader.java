@@ -0,0 +1,162 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.opencsv.CSVReader;
+
+/**
+ * Lazy, row-by-row CSV / TSV reader (see CsvOpenCSV.readRows and
+ * CsvOpenCSV.readRecords). Only the current row is kept in memory. In "header"
+ * mode the first row contains the column names, and the other rows are
+ * returned as Maps. Closing the reader closes the underlying Reader.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class CsvRowReader<T> implements Iterator<T>, Iterable<T>, Closeable {
+
+	// --- CSV READER ---
+
+	protected final CSVReader reader;
+
+	// --- HEADER ---
+
+	protected final boolean header;
+	protected String[] names;
+
+	// --- NEXT ROW ---
+
+	protected String[] next;
+	protected boolean finished;
+
+	// --- CONSTRUCTOR ---
+
+	public CsvRowReader(CSVReader reader, boolean header) {
+		this.reader = reader;
+		this.header = header;
+	}
+
+	// --- ITERATOR ---
+
+	@Override
+	public Iterator<T> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			if (header && names == null) {
+				names = readNext();
+				if (names == null) {
+					names = new String[0];
+				}
+			}
+			next = readNext();
+			finished = next == null;
+		}
+		return next != null;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		String[] row = next;
+		next = null;
+		if (!header) {
+			return (T) row;
+		}
+		LinkedHashMap<String, String> map = new LinkedHashMap<>();
+		for (int i = 0; i < row.length; i++) {
+			map.put(i < names.length ? names[i] : Integer.toString(i), row[i]);
+		}
+		return (T) map;
+	}
+
+	protected String[] readNext() {
+		try {
+			return reader.readNext();
+		} catch (IOException cause) {
+			throw new UncheckedIOException(cause);
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Invalid CSV row (line " + reader.getLinesRead() + ")!", cause);
+		}
+	}
+
+	// --- SPLITERATOR / STREAM ---
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+
+	/**
+	 * Returns the rows as a sequential Stream. Closing the Stream closes this
+	 * reader.
+	 * 
+	 * @return Stream of rows
+	 */
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false).onClose(() -> {
+			try {
+				close();
+			} catch (IOException cause) {
+				throw new UncheckedIOException(cause);
+			}
+		});
+	}
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Returns the column names (in "header" mode).
+	 * 
+	 * @return column names, or {@code null}
+	 */
+	public String[] getHeader() {
+		if (header) {
+			hasNext();
+		}
+		return names;
+	}
+
+	public long getLinesRead() {
+		return reader.getLinesRead();
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Map;
+
+import com.opencsv.CSVWriter;
+
+/**
+ * Row-by-row CSV / TSV writer (see CsvOpenCSV.createRowWriter). Rows can be
+ * Collections, arrays or Maps. In "header" mode the keys of the first Map are
+ * written as a header row, and the values of the Maps are written in the order
+ * of the header. Closing the writer closes the underlying Writer.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class CsvRowWriter implements Flushable, Closeable {
+
+	// --- CSV WRITER ---
+
+	protected final CSVWriter writer;
+
+	// --- HEADER ---
+
+	protected final boolean header;
+	protected String[] names;
+
+	// --- CONSTRUCTOR ---
+
+	public CsvRowWriter(CSVWriter writer, boolean header) {
+		this.writer = writer;
+		this.header = header;
+	}
+
+	// --- WRITE ROWS ---
+
+	/**
+	 * Writes the header row (in "header" mode it is written automatically,
+	 * using the keys of the first Map).
+	 * 
+	 * @param columns
+	 *            column names
+	 */
+	public void writeHeader(String... columns) {
+		names = columns;
+		writer.writeNext(columns);
+	}
+
+	public void write(Object row) {
+		if (header && row instanceof Map) {
+			Map<?, ?> map = (Map<?, ?>) row;
+			if (names == null) {
+				String[] columns = new String[map.size()];
+				int index = 0;
+				for (Object key : map.keySet()) {
+					columns[index++] = String.valueOf(key);
+				}
+				writeHeader(columns);
+			}
+			String[] cells = new String[names.length];
+			for (int i = 0; i < names.length; i++) {
+				cells[i] = CsvOpenCSV.toCell(map.get(names[i]));
+			}
+			writer.writeNext(cells);
+			return;
+		}
+		String[] cells = CsvOpenCSV.toRow(row);
+		if (cells != null) {
+			writer.writeNext(cells);
+		}
+	}
+
+	// --- FLUSH AND CLOSE ---
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
\ No newline at end of file
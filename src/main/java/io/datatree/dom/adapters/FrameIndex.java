@@ -0,0 +1,385 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <b>SIDECAR INDEX OF FRAMED BINARY FILES</b><br>
+ * <br>
+ * Description: Maps record numbers (and optionally the values of top-level
+ * key fields) to the byte offsets of the frames of a file, written by the
+ * FrameWriter. The index is built while writing (see FrameWriter), and can be
+ * saved next to the data file. The IndexedFrameReader uses it to seek to and
+ * decode record N (or a range of records) without scanning the file. The
+ * offsets are absolute positions in the file, so a FrameWriter which does
+ * not start at the beginning of the file (eg. after a header) must be
+ * created with the initial position. An index can be extended by appending
+ * to the file with a FrameWriter, created with the same index and the
+ * current size of the file as position.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * FrameIndex index = new FrameIndex("userId");<br>
+ * try (FrameWriter writer = new FrameWriter(out, msgPack, index)) {<br>
+ * &nbsp;&nbsp;...<br>
+ * }<br>
+ * index.save(indexFile);
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class FrameIndex {
+
+	// --- CONSTANTS ---
+
+	protected static final int MAGIC = 0x44544958; // "DTIX"
+	protected static final int VERSION = 1;
+
+	// Arrays are allocated with the decoded sizes up to this limit, beyond
+	// this they grow while reading (a corrupted size fails with EOF, not OOM)
+	protected static final int PREALLOCATION_LIMIT = 65536;
+
+	// --- OFFSETS OF THE FRAMES ---
+
+	protected long[] offsets = new long[1024];
+	protected int count;
+	protected long length;
+
+	// --- KEY FIELD -> KEY VALUE -> RECORD NUMBERS ---
+
+	protected final String[] keyFields;
+	protected final LinkedHashMap<String, HashMap<String, int[]>> keys = new LinkedHashMap<>();
+
+	// --- CONSTRUCTOR ---
+
+	/**
+	 * Creates an empty index.
+	 * 
+	 * @param keyFields
+	 *            names of the indexed top-level fields (optional)
+	 */
+	public FrameIndex(String... keyFields) {
+		this.keyFields = keyFields;
+		for (String field : keyFields) {
+			keys.put(field, new HashMap<>());
+		}
+	}
+
+	// --- ADD RECORD ---
+
+	/**
+	 * Registers the next frame (called by the FrameWriter).
+	 * 
+	 * @param offset
+	 *            offset of the frame (length prefix)
+	 * @param frameLength
+	 *            size of the frame (prefix + payload)
+	 * @param value
+	 *            record (the key fields are read from it)
+	 */
+	public void add(long offset, int frameLength, Object value) {
+		if (offset < length) {
+			throw new IllegalArgumentException("The offset of the frame (" + offset
+					+ ") overlaps the indexed data (" + length + " bytes)!");
+		}
+		if (count == offsets.length) {
+			offsets = Arrays.copyOf(offsets, count * 2);
+		}
+		int recordNumber = count++;
+		offsets[recordNumber] = offset;
+		length = offset + frameLength;
+		if (keyFields.length == 0 || !(value instanceof Map)) {
+			return;
+		}
+		Map<?, ?> map = (Map<?, ?>) value;
+		for (String field : keyFields) {
+			Object key = map.get(field);
+			if (key != null) {
+				addKey(keys.get(field), String.valueOf(key), recordNumber);
+			}
+		}
+	}
+
+	protected static final void addKey(HashMap<String, int[]> values, String key, int recordNumber) {
+
+		// Record numbers (the first item is the number of the records)
+		int[] records = values.get(key);
+		if (records == null) {
+			records = new int[] { 1, recordNumber };
+		} else {
+			int size = records[0] + 1;
+			if (size == records.length) {
+				records = Arrays.copyOf(records, size * 2);
+			}
+			records[size] = recordNumber;
+			records[0] = size;
+		}
+		values.put(key, records);
+	}
+
+	// --- PROPERTIES ---
+
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the offset of the frame of the specified record.
+	 * 
+	 * @param recordNumber
+	 *            record number (0-based)
+	 * 
+	 * @return byte offset in the data file
+	 */
+	public long getOffset(int recordNumber) {
+		if (recordNumber < 0 || recordNumber >= count) {
+			throw new IndexOutOfBoundsException("Invalid record number (" + recordNumber + ")!");
+		}
+		return offsets[recordNumber];
+	}
+
+	/**
+	 * Returns the end offset (exclusive) of the frame of the specified record.
+	 * 
+	 * @param recordNumber
+	 *            record number (0-based)
+	 * 
+	 * @return byte offset in the data file
+	 */
+	public long getEnd(int recordNumber) {
+		getOffset(recordNumber);
+		return recordNumber + 1 < count ? offsets[recordNumber + 1] : length;
+	}
+
+	/**
+	 * Returns the size of the indexed data.
+	 * 
+	 * @return end offset of the last frame
+	 */
+	public long getLength() {
+		return length;
+	}
+
+	public String[] getKeyFields() {
+		return keyFields;
+	}
+
+	/**
+	 * Returns the numbers of the records where the top-level field has the
+	 * specified value.
+	 * 
+	 * @param field
+	 *            indexed field
+	 * @param value
+	 *            value of the field (compared as String)
+	 * 
+	 * @return record numbers (in ascending order)
+	 */
+	public int[] find(String field, Object value) {
+		HashMap<String, int[]> values = keys.get(field);
+		if (values == null) {
+			throw new IllegalArgumentException("Field \"" + field + "\" is not indexed!");
+		}
+		int[] records = values.get(String.valueOf(value));
+		if (records == null) {
+			return new int[0];
+		}
+		return Arrays.copyOfRange(records, 1, records[0] + 1);
+	}
+
+	// --- SAVE ---
+
+	public void save(Path file) throws IOException {
+		try (OutputStream out = Files.newOutputStream(file)) {
+			save(out);
+		}
+	}
+
+	/**
+	 * Writes the index into the stream (the stream remains open).
+	 * 
+	 * @param target
+	 *            output stream
+	 * 
+	 * @throws IOException
+	 *             any I/O exception
+	 */
+	public void save(OutputStream target) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 65536));
+		byte[] varint = new byte[FrameWriter.MAX_VARINT_SIZE];
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		out.writeLong(length);
+
+		// Offsets (delta-encoded)
+		writeVarLong(out, varint, count);
+		long previous = 0;
+		for (int i = 0; i < count; i++) {
+			writeVarLong(out, varint, offsets[i] - previous);
+			previous = offsets[i];
+		}
+
+		// Keys (record numbers are delta-encoded)
+		writeVarLong(out, varint, keyFields.length);
+		for (String field : keyFields) {
+			out.writeUTF(field);
+			HashMap<String, int[]> values = keys.get(field);
+			writeVarLong(out, varint, values.size());
+			for (Map.Entry<String, int[]> entry : values.entrySet()) {
+				out.writeUTF(entry.getKey());
+				int[] records = entry.getValue();
+				writeVarLong(out, varint, records[0]);
+				int previousRecord = 0;
+				for (int i = 1; i <= records[0]; i++) {
+					writeVarLong(out, varint, records[i] - previousRecord);
+					previousRecord = records[i];
+				}
+			}
+		}
+		out.flush();
+	}
+
+	// --- LOAD ---
+
+	public static FrameIndex load(Path file) throws IOException {
+		try (InputStream in = Files.newInputStream(file)) {
+			return load(in);
+		}
+	}
+
+	/**
+	 * Reads an index from the stream (the stream remains open).
+	 * 
+	 * @param source
+	 *            input stream
+	 * 
+	 * @return loaded index
+	 * 
+	 * @throws IOException
+	 *             any I/O exception or invalid index format
+	 */
+	public static FrameIndex load(InputStream source) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(source, 65536));
+		byte[] varint = new byte[FrameWriter.MAX_VARINT_SIZE];
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Invalid frame index (bad magic number)!");
+		}
+		int version = in.readUnsignedByte();
+		if (version != VERSION) {
+			throw new IOException("Unsupported frame index version (" + version + ")!");
+		}
+		long length = in.readLong();
+		if (length < 0) {
+			throw new IOException("Invalid frame index (negative data length)!");
+		}
+
+		// Offsets (strictly increasing, every frame is at least 1 byte long)
+		int count = readCount(in, varint, Integer.MAX_VALUE, "number of records");
+		long[] offsets = new long[Math.max(16, Math.min(count, PREALLOCATION_LIMIT))];
+		long previous = 0;
+		for (int i = 0; i < count; i++) {
+			long delta = readVarLong(in, varint);
+			if ((i > 0 && delta < 1) || delta < 0 || delta >= length - previous) {
+				throw new IOException("Invalid frame index (offset of record " + i + " is out of order or range)!");
+			}
+			previous += delta;
+			if (i == offsets.length) {
+				offsets = Arrays.copyOf(offsets, (int) Math.min(Integer.MAX_VALUE, i * 2L));
+			}
+			offsets[i] = previous;
+		}
+
+		// Keys
+		int fieldCount = readCount(in, varint, Integer.MAX_VALUE, "number of key fields");
+		LinkedHashMap<String, HashMap<String, int[]>> keys = new LinkedHashMap<>();
+		for (int f = 0; f < fieldCount; f++) {
+			String field = in.readUTF();
+			int keyCount = readCount(in, varint, count, "number of keys");
+			int capacity = Math.min(keyCount, PREALLOCATION_LIMIT) * 4 / 3 + 1;
+			HashMap<String, int[]> values = new HashMap<>(Math.max(16, capacity));
+			for (int k = 0; k < keyCount; k++) {
+				String key = in.readUTF();
+				int size = readCount(in, varint, count, "number of records of a key");
+				int[] records = new int[Math.min(size, PREALLOCATION_LIMIT) + 1];
+				records[0] = size;
+				int previousRecord = 0;
+				for (int i = 1; i <= size; i++) {
+					long delta = readVarLong(in, varint);
+					if ((i > 1 && delta < 1) || delta < 0 || delta >= count - previousRecord) {
+						throw new IOException("Invalid frame index (record number of key \"" + key
+								+ "\" is out of order or range)!");
+					}
+					previousRecord += (int) delta;
+					if (i == records.length) {
+						records = Arrays.copyOf(records, (int) Math.min(Integer.MAX_VALUE, i * 2L));
+					}
+					records[i] = previousRecord;
+				}
+				values.put(key, records);
+			}
+			keys.put(field, values);
+		}
+
+		FrameIndex index = new FrameIndex(keys.keySet().toArray(new String[keys.size()]));
+		index.offsets = offsets;
+		index.count = count;
+		index.length = length;
+		index.keys.putAll(keys);
+		return index;
+	}
+
+	// --- VARINT ENCODING (SEE FRAMEWRITER AND FRAMEREADER) ---
+
+	// Reads a count, and checks that it is between 0 and "max"
+	protected static final int readCount(DataInputStream in, byte[] varint, int max, String name)
+			throws IOException {
+		long value = readVarLong(in, varint);
+		if (value < 0 || value > max) {
+			throw new IOException("Invalid frame index (" + name + " is out of range: " + value + ")!");
+		}
+		return (int) value;
+	}
+
+	protected static final void writeVarLong(DataOutputStream out, byte[] varint, long value) throws IOException {
+		out.write(varint, 0, FrameWriter.writeVarLong(value, varint, 0));
+	}
+
+	protected static final long readVarLong(DataInputStream in, byte[] varint) throws IOException {
+		int size = 0;
+		do {
+			if (size == varint.length) {
+				throw new IOException("Malformed varint in the frame index!");
+			}
+			varint[size] = in.readByte();
+		} while (varint[size++] < 0);
+		return FrameReader.readVarLong(varint, 0, size);
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,271 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.datatree.Tree;
+import io.datatree.dom.TreeReaderRegistry;
+
+/**
+ * <b>LENGTH-PREFIXED FRAME READER</b><br>
+ * <br>
+ * Description: Lazily reads the frames of a stream written by the FrameWriter
+ * (varint length prefix + payload), one Tree per frame. The frames are read
+ * into one reusable buffer, and parsed in place by one decoder of a
+ * FramedAdapter (IonIon, MsgPackOrg, KryoKryo, CborJackson, SmileJackson,
+ * MsgPackJackson or BsonJackson). Closing the reader closes the InputStream
+ * (or channel).<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (FrameReader reader = new FrameReader(in, "msgpack")) {<br>
+ * &nbsp;&nbsp;for (Tree event : reader) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;System.out.println(event.get("id", 0));<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class FrameReader implements Iterator<Tree>, Iterable<Tree>, Closeable {
+
+	// --- SOURCE AND DECODER ---
+
+	protected final InputStream source;
+	protected final FramedAdapter.FrameDecoder decoder;
+
+	// --- MAXIMUM SIZE OF A FRAME (PROTECTION AGAINST CORRUPTED PREFIXES) ---
+
+	public int maxFrameSize = 256 * 1024 * 1024;
+
+	// --- FRAME BUFFER ---
+
+	protected byte[] buffer;
+	protected int start;
+	protected int end;
+	protected boolean eof;
+
+	// --- NEXT RECORD ---
+
+	protected Tree next;
+	protected long frameNumber;
+
+	// --- CONSTRUCTORS ---
+
+	public FrameReader(InputStream source, String format) throws IOException {
+		this(source, getFramedAdapter(TreeReaderRegistry.getReader(format), format));
+	}
+
+	public FrameReader(ReadableByteChannel channel, FramedAdapter adapter) throws IOException {
+		this(Channels.newInputStream(channel), adapter);
+	}
+
+	public FrameReader(InputStream source, FramedAdapter adapter) throws IOException {
+		this(source, adapter, 65536);
+	}
+
+	public FrameReader(InputStream source, FramedAdapter adapter, int bufferSize) throws IOException {
+		this.source = source;
+		this.buffer = new byte[Math.max(bufferSize, 16)];
+		try {
+			this.decoder = adapter.createFrameDecoder();
+		} catch (IOException cause) {
+			throw cause;
+		} catch (Exception cause) {
+			throw new IOException(cause);
+		}
+	}
+
+	protected static final FramedAdapter getFramedAdapter(Object adapter, String format) {
+		if (adapter instanceof FramedAdapter) {
+			return (FramedAdapter) adapter;
+		}
+		throw new IllegalArgumentException("The \"" + format + "\" adapter (" + adapter
+				+ ") does not support length-prefixed frames!");
+	}
+
+	// --- ITERATOR ---
+
+	@Override
+	public Iterator<Tree> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			next = readFrame();
+		}
+		return next != null;
+	}
+
+	@Override
+	public Tree next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Tree record = next;
+		next = null;
+		return record;
+	}
+
+	/**
+	 * Returns the index of the last returned frame.
+	 * 
+	 * @return frame number (1-based)
+	 */
+	public long getFrameNumber() {
+		return frameNumber;
+	}
+
+	// --- READ FRAME ---
+
+	protected Tree readFrame() {
+		int length;
+		try {
+
+			// Varint length prefix (without reading beyond its last byte)
+			if (!ensure(1)) {
+				return null;
+			}
+			int prefixLength = 1;
+			while (buffer[start + prefixLength - 1] < 0 && prefixLength < FrameWriter.MAX_VARINT_SIZE
+					&& ensure(prefixLength + 1)) {
+				prefixLength++;
+			}
+			long frameSize;
+			try {
+				frameSize = readVarLong(buffer, start, start + prefixLength);
+			} catch (EOFException cause) {
+				throw new EOFException("Unexpected end of stream (in the prefix of frame " + (frameNumber + 1) + ")!");
+			} catch (IOException cause) {
+				throw new IOException("Malformed length prefix (frame " + (frameNumber + 1) + ")!", cause);
+			}
+			if (frameSize < 0 || frameSize > maxFrameSize) {
+				throw new IOException("Invalid frame size (" + frameSize + " bytes, frame " + (frameNumber + 1) + ")!");
+			}
+			start += prefixLength;
+			length = (int) frameSize;
+
+			// Payload
+			if (!ensure(length)) {
+				throw new EOFException("Unexpected end of stream (in the payload of frame " + (frameNumber + 1)
+						+ ")!");
+			}
+		} catch (IOException cause) {
+			throw new UncheckedIOException(cause);
+		}
+		frameNumber++;
+		Object value;
+		try {
+			value = decoder.decode(buffer, start, length);
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse frame " + frameNumber + "!", cause);
+		} finally {
+			start += length;
+		}
+		return ParsedTree.create(value);
+	}
+
+	// --- VARINT (UNSIGNED LEB128) DECODING ---
+
+	/**
+	 * Reads a varint (unsigned LEB128), written by
+	 * {@link FrameWriter#writeVarLong(long, byte[], int)}. The size of the
+	 * encoded value is {@link FrameWriter#getVarLongSize(long)} (non-minimal
+	 * encodings are rejected).
+	 * 
+	 * @param source
+	 *            source array
+	 * @param offset
+	 *            offset of the first byte
+	 * @param end
+	 *            end of the readable bytes (exclusive)
+	 * 
+	 * @return decoded value
+	 * 
+	 * @throws IOException
+	 *             incomplete (EOFException) or malformed varint
+	 */
+	public static final long readVarLong(byte[] source, int offset, int end) throws IOException {
+		long value = 0;
+		for (int shift = 0; offset < end; shift += 7) {
+			byte b = source[offset++];
+			if (shift == 63 && (b & 0xFF) > 1) {
+				throw new IOException("Malformed varint (more than 64 bits)!");
+			}
+			value |= (long) (b & 0x7F) << shift;
+			if (b >= 0) {
+				if (b == 0 && shift > 0) {
+					throw new IOException("Malformed varint (non-minimal encoding)!");
+				}
+				return value;
+			}
+		}
+		throw new EOFException("Unexpected end of varint!");
+	}
+
+	// --- FILL BUFFER ---
+
+	protected boolean ensure(int count) throws IOException {
+		while (end - start < count) {
+			if (eof) {
+				return false;
+			}
+
+			// Move the unprocessed bytes to the beginning of the buffer
+			if (start > 0) {
+				System.arraycopy(buffer, start, buffer, 0, end - start);
+				end -= start;
+				start = 0;
+			}
+
+			// Grow buffer (frame is larger than the buffer)
+			if (count > buffer.length) {
+				byte[] larger = new byte[Math.max(count, buffer.length * 2)];
+				System.arraycopy(buffer, 0, larger, 0, end);
+				buffer = larger;
+			}
+
+			// Read next block
+			int read = source.read(buffer, end, buffer.length - end);
+			if (read < 0) {
+				eof = true;
+			} else {
+				end += read;
+			}
+		}
+		return true;
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+}
\ No newline at end of file
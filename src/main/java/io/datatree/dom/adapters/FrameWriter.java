@@ -0,0 +1,240 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import io.datatree.Tree;
+import io.datatree.dom.TreeWriterRegistry;
+
+/**
+ * <b>LENGTH-PREFIXED FRAME WRITER</b><br>
+ * <br>
+ * Description: Writes records to an OutputStream as a sequence of frames.
+ * Each frame is a varint (unsigned LEB128) length prefix, followed by the
+ * payload (one serialized record). The records are serialized by one encoder
+ * (generator / packer) of a FramedAdapter (IonIon, MsgPackOrg, KryoKryo,
+ * CborJackson, SmileJackson, MsgPackJackson or BsonJackson) into one reusable
+ * buffer. If a FrameIndex is specified, the offset of each frame (and the
+ * values of the indexed key fields) are added to the index while writing.
+ * The offsets are counted from the "position" parameter of the constructor
+ * (by default 0, ie. the stream starts at the beginning of the file). When
+ * appending to an existing file, or writing after a header, the position
+ * must be the number of bytes that precede the first frame. Closing the
+ * writer closes the OutputStream.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (FrameWriter writer = new FrameWriter(out, "msgpack")) {<br>
+ * &nbsp;&nbsp;for (Tree event : events) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;writer.write(event);<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class FrameWriter implements Flushable, Closeable {
+
+	// --- TARGET AND ENCODER ---
+
+	protected final OutputStream target;
+	protected final ByteArrayOutputStream buffer;
+	protected final FramedAdapter.FrameEncoder encoder;
+
+	// --- LENGTH PREFIX ---
+
+	protected final byte[] prefix = new byte[MAX_VARINT_SIZE];
+
+	// --- FRAME COUNTER AND POSITION ---
+
+	protected long frameCount;
+	protected long position;
+
+	// --- OPTIONAL SIDECAR INDEX ---
+
+	protected final FrameIndex index;
+
+	// --- CONSTRUCTORS ---
+
+	public FrameWriter(OutputStream target, String format) throws IOException {
+		this(target, FrameReader.getFramedAdapter(TreeWriterRegistry.getWriter(format), format));
+	}
+
+	public FrameWriter(OutputStream target, String format, FrameIndex index) throws IOException {
+		this(target, FrameReader.getFramedAdapter(TreeWriterRegistry.getWriter(format), format), index);
+	}
+
+	public FrameWriter(OutputStream target, FramedAdapter adapter) throws IOException {
+		this(target, adapter, null);
+	}
+
+	public FrameWriter(OutputStream target, String format, FrameIndex index, long position) throws IOException {
+		this(target, FrameReader.getFramedAdapter(TreeWriterRegistry.getWriter(format), format), index, position);
+	}
+
+	public FrameWriter(OutputStream target, FramedAdapter adapter, FrameIndex index) throws IOException {
+		this(target, adapter, index, 0);
+	}
+
+	/**
+	 * Creates a frame writer.
+	 * 
+	 * @param target
+	 *            output stream
+	 * @param adapter
+	 *            adapter of the records
+	 * @param index
+	 *            sidecar index (optional)
+	 * @param position
+	 *            offset of the first frame in the file (eg. the size of the
+	 *            file when appending to it, or the size of a header)
+	 * 
+	 * @throws IOException
+	 *             unable to create the encoder
+	 */
+	public FrameWriter(OutputStream target, FramedAdapter adapter, FrameIndex index, long position)
+			throws IOException {
+		if (position < 0) {
+			throw new IllegalArgumentException("Invalid position (" + position + ")!");
+		}
+		this.target = target;
+		this.index = index;
+		this.position = position;
+		this.buffer = new ByteArrayOutputStream(1024);
+		try {
+			this.encoder = adapter.createFrameEncoder(buffer);
+		} catch (IOException cause) {
+			throw cause;
+		} catch (Exception cause) {
+			throw new IOException(cause);
+		}
+	}
+
+	// --- WRITE FRAME ---
+
+	public void write(Tree record) throws IOException {
+		Tree meta = record.getMeta(false);
+		write(record.asObject(), meta == null ? null : meta.asObject());
+	}
+
+	public void write(Object value) throws IOException {
+		write(value, null);
+	}
+
+	public void write(Object value, Object meta) throws IOException {
+		buffer.reset();
+		try {
+			encoder.encode(value, meta);
+		} catch (IOException cause) {
+			throw cause;
+		} catch (Exception cause) {
+			throw new IOException(cause);
+		}
+
+		// Varint length prefix
+		int size = buffer.size();
+		int prefixLength = writeVarLong(size, prefix, 0);
+		target.write(prefix, 0, prefixLength);
+
+		// Payload
+		buffer.writeTo(target);
+		if (index != null) {
+			index.add(position, prefixLength + size, value);
+		}
+		position += prefixLength + size;
+		frameCount++;
+	}
+
+	// --- VARINT (UNSIGNED LEB128) ENCODING ---
+
+	/**
+	 * Maximum size of a varint-encoded long value.
+	 */
+	public static final int MAX_VARINT_SIZE = 10;
+
+	/**
+	 * Writes the value as a varint (unsigned LEB128) into the array. The
+	 * counterpart of {@link FrameReader#readVarLong(byte[], int, int)}.
+	 * 
+	 * @param value
+	 *            value to encode
+	 * @param target
+	 *            target array (at least {@link #getVarLongSize(long)} bytes
+	 *            from the offset)
+	 * @param offset
+	 *            offset of the first byte
+	 * 
+	 * @return offset after the last written byte
+	 */
+	public static final int writeVarLong(long value, byte[] target, int offset) {
+		while ((value & ~0x7FL) != 0) {
+			target[offset++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		target[offset++] = (byte) value;
+		return offset;
+	}
+
+	/**
+	 * Returns the number of bytes of the varint-encoded value.
+	 * 
+	 * @param value
+	 *            value to encode
+	 * 
+	 * @return size of the varint (1...10 bytes)
+	 */
+	public static final int getVarLongSize(long value) {
+		return Math.max(1, (70 - Long.numberOfLeadingZeros(value)) / 7);
+	}
+
+	// --- PROPERTIES ---
+
+	public long getFrameCount() {
+		return frameCount;
+	}
+
+	/**
+	 * Returns the initial position plus the number of bytes written.
+	 * 
+	 * @return offset of the next frame
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	public FrameIndex getIndex() {
+		return index;
+	}
+
+	// --- FLUSH AND CLOSE ---
+
+	@Override
+	public void flush() throws IOException {
+		target.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		target.close();
+	}
+
+}
\ No newline at end of file
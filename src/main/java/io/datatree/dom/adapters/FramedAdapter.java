@@ -0,0 +1,99 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.OutputStream;
+
+/**
+ * Binary adapters which can write / read streams of length-prefixed frames
+ * (see FrameWriter and FrameReader). The encoder and the decoder are created
+ * once per stream, so the generators, packers and input buffers of the
+ * adapter are reused for all records of the stream. Encoders and decoders are
+ * NOT thread-safe.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public interface FramedAdapter {
+
+	/**
+	 * Creates an encoder which serializes records into the specified buffer.
+	 * 
+	 * @param buffer
+	 *            frame buffer (the FrameWriter resets it after each record)
+	 * 
+	 * @return reusable encoder
+	 * 
+	 * @throws Exception
+	 *             unable to create encoder
+	 */
+	FrameEncoder createFrameEncoder(OutputStream buffer) throws Exception;
+
+	/**
+	 * Creates a decoder which parses the payloads of the frames.
+	 * 
+	 * @return reusable decoder
+	 * 
+	 * @throws Exception
+	 *             unable to create decoder
+	 */
+	FrameDecoder createFrameDecoder() throws Exception;
+
+	// --- ENCODER AND DECODER ---
+
+	@FunctionalInterface
+	public interface FrameEncoder {
+
+		/**
+		 * Serializes one record into the buffer (and flushes it).
+		 * 
+		 * @param value
+		 *            record (Map, List, etc.)
+		 * @param meta
+		 *            meta structure of the record, inserted as "_meta" (or
+		 *            {@code null})
+		 * 
+		 * @throws Exception
+		 *             any serialization exception
+		 */
+		void encode(Object value, Object meta) throws Exception;
+
+	}
+
+	@FunctionalInterface
+	public interface FrameDecoder {
+
+		/**
+		 * Parses the payload of one frame.
+		 * 
+		 * @param source
+		 *            frame buffer
+		 * @param offset
+		 *            offset of the payload
+		 * @param length
+		 *            length of the payload
+		 * 
+		 * @return parsed record
+		 * 
+		 * @throws Exception
+		 *             any parser exception
+		 */
+		Object decode(byte[] source, int offset, int length) throws Exception;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * <b>STREAMING JSON INDENTER (UTF-8 BYTES)</b><br>
+ * <br>
+ * Description: An OutputStream that indents the UTF-8 encoded compact JSON of
+ * byte-oriented serializers (eg. DSL-JSON and Jsoniter) while it is written.
+ * The structural characters of JSON are ASCII characters, and the bytes of the
+ * multi-byte UTF-8 sequences are always greater than 127, so the bytes are
+ * passed to the IndentingJsonWriter as ISO-8859-1 characters (and written back
+ * unchanged), without decoding and encoding. Calling "flush" writes the
+ * buffered bytes into the target, calling "close" also closes the target.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class IndentingJsonOutputStream extends OutputStream {
+
+	// --- INDENTER ---
+
+	protected final IndentingJsonWriter writer;
+
+	// --- CONSTRUCTOR ---
+
+	public IndentingJsonOutputStream(OutputStream target) {
+		writer = new IndentingJsonWriter(new Writer() {
+
+			protected byte[] bytes = new byte[4096];
+
+			@Override
+			public final void write(char[] chars, int off, int len) throws IOException {
+				if (bytes.length < len) {
+					bytes = new byte[len];
+				}
+				for (int i = 0; i < len; i++) {
+					bytes[i] = (byte) chars[off + i];
+				}
+				target.write(bytes, 0, len);
+			}
+
+			@Override
+			public final void flush() throws IOException {
+				target.flush();
+			}
+
+			@Override
+			public final void close() throws IOException {
+				target.close();
+			}
+
+		});
+	}
+
+	// --- WRITE BYTES ---
+
+	@Override
+	public void write(int b) throws IOException {
+		writer.write(b & 0xFF);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		int end = off + len;
+		for (int i = off; i < end; i++) {
+			writer.write(b[i] & 0xFF);
+		}
+	}
+
+	// --- FLUSH AND CLOSE ---
+
+	@Override
+	public void flush() throws IOException {
+		writer.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+}
\ No newline at end of file
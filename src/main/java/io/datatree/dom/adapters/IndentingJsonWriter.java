@@ -0,0 +1,213 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * <b>STREAMING JSON INDENTER</b><br>
+ * <br>
+ * Description: A Writer that inserts line breaks and indentation into compact
+ * JSON while it is written by the serializer, so pretty output is produced in
+ * a single pass (without re-scanning a compact JSON String). Empty objects and
+ * arrays remain in one line ("{}" and "[]"). The whitespaces outside of the
+ * String values of the input are dropped. Calling "flush" writes the buffered
+ * characters into the target, calling "close" also closes the target.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * IndentingJsonWriter out = new IndentingJsonWriter(target);<br>
+ * serializer.toJson(value, out);<br>
+ * out.flush();
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class IndentingJsonWriter extends Writer {
+
+	// --- CONSTANTS ---
+
+	protected static final char[] NEW_LINE = "\r\n".toCharArray();
+	protected static final int INDENT = 2;
+
+	// --- TARGET ---
+
+	protected final Writer target;
+
+	// --- OUTPUT BUFFER ---
+
+	protected final char[] buffer = new char[4096];
+	protected int length;
+
+	// --- PARSER STATE ---
+
+	protected int depth;
+	protected boolean inString;
+	protected boolean escaped;
+	protected boolean opened;
+
+	// --- CONSTRUCTOR ---
+
+	public IndentingJsonWriter(Writer target) {
+		this.target = target;
+	}
+
+	// --- UTILITIES ---
+
+	/**
+	 * Indents the specified compact JSON (for serializers without streaming
+	 * output).
+	 * 
+	 * @param json
+	 *            compact JSON
+	 * 
+	 * @return indented JSON
+	 */
+	public static final String indent(String json) {
+		StringWriter out = new StringWriter(json.length() * 2);
+		try (IndentingJsonWriter writer = new IndentingJsonWriter(out)) {
+			writer.write(json);
+		} catch (IOException cause) {
+
+			// Never happens (StringWriter)
+			throw new IllegalStateException(cause);
+		}
+		return out.toString();
+	}
+
+	// --- WRITE CHARACTERS ---
+
+	@Override
+	public void write(int c) throws IOException {
+		if (inString) {
+			put((char) c);
+			if (escaped) {
+				escaped = false;
+			} else if (c == '\\') {
+				escaped = true;
+			} else if (c == '"') {
+				inString = false;
+			}
+			return;
+		}
+		if (c == ' ' || c == '\r' || c == '\n' || c == '\t') {
+			return;
+		}
+		if (opened) {
+			opened = false;
+			if (c == '}' || c == ']') {
+				depth--;
+				put((char) c);
+				return;
+			}
+			putNewLine();
+		}
+		switch (c) {
+		case '"':
+			inString = true;
+			put('"');
+			break;
+		case '{':
+		case '[':
+			put((char) c);
+			depth++;
+			opened = true;
+			break;
+		case '}':
+		case ']':
+			depth--;
+			putNewLine();
+			put((char) c);
+			break;
+		case ',':
+			put(',');
+			putNewLine();
+			break;
+		case ':':
+			put(':');
+			put(' ');
+			break;
+		default:
+			put((char) c);
+		}
+	}
+
+	@Override
+	public void write(char[] chars, int off, int len) throws IOException {
+		int end = off + len;
+		for (int i = off; i < end; i++) {
+			write(chars[i]);
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		int end = off + len;
+		for (int i = off; i < end; i++) {
+			write(str.charAt(i));
+		}
+	}
+
+	// --- OUTPUT BUFFER ---
+
+	protected void putNewLine() throws IOException {
+		int spaces = depth * INDENT;
+		if (length + NEW_LINE.length + spaces > buffer.length) {
+			flushBuffer();
+		}
+		for (char c : NEW_LINE) {
+			buffer[length++] = c;
+		}
+		for (int i = 0; i < spaces; i++) {
+			if (length == buffer.length) {
+				flushBuffer();
+			}
+			buffer[length++] = ' ';
+		}
+	}
+
+	protected void put(char c) throws IOException {
+		if (length == buffer.length) {
+			flushBuffer();
+		}
+		buffer[length++] = c;
+	}
+
+	protected void flushBuffer() throws IOException {
+		if (length > 0) {
+			target.write(buffer, 0, length);
+			length = 0;
+		}
+	}
+
+	// --- FLUSH AND CLOSE ---
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		target.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		flushBuffer();
+		target.close();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,255 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import io.datatree.Tree;
+import io.datatree.dom.TreeReaderRegistry;
+
+/**
+ * <b>RANDOM ACCESS READER OF FRAMED BINARY FILES</b><br>
+ * <br>
+ * Description: Reads records from a file, written by the FrameWriter, using
+ * the sidecar FrameIndex of the file. Each record is loaded with one
+ * positional read (from the offset of the frame to the offset of the next
+ * frame), so the reader can jump to record N (or to a range of records)
+ * without decoding the preceding frames.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (IndexedFrameReader reader = new IndexedFrameReader(file, indexFile,
+ * "msgpack")) {<br>
+ * &nbsp;&nbsp;Tree record = reader.read(1500000);<br>
+ * &nbsp;&nbsp;for (Tree event : reader.range(2000000, 2000100)) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;...<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class IndexedFrameReader implements Closeable {
+
+	// --- SOURCE, INDEX AND DECODER ---
+
+	protected final FileChannel channel;
+	protected final FrameIndex index;
+	protected final FramedAdapter.FrameDecoder decoder;
+
+	// --- MAXIMUM SIZE OF A FRAME (PROTECTION AGAINST CORRUPTED INDEXES) ---
+
+	public int maxFrameSize = 256 * 1024 * 1024;
+
+	// --- FRAME BUFFER ---
+
+	protected ByteBuffer buffer = ByteBuffer.allocate(65536);
+
+	// --- CONSTRUCTORS ---
+
+	public IndexedFrameReader(Path file, Path indexFile, String format) throws IOException {
+		this(file, FrameIndex.load(indexFile), format);
+	}
+
+	public IndexedFrameReader(Path file, FrameIndex index, String format) throws IOException {
+		this(file, index, FrameReader.getFramedAdapter(TreeReaderRegistry.getReader(format), format));
+	}
+
+	public IndexedFrameReader(Path file, Path indexFile, FramedAdapter adapter) throws IOException {
+		this(file, FrameIndex.load(indexFile), adapter);
+	}
+
+	public IndexedFrameReader(Path file, FrameIndex index, FramedAdapter adapter) throws IOException {
+		this(FileChannel.open(file, StandardOpenOption.READ), index, adapter);
+	}
+
+	public IndexedFrameReader(FileChannel channel, FrameIndex index, FramedAdapter adapter) throws IOException {
+		this.channel = channel;
+		this.index = index;
+		try {
+			if (channel.size() < index.getLength()) {
+				throw new IOException("The file is shorter (" + channel.size() + " bytes) than the indexed data ("
+						+ index.getLength() + " bytes)!");
+			}
+			this.decoder = adapter.createFrameDecoder();
+		} catch (Exception cause) {
+			channel.close();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Returns the number of indexed records.
+	 * 
+	 * @return number of records
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	public FrameIndex getIndex() {
+		return index;
+	}
+
+	// --- READ ONE RECORD ---
+
+	/**
+	 * Reads and decodes the specified record.
+	 * 
+	 * @param recordNumber
+	 *            record number (0-based)
+	 * 
+	 * @return record
+	 * 
+	 * @throws IOException
+	 *             any I/O exception
+	 */
+	public Tree read(int recordNumber) throws IOException {
+		long offset = index.getOffset(recordNumber);
+		long frameSize = index.getEnd(recordNumber) - offset;
+		if (frameSize < 1 || frameSize > maxFrameSize + 5L) {
+			throw new IOException("Invalid frame size (" + frameSize + " bytes, record " + recordNumber + ")!");
+		}
+
+		// Load the whole frame (prefix + payload)
+		int size = (int) frameSize;
+		if (buffer.capacity() < size) {
+			buffer = ByteBuffer.allocate(Math.max(size, buffer.capacity() * 2));
+		}
+		buffer.clear().limit(size);
+		long position = offset;
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of file (in record " + recordNumber + ")!");
+			}
+			position += read;
+		}
+
+		// Varint length prefix
+		byte[] bytes = buffer.array();
+		long length;
+		try {
+			length = FrameReader.readVarLong(bytes, 0, size);
+		} catch (IOException cause) {
+			throw new IOException("Malformed length prefix (record " + recordNumber + ")!", cause);
+		}
+		int start = FrameWriter.getVarLongSize(length);
+		if (length != size - start) {
+			throw new IOException("The length prefix (" + length + " bytes) does not match the index ("
+					+ (size - start) + " bytes, record " + recordNumber + ")!");
+		}
+
+		// Payload
+		Object value;
+		try {
+			value = decoder.decode(bytes, start, size - start);
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse record " + recordNumber + "!", cause);
+		}
+		return ParsedTree.create(value);
+	}
+
+	// --- READ RANGE ---
+
+	/**
+	 * Returns a lazy iterator over the specified range of records.
+	 * 
+	 * @param from
+	 *            first record number (inclusive, 0-based)
+	 * @param to
+	 *            last record number (exclusive)
+	 * 
+	 * @return records (IOExceptions are wrapped into UncheckedIOExceptions)
+	 */
+	public Iterable<Tree> range(int from, int to) {
+		if (from < 0 || to > index.size() || from > to) {
+			throw new IndexOutOfBoundsException("Invalid range (" + from + "-" + to + ")!");
+		}
+		return () -> new Iterator<Tree>() {
+
+			int recordNumber = from;
+
+			@Override
+			public boolean hasNext() {
+				return recordNumber < to;
+			}
+
+			@Override
+			public Tree next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				try {
+					return read(recordNumber++);
+				} catch (IOException cause) {
+					throw new UncheckedIOException(cause);
+				}
+			}
+
+		};
+	}
+
+	// --- FIND BY KEY ---
+
+	/**
+	 * Reads the records where the (indexed) top-level field has the specified
+	 * value.
+	 * 
+	 * @param field
+	 *            indexed field
+	 * @param value
+	 *            value of the field
+	 * 
+	 * @return matching records
+	 * 
+	 * @throws IOException
+	 *             any I/O exception
+	 */
+	public List<Tree> find(String field, Object value) throws IOException {
+		int[] recordNumbers = index.find(field, value);
+		ArrayList<Tree> records = new ArrayList<>(recordNumbers.length);
+		for (int recordNumber : recordNumbers) {
+			records.add(read(recordNumber));
+		}
+		return records;
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+}
\ No newline at end of file
@@ -19,10 +19,17 @@ package io.datatree.dom.adapters;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.LinkedList;
+import java.util.Queue;
 
 import io.datatree.dom.BASE64;
-import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonType;
+import software.amazon.ion.IonWriter;
 import software.amazon.ion.system.IonBinaryWriterBuilder;
 
 /**
@@ -67,12 +74,19 @@ import software.amazon.ion.system.IonBinaryWriterBuilder;
  * Innvoke this implementation directly:<br>
  * <br>
  * Tree node = new Tree(inputBytes, "IonIon");<br>
- * byte[] outputBytes = node.toBytes("IonIon");
+ * byte[] outputBytes = node.toBytes("IonIon");<br>
+ * <br>
+ * <b>Length-prefixed frames:</b><br>
+ * <br>
+ * The frame encoder reuses one IonWriter for all records. The ion-java
+ * IonReader cannot be reset to a new input, so the frame decoder creates a
+ * new IonReader for each frame. This reader reads the frame buffer in place,
+ * without copying it, and the record is read directly from it.
  * 
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(10)
-public class IonIon extends JsonIon {
+public class IonIon extends JsonIon implements ByteBufferAdapter, ByteStreamAdapter, FramedAdapter {
 
 	// --- NAME OF THE FORMAT ---
 
@@ -81,7 +95,16 @@ public class IonIon extends JsonIon {
 		return "ion";
 	}
 
-	// --- WRITER FACTORY ---
+	// --- ION WRITER CACHE FOR BYTEBUFFERS ---
+
+	public Queue<BufferWriter> bufferWriters = new ObjectPool<>();
+
+	public final class BufferWriter {
+		public ByteBufferOutputStream buffer;
+		public IonWriter writer;
+	}
+
+	// --- WRITER FACTORIES ---
 
 	public CachedWriter createWriter(boolean pretty) throws IOException {
 		CachedWriter writer = new CachedWriter();
@@ -90,6 +113,13 @@ public class IonIon extends JsonIon {
 		return writer;
 	}
 
+	public BufferWriter createBufferWriter() throws IOException {
+		BufferWriter writer = new BufferWriter();
+		writer.buffer = new ByteBufferOutputStream();
+		writer.writer = IonBinaryWriterBuilder.standard().build(writer.buffer);
+		return writer;
+	}
+
 	// --- IMPLEMENTED WRITER METHODS ---
 
 	@Override
@@ -108,15 +138,32 @@ public class IonIon extends JsonIon {
 			write(writer.writer, null, input);
 			writer.writer.finish();
 			byte[] bytes = writer.buffer.toByteArray();
-			if (writers.size() > Config.POOL_SIZE) {
 
-				// Writer pool is full
-				return bytes;
+			// Recycle ION writer instance
+			writers.offer(writer);
+			return bytes;
+		});
+	}
+
+	@Override
+	public void toBinary(Object value, Object meta, boolean insertMeta, ByteBuffer target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+
+			// Get ION writer from cache and redirect it to the target
+			BufferWriter writer = bufferWriters.poll();
+			if (writer == null) {
+				writer = createBufferWriter();
 			}
+			writer.buffer.buffer = target;
+
+			// Serialize data (on overflow, the writer is dropped)
+			write(writer.writer, null, input);
+			writer.writer.finish();
 
 			// Recycle ION writer instance
-			writers.add(writer);
-			return bytes;
+			writer.buffer.buffer = null;
+			bufferWriters.offer(writer);
+			return null;
 		});
 	}
 
@@ -125,6 +172,18 @@ public class IonIon extends JsonIon {
 		return BASE64.encode(toBinary(value, meta, insertMeta));
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, OutputStream target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+			IonWriter writer = IonBinaryWriterBuilder.standard().build(target);
+			write(writer, null, input);
+			writer.finish();
+			return null;
+		});
+	}
+
 	// --- IMPLEMENTED PARSER METHOD ---
 
 	@Override
@@ -132,4 +191,66 @@ public class IonIon extends JsonIon {
 		return parse(BASE64.decode(source));
 	}
 
+	@Override
+	public Object parse(InputStream source) throws Exception {
+		return getSingletonItem(parse(null, null, parser.newReader(source)));
+	}
+
+	@Override
+	public Object parse(ByteBuffer source) throws Exception {
+		try {
+			if (source.hasArray()) {
+
+				// Read the backing array in place
+				return getSingletonItem(parse(null, null, parser.newReader(source.array(),
+						source.arrayOffset() + source.position(), source.remaining())));
+			}
+			return getSingletonItem(parse(null, null, parser.newReader(new ByteBufferInputStream(source))));
+		} finally {
+			source.position(source.limit());
+		}
+	}
+
+	// --- LENGTH-PREFIXED FRAMES ---
+
+	@Override
+	public FrameEncoder createFrameEncoder(OutputStream buffer) throws Exception {
+
+		// One writer for all records (finish() closes the datagram of the
+		// record, so the frames are self-contained)
+		IonWriter writer = IonBinaryWriterBuilder.standard().build(buffer);
+		return (value, meta) -> {
+			toBinary(value, meta, true, (input) -> {
+				write(writer, null, input);
+				writer.finish();
+				return null;
+			});
+		};
+	}
+
+	@Override
+	public FrameDecoder createFrameDecoder() throws Exception {
+		return (source, offset, length) -> {
+
+			// A new IonReader per frame (ion-java readers cannot be reset),
+			// the value is read without the top-level list of parse(...)
+			try (IonReader reader = parser.newReader(source, offset, length)) {
+				IonType type = reader.next();
+				if (type == null) {
+					return null;
+				}
+				Object value = readValue(reader, type);
+				if ((type = reader.next()) == null) {
+					return value;
+				}
+
+				// More than one top-level value (not written by the FrameWriter)
+				LinkedList<Object> values = new LinkedList<>();
+				values.add(value);
+				values.add(readValue(reader, type));
+				return parse(null, values, reader);
+			}
+		};
+	}
+
 }
\ No newline at end of file
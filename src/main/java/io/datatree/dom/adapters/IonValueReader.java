@@ -0,0 +1,146 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.datatree.Tree;
+import software.amazon.ion.IonReader;
+import software.amazon.ion.IonType;
+
+/**
+ * <b>ION VALUE READER</b><br>
+ * <br>
+ * Description: Lazily reads the top-level values of a (text or binary) Ion
+ * stream, one Tree per value (see JsonIon.readAll). The values are read
+ * incrementally with the IonReader, only the current value is kept in
+ * memory. Closing the reader closes the InputStream.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (IonValueReader records = ionIon.readAll(in)) {<br>
+ * &nbsp;&nbsp;for (Tree record : records) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;System.out.println(record.get("id", 0));<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class IonValueReader implements Iterator<Tree>, Iterable<Tree>, Closeable {
+
+	// --- SOURCE AND ADAPTER ---
+
+	protected final JsonIon adapter;
+	protected final IonReader reader;
+	protected final Closeable source;
+
+	// --- NEXT VALUE ---
+
+	protected Tree next;
+	protected boolean finished;
+	protected long valueNumber;
+
+	// --- CONSTRUCTOR ---
+
+	/**
+	 * Creates a value reader.
+	 * 
+	 * @param adapter
+	 *            Ion adapter (converts the Ion values)
+	 * @param reader
+	 *            IonReader (positioned before the first value)
+	 * @param source
+	 *            underlying stream (or {@code null})
+	 */
+	public IonValueReader(JsonIon adapter, IonReader reader, Closeable source) {
+		this.adapter = adapter;
+		this.reader = reader;
+		this.source = source;
+	}
+
+	// --- ITERATOR ---
+
+	@Override
+	public Iterator<Tree> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			next = readValue();
+			finished = next == null;
+		}
+		return next != null;
+	}
+
+	@Override
+	public Tree next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Tree value = next;
+		next = null;
+		return value;
+	}
+
+	/**
+	 * Returns the index of the last returned value.
+	 * 
+	 * @return value number (1-based)
+	 */
+	public long getValueNumber() {
+		return valueNumber;
+	}
+
+	// --- READ VALUE ---
+
+	protected Tree readValue() {
+		Object value;
+		try {
+			IonType type = reader.next();
+			if (type == null) {
+				return null;
+			}
+			valueNumber++;
+			value = adapter.readValue(reader, type);
+		} catch (RuntimeException cause) {
+			throw cause;
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse Ion value #" + valueNumber + "!", cause);
+		}
+		return ParsedTree.create(value);
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} finally {
+			if (source != null) {
+				source.close();
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -18,8 +18,10 @@
 package io.datatree.dom.adapters;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.boon.json.JsonFactory;
 import org.boon.json.JsonParserFactory;
@@ -33,7 +35,6 @@ import org.boon.primitive.CharBuf;
 import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
-import io.datatree.dom.builtin.JsonBuiltin;
 
 /**
  * <b>BOON JSON ADAPTER</b><br>
@@ -77,7 +78,7 @@ import io.datatree.dom.builtin.JsonBuiltin;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(170)
-public class JsonBoon extends AbstractTextAdapter {
+public class JsonBoon extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -85,7 +86,7 @@ public class JsonBoon extends AbstractTextAdapter {
 
 	// --- READER CACHE ---
 
-	public Queue<JsonFastParser> parsers = new ConcurrentLinkedQueue<>();
+	public Queue<JsonFastParser> parsers = new ObjectPool<>();
 
 	// --- CONSTRUCTOR ---
 
@@ -112,11 +113,14 @@ public class JsonBoon extends AbstractTextAdapter {
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
-			String json = mapper.toJson(input);
 			if (pretty) {
-				return JsonBuiltin.format(json);
+				StringWriter out = new StringWriter(1024);
+				IndentingJsonWriter writer = new IndentingJsonWriter(out);
+				mapper.toJson(input, writer);
+				writer.flush();
+				return out.toString();
 			}
-			return json;
+			return mapper.toJson(input);
 		});
 	}
 
@@ -129,10 +133,38 @@ public class JsonBoon extends AbstractTextAdapter {
 			parser = new JsonFastParser();
 		}
 		Object result = parser.parse(source);
-		if (parsers.size() > Config.POOL_SIZE) {
-			return result;
+		parsers.offer(parser);
+		return result;
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+
+				// Boon has no indenting writer (indent while writing)
+				IndentingJsonWriter writer = new IndentingJsonWriter(target);
+				mapper.toJson(input, writer);
+				writer.flush();
+			} else {
+				mapper.toJson(input, target);
+			}
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		JsonFastParser parser = parsers.poll();
+		if (parser == null) {
+			parser = new JsonFastParser();
 		}
-		parsers.add(parser);
+		Object result = parser.parse(source);
+		parsers.offer(parser);
 		return result;
 	}
 
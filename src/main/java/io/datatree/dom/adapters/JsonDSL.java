@@ -17,15 +17,17 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.dslplatform.json.DslJson;
 import com.dslplatform.json.DslJson.Settings;
@@ -36,7 +38,6 @@ import com.dslplatform.json.JsonWriter.WriteObject;
 import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
-import io.datatree.dom.builtin.JsonBuiltin;
 import io.datatree.dom.converters.DataConverterRegistry;
 
 import com.dslplatform.json.NumberConverter;
@@ -82,7 +83,7 @@ import com.dslplatform.json.StringConverter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(100)
-public class JsonDSL extends AbstractTextAdapter {
+public class JsonDSL extends AbstractTextAdapter implements ByteStreamAdapter, NdJsonAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -90,12 +91,28 @@ public class JsonDSL extends AbstractTextAdapter {
 
 	// --- WRITER CACHE ---
 
-	public Queue<JsonWriter> writers = new ConcurrentLinkedQueue<>();
+	public Queue<JsonWriter> writers = new ObjectPool<>();
+
+	// --- READER CACHE ---
+
+	public Queue<CachedReader> readers = new ObjectPool<>();
+
+	public final class CachedReader {
+		public byte[] buffer = new byte[1024];
+		public JsonReader<Object> reader = mapper.newReader();
+	}
 
 	// --- IMPLEMENTED WRITER METHOD ---
 
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+				IndentingJsonOutputStream out = new IndentingJsonOutputStream(buffer);
+				serialize(input, out);
+				out.flush();
+				return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+			}
 			JsonWriter writer = writers.poll();
 			if (writer == null) {
 				writer = mapper.newWriter();
@@ -104,12 +121,7 @@ public class JsonDSL extends AbstractTextAdapter {
 			}
 			mapper.serialize(writer, input);
 			final String json = writer.toString();
-			if (writers.size() <= Config.POOL_SIZE) {
-				writers.add(writer);
-			}
-			if (pretty) {
-				return JsonBuiltin.format(json);
-			}
+			writers.offer(writer);
 			return json;
 		});
 	}
@@ -119,15 +131,141 @@ public class JsonDSL extends AbstractTextAdapter {
 	@Override
 	public Object parse(String source) throws Exception {
 		byte[] bytes = source.getBytes(StandardCharsets.UTF_8);
-		if (bytes[0] == '{') {
-			return mapper.deserialize(LinkedHashMap.class, bytes, bytes.length);
+		return parse(bytes, 0, bytes.length);
+	}
+
+	// --- BYTE ARRAY WRITER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+		return toBinary(value, meta, insertMeta, (input) -> {
+			JsonWriter writer = writers.poll();
+			if (writer == null) {
+				writer = mapper.newWriter();
+			} else {
+				writer.reset();
+			}
+			mapper.serialize(writer, input);
+			final byte[] bytes = writer.toByteArray();
+			writers.offer(writer);
+			return bytes;
+		});
+	}
+
+	// --- BYTE ARRAY PARSER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public Object parse(byte[] source) throws Exception {
+		return parse(source, 0, source.length);
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, OutputStream target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+
+				// Indent while writing
+				IndentingJsonOutputStream out = new IndentingJsonOutputStream(target);
+				serialize(input, out);
+				out.flush();
+			} else {
+				serialize(input, target);
+			}
+			return null;
+		});
+	}
+
+	protected void serialize(Object input, OutputStream target) throws IOException {
+		JsonWriter writer = writers.poll();
+		if (writer == null) {
+			writer = mapper.newWriter();
 		}
-		if (bytes[0] == '[') {
-			JsonReader<Object> reader = mapper.newReader(bytes, bytes.length);
-			reader.getNextToken();
+		writer.reset(target);
+		mapper.serialize(writer, input);
+		writer.flush();
+		writer.reset();
+		writers.offer(writer);
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(InputStream source) throws Exception {
+		JsonReader<Object> reader = mapper.newReader(source, new byte[4096]);
+		byte b = reader.getNextToken();
+		if (b == '{') {
+			return ObjectConverter.deserializeMap(reader);
+		}
+		if (b == '[') {
 			return ObjectConverter.deserializeList(reader);
 		}
-		throw new IllegalArgumentException("Malformed JSON: " + source);
+		throw new IllegalArgumentException("Malformed JSON (unexpected character: " + (char) b + ")!");
+	}
+
+	// --- NDJSON SUPPORT ---
+
+	@Override
+	public Object parse(byte[] source, int offset, int length) throws Exception {
+		CachedReader cached = readers.poll();
+		if (cached == null) {
+			cached = new CachedReader();
+		}
+
+		// DSL-JSON reads from the beginning of the array, so the region is
+		// copied into the (reusable) buffer of the reader, unless it starts at
+		// the first byte
+		byte[] bytes = source;
+		if (offset > 0) {
+			if (cached.buffer.length < length) {
+				cached.buffer = new byte[Math.max(length, cached.buffer.length * 2)];
+			}
+			System.arraycopy(source, offset, cached.buffer, 0, length);
+			bytes = cached.buffer;
+		}
+		JsonReader<Object> reader = cached.reader.process(bytes, length);
+		byte b = reader.getNextToken();
+		final Object result;
+		if (b == '{') {
+			result = ObjectConverter.deserializeMap(reader);
+		} else if (b == '[') {
+			result = ObjectConverter.deserializeList(reader);
+		} else {
+			throw new IllegalArgumentException("Malformed JSON (unexpected character: " + (char) b + ")!");
+		}
+		readers.offer(cached);
+		return result;
+	}
+
+	@Override
+	public LineWriter createLineWriter(OutputStream target) throws IOException {
+		JsonWriter writer = mapper.newWriter();
+		writer.reset(target);
+		return new LineWriter() {
+
+			@Override
+			public final void write(Object value, Object meta) throws IOException {
+				toBinary(value, meta, true, (input) -> {
+					mapper.serialize(writer, input);
+					writer.writeByte((byte) '\n');
+					return null;
+				});
+			}
+
+			@Override
+			public final void flush() throws IOException {
+				writer.flush();
+				target.flush();
+			}
+
+			@Override
+			public final void close() throws IOException {
+				writer.flush();
+				target.close();
+			}
+
+		};
 	}
 
 	// --- FACTORY ---
@@ -18,11 +18,14 @@
 package io.datatree.dom.adapters;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONReader;
 import com.alibaba.fastjson.serializer.JSONSerializer;
 import com.alibaba.fastjson.serializer.ObjectSerializer;
 import com.alibaba.fastjson.serializer.SerializeConfig;
@@ -71,7 +74,7 @@ import io.datatree.dom.builtin.AbstractTextAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(160)
-public class JsonFast extends AbstractTextAdapter {
+public class JsonFast extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- SETTINGS ---
 
@@ -134,6 +137,59 @@ public class JsonFast extends AbstractTextAdapter {
 		return JSON.parse(source);
 	}
 
+	// --- BYTE ARRAY WRITER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+		return toBinary(value, meta, insertMeta, (input) -> {
+			final SerializeWriter out = new SerializeWriter((Writer) null, JSON.DEFAULT_GENERATE_FEATURE,
+					normalFeatures);
+			final JSONSerializer writer = new JSONSerializer(out);
+			if (Config.USE_TIMESTAMPS) {
+				writer.setDateFormat(Config.TIMESTAMP_FORMATTER);
+			}
+			writer.write(input);
+			final byte[] bytes = out.toBytes(StandardCharsets.UTF_8);
+			writer.close();
+			return bytes;
+		});
+	}
+
+	// --- BYTE ARRAY PARSER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public Object parse(byte[] source) throws Exception {
+		return JSON.parse(source);
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			final SerializeWriter out = new SerializeWriter(target, JSON.DEFAULT_GENERATE_FEATURE,
+					pretty ? prettyFeatures : normalFeatures);
+			final JSONSerializer writer = new JSONSerializer(out);
+			if (Config.USE_TIMESTAMPS) {
+				writer.setDateFormat(Config.TIMESTAMP_FORMATTER);
+			}
+			writer.write(input);
+
+			// Flushes the buffer into the target (target remains open)
+			writer.close();
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		try (JSONReader reader = new JSONReader(CharStreamAdapter.keepOpen(source))) {
+			return reader.readObject();
+		}
+	}
+
 	// --- ADD CUSTOM SERIALIZER ---
 
 	public static final <T> void addSerializer(SerializeConfig config, Class<T> type,
@@ -17,6 +17,9 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.Writer;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
@@ -26,6 +29,7 @@ import java.util.LinkedList;
 
 import com.owlike.genson.Context;
 import com.owlike.genson.Converter;
+import com.owlike.genson.GenericType;
 import com.owlike.genson.Genson;
 import com.owlike.genson.GensonBuilder;
 import com.owlike.genson.stream.ObjectReader;
@@ -73,12 +77,18 @@ import io.datatree.dom.builtin.AbstractTextAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(120)
-public class JsonGenson extends AbstractTextAdapter {
+public class JsonGenson extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCES ---
 
 	public Genson mapper = create(false);
-	public Genson prettyMapper = create(true);
+
+	/**
+	 * Pretty printer (Genson). It is {@code null} until the first
+	 * pretty-printed output (or the first {@link #getPrettyMapper()} call). A
+	 * mapper set here before that is used as is.
+	 */
+	public volatile Genson prettyMapper;
 
 	// --- IMPLEMENTED WRITER METHODS ---
 
@@ -86,7 +96,7 @@ public class JsonGenson extends AbstractTextAdapter {
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
 			if (pretty) {
-				return prettyMapper.serialize(input);
+				return getPrettyMapper().serialize(input);
 			}
 			return mapper.serialize(input);
 		});
@@ -106,6 +116,51 @@ public class JsonGenson extends AbstractTextAdapter {
 		throw new IllegalArgumentException("Malformed JSON: " + source);
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+				getPrettyMapper().serialize(input, target);
+			} else {
+				mapper.serialize(input, target);
+			}
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		PushbackReader reader = new PushbackReader(source);
+		int c = CharStreamAdapter.peek(reader);
+		if (c == '{') {
+			return mapper.deserialize(reader, GenericType.of(LinkedHashMap.class));
+		}
+		if (c == '[') {
+			return mapper.deserialize(reader, GenericType.of(LinkedList.class));
+		}
+		throw new IllegalArgumentException("Malformed JSON (unexpected character: " + c + ")!");
+	}
+
+	// --- LAZY PRETTY MAPPER ---
+
+	public Genson getPrettyMapper() {
+		Genson pm = prettyMapper;
+		if (pm == null) {
+			synchronized (this) {
+				pm = prettyMapper;
+				if (pm == null) {
+					pm = create(true);
+					prettyMapper = pm;
+				}
+			}
+		}
+		return pm;
+	}
+
 	// --- FACTORY ---
 
 	public static final Genson create(boolean pretty) {
@@ -17,10 +17,18 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -80,12 +88,18 @@ import io.datatree.dom.builtin.AbstractTextAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(110)
-public class JsonGson extends AbstractTextAdapter {
+public class JsonGson extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCES ---
 
 	public Gson mapper = create(false);
-	public Gson prettyMapper = create(true);
+
+	/**
+	 * Pretty printer (Gson). It is {@code null} until the first
+	 * pretty-printed output (or the first {@link #getPrettyMapper()} call). A
+	 * mapper set here before that is used as is.
+	 */
+	public volatile Gson prettyMapper;
 
 	// --- IMPLEMENTED WRITER METHOD ---
 
@@ -93,7 +107,7 @@ public class JsonGson extends AbstractTextAdapter {
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
 			if (pretty) {
-				return prettyMapper.toJson(input);
+				return getPrettyMapper().toJson(input);
 			}
 			return mapper.toJson(input);
 		});
@@ -112,7 +126,72 @@ public class JsonGson extends AbstractTextAdapter {
 		}
 		throw new IllegalArgumentException("Malformed JSON: " + source);
 	}
+
+	// --- BYTE ARRAY WRITER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+		return toBinary(value, meta, insertMeta, (input) -> {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+			try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+				mapper.toJson(input, writer);
+			}
+			return buffer.toByteArray();
+		});
+	}
+
+	// --- BYTE ARRAY PARSER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public Object parse(byte[] source) throws Exception {
+		return parse(new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8));
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+				getPrettyMapper().toJson(input, target);
+			} else {
+				mapper.toJson(input, target);
+			}
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		PushbackReader reader = new PushbackReader(source);
+		int c = CharStreamAdapter.peek(reader);
+		if (c == '{') {
+			return mapper.fromJson(reader, LinkedHashMap.class);
+		}
+		if (c == '[') {
+			return mapper.fromJson(reader, LinkedList.class);
+		}
+		throw new IllegalArgumentException("Malformed JSON (unexpected character: " + c + ")!");
+	}
 	
+	// --- LAZY PRETTY MAPPER ---
+
+	public Gson getPrettyMapper() {
+		Gson pm = prettyMapper;
+		if (pm == null) {
+			synchronized (this) {
+				pm = prettyMapper;
+				if (pm == null) {
+					pm = create(true);
+					prettyMapper = pm;
+				}
+			}
+		}
+		return pm;
+	}
+
 	// --- FACTORY ---
 	
 	public static final Gson create(boolean pretty) {
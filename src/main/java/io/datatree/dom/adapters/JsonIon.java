@@ -19,6 +19,7 @@ package io.datatree.dom.adapters;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -35,10 +36,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 
-import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
 import software.amazon.ion.IonReader;
@@ -105,8 +104,8 @@ public class JsonIon extends AbstractTextAdapter {
 
 	// --- ION WRITER CACHES ---
 
-	public Queue<CachedWriter> writers = new ConcurrentLinkedQueue<>();
-	public Queue<CachedWriter> prettyWriters = new ConcurrentLinkedQueue<>();
+	public Queue<CachedWriter> writers = new ObjectPool<>();
+	public Queue<CachedWriter> prettyWriters = new ObjectPool<>();
 
 	// --- COMMON PARSER INSTANCE ---
 
@@ -185,17 +184,12 @@ public class JsonIon extends AbstractTextAdapter {
 			write(writer.writer, null, input);
 			writer.writer.flush();
 			String json = new String(writer.buffer.toByteArray(), StandardCharsets.UTF_8);
-			if (writers.size() > Config.POOL_SIZE) {
-
-				// Writer pool is full
-				return json;
-			}
 
 			// Recycle ION writer instance
 			if (pretty) {
-				prettyWriters.add(writer);
+				prettyWriters.offer(writer);
 			} else {
-				writers.add(writer);
+				writers.offer(writer);
 			}
 			return json;
 		});
@@ -326,6 +320,22 @@ public class JsonIon extends AbstractTextAdapter {
 		return getSingletonItem(parse(null, null, parser.newReader(source)));
 	}
 
+	// --- LAZY ITERATOR OVER TOP-LEVEL VALUES ---
+
+	/**
+	 * Creates a lazy iterator over the top-level values of a (text or binary)
+	 * Ion stream. The values are parsed one by one, only the current value is
+	 * kept in memory.
+	 * 
+	 * @param source
+	 *            input (closed by the IonValueReader)
+	 * 
+	 * @return value reader
+	 */
+	public IonValueReader readAll(InputStream source) {
+		return new IonValueReader(this, parser.newReader(source), source);
+	}
+
 	public Object getSingletonItem(Object result) {
 		if (result != null && result instanceof List) {
 			List<?> list = (List<?>) result;
@@ -356,107 +366,107 @@ public class JsonIon extends AbstractTextAdapter {
 			}
 
 			// Field value
-			switch (type) {
-			case NULL:
-
-				// Null
-				add(map, list, name, null);
-				continue;
-
-			case STRUCT:
-			case DATAGRAM:
-
-				// Map
-				LinkedHashMap<String, Object> subMap = new LinkedHashMap<>();
-				add(map, list, name, subMap);
-				reader.stepIn();
-				parse(subMap, null, reader);
-				reader.stepOut();
-				continue;
-
-			case LIST:
-			case SEXP:
-
-				// List
-				LinkedList<Object> subList = new LinkedList<>();
-				add(map, list, name, subList);
-				reader.stepIn();
-				parse(null, subList, reader);
-				reader.stepOut();
-				continue;
-
-			case BOOL:
-
-				// Boolean
-				add(map, list, name, reader.booleanValue());
-				continue;
+			add(map, list, name, readValue(reader, type));
+		}
+		if (map == null) {
+			return list;
+		}
+		return map;
+	}
 
+	/**
+	 * Reads the current value of the IonReader (containers are read
+	 * recursively).
+	 * 
+	 * @param reader
+	 *            IonReader (positioned on the value)
+	 * @param type
+	 *            type of the value (returned by IonReader.next())
+	 * 
+	 * @return Map, List or simple value
+	 * 
+	 * @throws Exception
+	 *             any parser exception
+	 */
+	public Object readValue(IonReader reader, IonType type) throws Exception {
+		switch (type) {
+		case STRUCT:
+		case DATAGRAM:
+
+			// Map
+			LinkedHashMap<String, Object> subMap = new LinkedHashMap<>();
+			reader.stepIn();
+			parse(subMap, null, reader);
+			reader.stepOut();
+			return subMap;
+
+		case LIST:
+		case SEXP:
+
+			// List
+			LinkedList<Object> subList = new LinkedList<>();
+			reader.stepIn();
+			parse(null, subList, reader);
+			reader.stepOut();
+			return subList;
+
+		case BOOL:
+
+			// Boolean
+			return reader.booleanValue();
+
+		case INT:
+
+			// BigInteger (or Long or Integer)
+			switch (reader.getIntegerSize()) {
 			case INT:
+				return reader.intValue();
+			case LONG:
+				return reader.longValue();
+			default:
+				return reader.bigIntegerValue();
+			}
 
-				// BigInteger (or Long or Integer)
-				switch (reader.getIntegerSize()) {
-				case INT:
-					add(map, list, name, reader.intValue());
-					break;
-				case LONG:
-					add(map, list, name, reader.longValue());
-					break;
-				default:
-					add(map, list, name, reader.bigIntegerValue());
-					break;
-				}
-				continue;
+		case FLOAT:
 
-			case FLOAT:
+			// Double
+			return reader.doubleValue();
 
-				// Double
-				add(map, list, name, reader.doubleValue());
-				continue;
+		case DECIMAL:
 
-			case DECIMAL:
+			// BigDecimal
+			return reader.bigDecimalValue();
 
-				// BigDecimal
-				add(map, list, name, reader.bigDecimalValue());
-				continue;
+		case TIMESTAMP:
 
-			case TIMESTAMP:
+			// Date
+			return reader.dateValue();
 
-				// Date
-				add(map, list, name, reader.dateValue());
-				continue;
+		case STRING:
 
-			case STRING:
+			// String
+			return reader.stringValue();
 
-				// String
-				add(map, list, name, reader.stringValue());
-				continue;
+		case SYMBOL:
 
-			case SYMBOL:
+			// Symbol
+			SymbolToken symbol = reader.symbolValue();
+			subMap = new LinkedHashMap<>();
+			subMap.put("text", symbol.getText());
+			subMap.put("sid", symbol.getSid());
+			return subMap;
 
-				// Symbol
-				SymbolToken symbol = reader.symbolValue();
-				subMap = new LinkedHashMap<>();
-				subMap.put("text", symbol.getText());
-				subMap.put("sid", symbol.getSid());
-				add(map, list, name, subMap);
-				continue;
+		case BLOB:
+		case CLOB:
 
-			case BLOB:
-			case CLOB:
+			// Byte array
+			return reader.newBytes();
 
-				// Byte array
-				add(map, list, name, reader.newBytes());
-				continue;
+		default:
 
-			default:
-
-				// Ignored
-			}
-		}
-		if (map == null) {
-			return list;
+			// Null
+			return null;
 		}
-		return map;
 	}
 
 	public void add(LinkedHashMap<String, Object> map, LinkedList<Object> list, String name, Object value) {
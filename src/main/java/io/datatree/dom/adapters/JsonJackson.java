@@ -18,14 +18,17 @@
 package io.datatree.dom.adapters;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 
@@ -72,7 +75,7 @@ import io.datatree.dom.Priority;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(180)
-public class JsonJackson extends AbstractJacksonTextAdapter {
+public class JsonJackson extends AbstractJacksonTextAdapter implements NdJsonAdapter {
 
 	// --- CONSTRUCTOR ---
 
@@ -80,13 +83,14 @@ public class JsonJackson extends AbstractJacksonTextAdapter {
 		super(new ObjectMapper(new MappingJsonFactory()));
 
 		// Install MongoDB / BSON serializers
-		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper, prettyMapper);
+		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper);
 	}
 
 	// --- IMPLEMENTED PARSER METHODS ---
 
+	@Override
 	public Object parse(byte[] source) throws Exception {
-		return parse(new String(source, StandardCharsets.UTF_8));
+		return parse(source, 0, source.length);
 	}
 
 	@Override
@@ -101,6 +105,60 @@ public class JsonJackson extends AbstractJacksonTextAdapter {
 		throw new IllegalArgumentException("Malformed JSON: " + source);
 	}
 
+	// --- NDJSON SUPPORT ---
+
+	@Override
+	public Object parse(byte[] source, int offset, int length) throws Exception {
+		try (JsonParser parser = mapper.getFactory().createParser(source, offset, length)) {
+			return readValue(parser);
+		}
+	}
+
+	@Override
+	public LineWriter createLineWriter(OutputStream target) throws IOException {
+		JsonGenerator generator = mapper.getFactory().createGenerator(target);
+		generator.setRootValueSeparator(null);
+		ObjectWriter writer = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+		return new LineWriter() {
+
+			@Override
+			public final void write(Object value, Object meta) throws IOException {
+				toBinary(value, meta, true, (input) -> {
+					writer.writeValue(generator, input);
+					generator.writeRaw('\n');
+					return null;
+				});
+			}
+
+			@Override
+			public final void flush() throws IOException {
+				generator.flush();
+			}
+
+			@Override
+			public final void close() throws IOException {
+				generator.close();
+			}
+
+		};
+	}
+
+	// --- NON-BLOCKING (ASYNC) PARSER ---
+
+	/**
+	 * Creates a feed-style, non-blocking parser. The input can be fed in byte
+	 * chunks as they arrive, and the complete top-level JSON values are
+	 * returned as Trees.
+	 * 
+	 * @return new async parser (not thread-safe)
+	 * 
+	 * @throws IOException
+	 *             unable to create parser
+	 */
+	public AsyncTreeParser createAsyncParser() throws IOException {
+		return new AsyncTreeParser(this, mapper.getFactory().createNonBlockingByteArrayParser());
+	}
+
 	// --- ADD CUSTOM SERIALIZER ---
 
 	public static final <T> void addSerializer(SimpleModule module, Class<T> type,
@@ -23,7 +23,6 @@ import java.net.InetAddress;
 import java.util.Date;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.BiConsumer;
 
 import io.datatree.dom.BASE64;
@@ -85,7 +84,7 @@ public class JsonJodd extends AbstractTextAdapter {
 
 	// --- READER CACHE ---
 
-	public Queue<JsonParser> parsers = new ConcurrentLinkedQueue<>();
+	public Queue<JsonParser> parsers = new ObjectPool<>();
 
 	// --- CONSTRUCTOR ---
 
@@ -161,10 +160,7 @@ public class JsonJodd extends AbstractTextAdapter {
 			parser = new JsonParser().looseMode(true);
 		}
 		final Object result = parser.parse(source);
-		if (parsers.size() > Config.POOL_SIZE) {
-			return result;
-		}
-		parsers.add(parser);
+		parsers.offer(parser);
 		return result;
 	}
 
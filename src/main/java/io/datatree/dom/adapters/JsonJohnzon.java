@@ -19,9 +19,11 @@ package io.datatree.dom.adapters;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
@@ -35,7 +37,6 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Function;
 
 import javax.json.Json;
@@ -100,16 +101,22 @@ import io.datatree.dom.converters.DataConverterRegistry;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(90)
-public class JsonJohnzon extends AbstractTextAdapter {
+public class JsonJohnzon extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCES ---
 
 	public Mapper mapper = create(false);
-	public Mapper prettyMapper = create(true);
+
+	/**
+	 * Pretty printer (Mapper). It is {@code null} until the first
+	 * pretty-printed output (or the first {@link #getPrettyMapper()} call). A
+	 * mapper set here before that is used as is.
+	 */
+	public volatile Mapper prettyMapper;
 
 	// --- WRITER CACHE ---
 
-	public Queue<StringWriter> writers = new ConcurrentLinkedQueue<>();
+	public Queue<StringWriter> writers = new ObjectPool<>();
 
 	// --- IMPLEMENTED WRITER METHOD ---
 
@@ -123,19 +130,17 @@ public class JsonJohnzon extends AbstractTextAdapter {
 				writer.getBuffer().setLength(0);
 			}
 			if (pretty) {
-				writeToMapper(prettyMapper, input, writer);
+				writeToMapper(getPrettyMapper(), input, writer);
 			} else {
 				writeToMapper(mapper, input, writer);
 			}
 			final String json = writer.toString();
-			if (writers.size() <= Config.POOL_SIZE) {
-				writers.add(writer);
-			}
+			writers.offer(writer);
 			return json;
 		});
 	}
 
-	protected static final void writeToMapper(Mapper target, Object value, StringWriter writer) {
+	protected static final void writeToMapper(Mapper target, Object value, Writer writer) {
 		if (value instanceof Collection) {
 			target.writeArray((Collection<?>) value, writer);
 		} else if (value.getClass().isArray()) {
@@ -165,6 +170,50 @@ public class JsonJohnzon extends AbstractTextAdapter {
 		throw new IllegalArgumentException("Malformed JSON: " + source);
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			writeToMapper(pretty ? getPrettyMapper() : mapper, input, target);
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object parse(Reader source) throws Exception {
+		PushbackReader reader = new PushbackReader(source);
+		int c = CharStreamAdapter.peek(reader);
+		if (c == '{') {
+			return mapper.readObject(reader, LinkedHashMap.class);
+		}
+		if (c == '[') {
+			JsonObject wrapper = Json.createObjectBuilder().add("a", mapper.readJsonArray(reader)).build();
+			Map<String, Object> map = mapper.readObject(wrapper, Map.class);
+			return map.get("a");
+		}
+		throw new IllegalArgumentException("Malformed JSON (unexpected character: " + c + ")!");
+	}
+
+	// --- LAZY PRETTY MAPPER ---
+
+	public Mapper getPrettyMapper() {
+		Mapper pm = prettyMapper;
+		if (pm == null) {
+			synchronized (this) {
+				pm = prettyMapper;
+				if (pm == null) {
+					pm = create(true);
+					prettyMapper = pm;
+				}
+			}
+		}
+		return pm;
+	}
+
 	// --- FACTORY ---
 
 	public static final Mapper create(boolean pretty) {
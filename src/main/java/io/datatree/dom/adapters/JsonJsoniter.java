@@ -17,26 +17,33 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Queue;
 import java.util.UUID;
 
 import com.jsoniter.JsonIterator;
+import com.jsoniter.ValueType;
 import com.jsoniter.extra.PreciseFloatSupport;
 import com.jsoniter.output.EncodingMode;
 import com.jsoniter.output.JsonStream;
+import com.jsoniter.output.JsonStreamPool;
 import com.jsoniter.spi.DecodingMode;
 import com.jsoniter.spi.JsoniterSpi;
+import com.jsoniter.spi.Slice;
 
 import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
-import io.datatree.dom.builtin.JsonBuiltin;
 import io.datatree.dom.converters.DataConverterRegistry;
 
 /**
@@ -76,7 +83,11 @@ import io.datatree.dom.converters.DataConverterRegistry;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(75)
-public class JsonJsoniter extends AbstractTextAdapter {
+public class JsonJsoniter extends AbstractTextAdapter implements NdJsonAdapter {
+
+	// --- PARSER CACHE ---
+
+	public Queue<JsonIterator> iterators = new ObjectPool<>();
 
 	// --- STATIC CONSTRUCTOR ---
 
@@ -125,6 +136,73 @@ public class JsonJsoniter extends AbstractTextAdapter {
 		throw new IllegalArgumentException("Malformed JSON: " + source);
 	}
 
+	// --- BYTE ARRAY WRITER (UTF-8, WITHOUT STRING CONVERSION) ---
+
+	@Override
+	public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+		return toBinary(value, meta, insertMeta, (input) -> {
+			JsonStream stream = JsonStreamPool.borrowJsonStream();
+			try {
+				stream.reset(null);
+				stream.writeVal(input);
+				Slice buffer = stream.buffer();
+				return Arrays.copyOfRange(buffer.data(), buffer.head(), buffer.tail());
+			} finally {
+				JsonStreamPool.returnJsonStream(stream);
+			}
+		});
+	}
+
+	// --- NDJSON SUPPORT ---
+
+	@Override
+	public Object parse(byte[] source, int offset, int length) throws Exception {
+		JsonIterator iterator = iterators.poll();
+		if (iterator == null) {
+			iterator = JsonIterator.parse(source, offset, offset + length);
+		} else {
+			iterator.reset(source, offset, offset + length);
+		}
+		ValueType type = iterator.whatIsNext();
+		final Object result;
+		if (type == ValueType.OBJECT) {
+			result = iterator.read(LinkedHashMap.class);
+		} else if (type == ValueType.ARRAY) {
+			result = iterator.read(LinkedList.class);
+		} else {
+			throw new IllegalArgumentException("Malformed JSON (unexpected value type: " + type + ")!");
+		}
+		iterators.offer(iterator);
+		return result;
+	}
+
+	@Override
+	public LineWriter createLineWriter(OutputStream target) throws IOException {
+		JsonStream stream = new JsonStream(target, 4096);
+		return new LineWriter() {
+
+			@Override
+			public final void write(Object value, Object meta) throws IOException {
+				toBinary(value, meta, true, (input) -> {
+					stream.writeVal(input);
+					stream.write('\n');
+					return null;
+				});
+			}
+
+			@Override
+			public final void flush() throws IOException {
+				stream.flush();
+			}
+
+			@Override
+			public final void close() throws IOException {
+				stream.close();
+			}
+
+		};
+	}
+
 	// --- PARSE STRING ---
 
 	@Override
@@ -137,11 +215,24 @@ public class JsonJsoniter extends AbstractTextAdapter {
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
-			String json = JsonStream.serialize(input);
 			if (pretty) {
-				return JsonBuiltin.format(json);
+
+				// Indent while writing
+				ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024);
+				IndentingJsonOutputStream out = new IndentingJsonOutputStream(buffer);
+				JsonStream stream = JsonStreamPool.borrowJsonStream();
+				try {
+					stream.reset(out);
+					stream.writeVal(input);
+					stream.flush();
+					out.flush();
+				} finally {
+					stream.reset(null);
+					JsonStreamPool.returnJsonStream(stream);
+				}
+				return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
 			}
-			return json;
+			return JsonStream.serialize(input);
 		});
 	}
 
@@ -17,6 +17,9 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.Reader;
+import java.io.Writer;
+
 import com.grack.nanojson.ExtendedWriter;
 import com.grack.nanojson.JsonParser;
 import com.grack.nanojson.JsonParser.JsonParserContext;
@@ -62,7 +65,7 @@ import io.datatree.dom.builtin.AbstractTextAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(50)
-public class JsonNano extends AbstractTextAdapter {
+public class JsonNano extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -86,4 +89,23 @@ public class JsonNano extends AbstractTextAdapter {
 		return mapper.from(source);
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			ExtendedWriter writer = new ExtendedWriter(target, pretty ? "  " : null);
+			writer.value(input);
+			writer.finish();
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		return mapper.from(source);
+	}
+
 }
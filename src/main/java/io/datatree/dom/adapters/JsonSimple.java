@@ -17,6 +17,10 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -25,7 +29,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.json.simple.JSONArray;
 import org.json.simple.JSONAware;
@@ -33,10 +36,8 @@ import org.json.simple.JSONObject;
 import org.json.simple.parser.ContainerFactory;
 import org.json.simple.parser.JSONParser;
 
-import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
-import io.datatree.dom.builtin.JsonBuiltin;
 
 /**
  * <b>JSON.SIMPLE JSON ADAPTER</b><br>
@@ -79,11 +80,11 @@ import io.datatree.dom.builtin.JsonBuiltin;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(40)
-public class JsonSimple extends AbstractTextAdapter {
+public class JsonSimple extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- READER CACHE ---
 
-	public Queue<JSONParser> parsers = new ConcurrentLinkedQueue<>();
+	public Queue<JSONParser> parsers = new ObjectPool<>();
 
 	// --- CONTAINER FACTORY ---
 
@@ -95,6 +96,13 @@ public class JsonSimple extends AbstractTextAdapter {
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+				StringWriter out = new StringWriter(1024);
+				IndentingJsonWriter writer = new IndentingJsonWriter(out);
+				writeJson(input, writer);
+				writer.flush();
+				return out.toString();
+			}
 			String json;
 			if (input instanceof Map) {
 				json = JSONObject.toJSONString((Map) input);
@@ -109,9 +117,6 @@ public class JsonSimple extends AbstractTextAdapter {
 			} else {
 				throw new IllegalArgumentException("Unsupported data type (" + input + ")!");
 			}
-			if (pretty) {
-				return JsonBuiltin.format(json);
-			}
 			return json;
 		});
 	}
@@ -125,10 +130,55 @@ public class JsonSimple extends AbstractTextAdapter {
 			parser = new JSONParser();
 		}
 		final Object result = parser.parse(source, containerFactory);
-		if (parsers.size() > Config.POOL_SIZE) {
-			return result;
+		parsers.offer(parser);
+		return result;
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+
+				// JSON.simple has no indenting writer (indent while writing)
+				IndentingJsonWriter writer = new IndentingJsonWriter(target);
+				writeJson(input, writer);
+				writer.flush();
+			} else {
+				writeJson(input, target);
+			}
+			return null;
+		});
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected void writeJson(Object input, Writer target) throws IOException {
+		if (input instanceof Map) {
+			JSONObject.writeJSONString((Map) input, target);
+		} else if (input instanceof List) {
+			JSONArray.writeJSONString((List) input, target);
+		} else if (input instanceof JSONAware) {
+			target.write(((JSONAware) input).toJSONString());
+		} else if (input instanceof Set) {
+			JSONArray.writeJSONString(new ArrayList((Set) input), target);
+		} else if (input.getClass().isArray()) {
+			JSONArray.writeJSONString(Arrays.asList(input), target);
+		} else {
+			throw new IllegalArgumentException("Unsupported data type (" + input + ")!");
 		}
-		parsers.add(parser);
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		JSONParser parser = parsers.poll();
+		if (parser == null) {
+			parser = new JSONParser();
+		}
+		final Object result = parser.parse(source, containerFactory);
+		parsers.offer(parser);
 		return result;
 	}
 
@@ -18,6 +18,9 @@
 package io.datatree.dom.adapters;
 
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
@@ -29,13 +32,11 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import io.datatree.dom.BASE64;
 import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
-import io.datatree.dom.builtin.JsonBuiltin;
 import io.datatree.dom.converters.DataConverterRegistry;
 import net.minidev.json.JSONArray;
 import net.minidev.json.JSONAware;
@@ -84,11 +85,11 @@ import net.minidev.json.reader.JsonWriterI;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(130)
-public class JsonSmart extends AbstractTextAdapter {
+public class JsonSmart extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- PARSER CACHE ---
 
-	public Queue<JSONParser> parsers = new ConcurrentLinkedQueue<>();
+	public Queue<JSONParser> parsers = new ObjectPool<>();
 
 	// --- IMPLEMENTED WRITER METHOD ---
 
@@ -96,6 +97,13 @@ public class JsonSmart extends AbstractTextAdapter {
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+				StringWriter out = new StringWriter(1024);
+				IndentingJsonWriter writer = new IndentingJsonWriter(out);
+				writeJson(input, writer);
+				writer.flush();
+				return out.toString();
+			}
 			String json;
 			if (input instanceof Map) {
 				json = JSONObject.toJSONString((Map) input);
@@ -110,9 +118,6 @@ public class JsonSmart extends AbstractTextAdapter {
 			} else {
 				throw new IllegalArgumentException("Unsupported data type (" + input + ")!");
 			}
-			if (pretty) {
-				return JsonBuiltin.format(json);
-			}
 			return json;
 		});
 	}
@@ -176,10 +181,55 @@ public class JsonSmart extends AbstractTextAdapter {
 			parser = new JSONParser(JSONParser.DEFAULT_PERMISSIVE_MODE);
 		}
 		final Object result = parser.parse(source);
-		if (parsers.size() > Config.POOL_SIZE) {
-			return result;
+		parsers.offer(parser);
+		return result;
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+
+				// JSON-smart has no indenting writer (indent while writing)
+				IndentingJsonWriter writer = new IndentingJsonWriter(target);
+				writeJson(input, writer);
+				writer.flush();
+			} else {
+				writeJson(input, target);
+			}
+			return null;
+		});
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	protected void writeJson(Object input, Writer target) throws IOException {
+		if (input instanceof Map) {
+			JSONObject.writeJSON((Map) input, target);
+		} else if (input instanceof List) {
+			JSONArray.writeJSONString((List) input, target);
+		} else if (input instanceof JSONAware) {
+			target.write(((JSONAware) input).toJSONString());
+		} else if (input instanceof Set) {
+			JSONArray.writeJSONString(new ArrayList((Set) input), target);
+		} else if (input.getClass().isArray()) {
+			JSONArray.writeJSONString(Arrays.asList(input), target);
+		} else {
+			throw new IllegalArgumentException("Unsupported data type (" + input + ")!");
 		}
-		parsers.add(parser);
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		JSONParser parser = parsers.poll();
+		if (parser == null) {
+			parser = new JSONParser(JSONParser.DEFAULT_PERMISSIVE_MODE);
+		}
+		final Object result = parser.parse(source);
+		parsers.offer(parser);
 		return result;
 	}
 
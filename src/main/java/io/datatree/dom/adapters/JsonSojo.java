@@ -22,7 +22,6 @@ import java.util.UUID;
 
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
-import io.datatree.dom.builtin.JsonBuiltin;
 import net.sf.sojo.core.Converter;
 import net.sf.sojo.core.ConverterInterceptor;
 import net.sf.sojo.interchange.json.JsonSerializer;
@@ -79,7 +78,9 @@ public class JsonSojo extends AbstractTextAdapter {
 		return toString(value, meta, insertMeta, (input) -> {
 			String json = (String) mapper.serialize(input);
 			if (pretty) {
-				return JsonBuiltin.format(json);
+
+				// SOJO has no streaming writer
+				return IndentingJsonWriter.indent(json);
 			}
 			return json;
 		});
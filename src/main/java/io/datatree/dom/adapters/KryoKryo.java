@@ -18,12 +18,16 @@
 package io.datatree.dom.adapters;
 
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
+import java.nio.ByteBuffer;
 import java.util.UUID;
 
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.ByteBufferInput;
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
 
@@ -52,7 +56,7 @@ import io.datatree.dom.builtin.AbstractAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(10)
-public class KryoKryo extends AbstractAdapter {
+public class KryoKryo extends AbstractAdapter implements ByteBufferAdapter, FramedAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -147,6 +151,18 @@ public class KryoKryo extends AbstractAdapter {
 		});
 	}
 
+	@Override
+	public void toBinary(Object value, Object meta, boolean insertMeta, ByteBuffer target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+
+			// Writes directly into the target buffer (max size = capacity)
+			ByteBufferOutput out = new ByteBufferOutput(target);
+			mapper.writeClassAndObject(out, input);
+			out.flush();
+			return null;
+		});
+	}
+
 	// --- IMPLEMENTED PARSER METHODS ---
 
 	@Override
@@ -158,4 +174,38 @@ public class KryoKryo extends AbstractAdapter {
 		return mapper.readClassAndObject(new Input(source));
 	}
 
-}
+	@Override
+	public Object parse(ByteBuffer source) throws Exception {
+		try {
+			return mapper.readClassAndObject(new ByteBufferInput(source));
+		} finally {
+			source.position(source.limit());
+		}
+	}
+
+	// --- LENGTH-PREFIXED FRAMES ---
+
+	@Override
+	public FrameEncoder createFrameEncoder(OutputStream buffer) throws Exception {
+		Output output = new Output(buffer, 4096);
+		return (value, meta) -> {
+			toBinary(value, meta, true, (input) -> {
+				mapper.writeClassAndObject(output, input);
+				output.flush();
+				return null;
+			});
+		};
+	}
+
+	@Override
+	public FrameDecoder createFrameDecoder() throws Exception {
+
+		// One Input for all frames (re-targeted for each frame)
+		Input input = new Input();
+		return (source, offset, length) -> {
+			input.setBuffer(source, offset, length);
+			return mapper.readClassAndObject(input);
+		};
+	}
+
+}
\ No newline at end of file
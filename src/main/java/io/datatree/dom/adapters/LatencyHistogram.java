@@ -0,0 +1,147 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, HDR-style (log-linear) histogram of latencies (in nanoseconds).
+ * Values below 128 are recorded exactly, larger values are recorded into 64
+ * linear sub-buckets per power of two, so the relative error of the reported
+ * percentiles is less than 1.6%. Recording is wait-free (one atomic
+ * increment per counter), the histogram uses a fixed (~30 KB) array.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class LatencyHistogram {
+
+	// --- BUCKET LAYOUT ---
+
+	protected static final int SUB_BUCKET_BITS = 6;
+
+	protected static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	protected static final int LINEAR_LIMIT = SUB_BUCKETS << 1;
+
+	protected static final int LINEAR_MAGNITUDE = SUB_BUCKET_BITS + 1;
+
+	protected static final int BUCKETS = LINEAR_LIMIT + (63 - LINEAR_MAGNITUDE) * SUB_BUCKETS;
+
+	// --- COUNTERS ---
+
+	protected final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+	protected final LongAdder count = new LongAdder();
+
+	protected final LongAdder sum = new LongAdder();
+
+	protected final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+	// --- RECORD VALUE ---
+
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		counts.incrementAndGet(indexOf(nanos));
+		count.increment();
+		sum.add(nanos);
+		max.accumulate(nanos);
+	}
+
+	// --- STATISTICS ---
+
+	public long getCount() {
+		return count.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+
+	public double getMean() {
+		long c = count.sum();
+		return c == 0 ? 0 : (double) sum.sum() / c;
+	}
+
+	/**
+	 * Returns the (highest equivalent) value at the given percentile.
+	 * 
+	 * @param percentile
+	 *            percentile (eg. 50, 99, 99.9)
+	 * 
+	 * @return value in nanoseconds (or 0 if the histogram is empty)
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long[] snapshot = new long[BUCKETS];
+		long total = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(Math.min(100d, Math.max(0d, percentile)) / 100d * total);
+		if (rank < 1) {
+			rank = 1;
+		}
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += snapshot[i];
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			counts.set(i, 0);
+		}
+		count.reset();
+		sum.reset();
+		max.reset();
+	}
+
+	// --- INDEX CALCULATION ---
+
+	protected static final int indexOf(long value) {
+		if (value < LINEAR_LIMIT) {
+			return (int) value;
+		}
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+		return LINEAR_LIMIT + (magnitude - LINEAR_MAGNITUDE) * SUB_BUCKETS + subBucket;
+	}
+
+	protected static final long highestValueOf(int index) {
+		if (index < LINEAR_LIMIT) {
+			return index;
+		}
+		int magnitude = LINEAR_MAGNITUDE + (index - LINEAR_LIMIT) / SUB_BUCKETS;
+		int shift = magnitude - SUB_BUCKET_BITS;
+		long lowest = (long) (SUB_BUCKETS + (index - LINEAR_LIMIT) % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+}
\ No newline at end of file
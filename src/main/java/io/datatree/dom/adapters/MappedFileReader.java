@@ -0,0 +1,184 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import io.datatree.dom.TreeReader;
+import io.datatree.dom.TreeReaderRegistry;
+
+/**
+ * <b>MEMORY-MAPPED FILE READER</b><br>
+ * <br>
+ * Description: Parses (large) files through memory-mapped regions, without
+ * reading the content into a heap array. Files up to the chunk size are mapped
+ * in one region and passed to adapters which implement ByteBufferAdapter
+ * (CborJackson, SmileJackson, IonIon, MsgPackOrg, etc.). Larger files (and
+ * the stream-based adapters, eg. JsonDSL and JsonJackson) are read through an
+ * InputStream which maps the file in consecutive chunks, so files larger than
+ * 2 GB are also supported. Other adapters (eg. JsonJsoniter, whose stream mode
+ * would have to be enabled globally, before the first parsing) get a heap copy
+ * of the file (max. 2 GB). The mapped regions are released by the garbage
+ * collector.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * MappedFileReader reader = new MappedFileReader("cbor");<br>
+ * Tree data = new Tree(reader.parse(Paths.get("archive.cbor")));
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class MappedFileReader {
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Max size of a mapped region (bytes).
+	 */
+	public int chunkSize = Integer.MAX_VALUE;
+
+	// --- ADAPTER ---
+
+	public final TreeReader reader;
+
+	// --- CONSTRUCTORS ---
+
+	public MappedFileReader(String format) {
+		this(TreeReaderRegistry.getReader(format));
+	}
+
+	public MappedFileReader(TreeReader reader) {
+		this.reader = reader;
+	}
+
+	// --- PARSE FILE ---
+
+	/**
+	 * Parses the file with the adapter of this reader.
+	 * 
+	 * @param file
+	 *            path of the file
+	 * 
+	 * @return parsed structure (Map or List)
+	 * 
+	 * @throws Exception
+	 *             any I/O or parser exception
+	 */
+	public Object parse(Path file) throws Exception {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			// Map the whole file
+			if (size <= chunkSize && reader instanceof ByteBufferAdapter) {
+				return ((ByteBufferAdapter) reader).parse(channel.map(MapMode.READ_ONLY, 0, size));
+			}
+
+			// Map the file in chunks
+			if (reader instanceof ByteStreamAdapter) {
+				return ((ByteStreamAdapter) reader).parse(new MappedInputStream(channel, chunkSize));
+			}
+
+			// Copy into the heap
+			if (size > Integer.MAX_VALUE - 8) {
+				throw new IllegalArgumentException("File is too large for the \"" + reader.getClass().getSimpleName()
+						+ "\" adapter (" + size + " bytes)!");
+			}
+			byte[] bytes = new byte[(int) size];
+			channel.map(MapMode.READ_ONLY, 0, size).get(bytes);
+			return reader.parse(bytes);
+		}
+	}
+
+	// --- CHUNKED INPUT STREAM ---
+
+	/**
+	 * InputStream which maps the file in consecutive regions.
+	 */
+	public static class MappedInputStream extends ByteBufferInputStream {
+
+		protected final FileChannel channel;
+		protected final long size;
+		protected final int chunkSize;
+
+		protected long offset;
+
+		public MappedInputStream(FileChannel channel, int chunkSize) throws IOException {
+			super(ByteBuffer.allocate(0));
+			this.channel = channel;
+			this.size = channel.size();
+			this.chunkSize = chunkSize;
+		}
+
+		protected boolean next() throws IOException {
+			if (buffer.hasRemaining()) {
+				return true;
+			}
+			if (offset >= size) {
+				return false;
+			}
+			long len = Math.min(chunkSize, size - offset);
+			buffer = channel.map(MapMode.READ_ONLY, offset, len);
+			offset += len;
+			return true;
+		}
+
+		@Override
+		public int read() {
+			try {
+				return next() ? super.read() : -1;
+			} catch (IOException cause) {
+				throw new UncheckedIOException(cause);
+			}
+		}
+
+		@Override
+		public int read(byte[] bytes, int off, int len) {
+			try {
+				return next() ? super.read(bytes, off, len) : -1;
+			} catch (IOException cause) {
+				throw new UncheckedIOException(cause);
+			}
+		}
+
+		@Override
+		public long skip(long n) {
+			long skipped = 0;
+			try {
+				while (skipped < n && next()) {
+					skipped += super.skip(n - skipped);
+				}
+			} catch (IOException cause) {
+				throw new UncheckedIOException(cause);
+			}
+			return skipped;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(Integer.MAX_VALUE, buffer.remaining() + size - offset);
+		}
+
+	}
+
+}
\ No newline at end of file
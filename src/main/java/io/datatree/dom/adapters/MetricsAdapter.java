@@ -0,0 +1,365 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import io.datatree.dom.TreeReader;
+import io.datatree.dom.TreeReaderRegistry;
+import io.datatree.dom.TreeWriter;
+import io.datatree.dom.TreeWriterRegistry;
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * <b>METRICS DECORATOR</b><br>
+ * <br>
+ * Description: Wraps a reader / writer adapter and records the latency
+ * histograms of the parse and serialize calls, the input and output sizes,
+ * the number of errors and the bytes allocated per call (measured by the
+ * ThreadMXBean of the HotSpot / OpenJ9 JVM). Failed calls only increment the
+ * error counters; latencies, sizes and allocations are recorded for the
+ * successful calls. The size of a String input or output is recorded in
+ * characters (see {@link #countUtf8Bytes}). Metrics are collected per format
+ * and adapter, and are available via JMX (with the name
+ * "io.datatree:type=AdapterMetrics,format=[format],adapter=[name]") or the
+ * static {@link #getMetrics()} methods.<br>
+ * <br>
+ * <b>Wrap the current default adapters of a format:</b><br>
+ * <br>
+ * MetricsAdapter.install("json");<br>
+ * <br>
+ * <b>Wrap an adapter:</b><br>
+ * <br>
+ * MetricsAdapter metrics = new MetricsAdapter(new JsonJackson());<br>
+ * TreeReaderRegistry.setReader("json", metrics);<br>
+ * TreeWriterRegistry.setWriter("json", metrics);<br>
+ * <br>
+ * <b>Query the metrics:</b><br>
+ * <br>
+ * AdapterMetrics m = MetricsAdapter.getMetrics("json", "JsonJackson");<br>
+ * long p99 = m.getSerializeP99Nanos();
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class MetricsAdapter extends AbstractAdapter {
+
+	// --- WRAPPED ADAPTERS ---
+
+	public final TreeReader reader;
+
+	public final TreeWriter writer;
+
+	// --- METRICS ---
+
+	public final AdapterMetrics readerMetrics;
+
+	public final AdapterMetrics writerMetrics;
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Measure the allocated bytes per call (requires a JVM with the
+	 * "com.sun.management.ThreadMXBean" extension).
+	 */
+	public boolean measureAllocations = ALLOCATIONS != null;
+
+	/**
+	 * Record the UTF-8 length of String inputs and outputs as read / written
+	 * bytes. It scans every String, so by default the number of characters is
+	 * recorded instead (as read / written chars).
+	 */
+	public boolean countUtf8Bytes;
+
+	// --- CONSTRUCTORS ---
+
+	public MetricsAdapter(AbstractAdapter adapter) {
+		this(adapter, adapter);
+	}
+
+	public MetricsAdapter(TreeReader reader, TreeWriter writer) {
+		this.reader = unwrap(reader);
+		this.writer = unwrap(writer);
+		this.readerMetrics = getOrCreateMetrics(this.reader.getFormat(), this.reader);
+		this.writerMetrics = getOrCreateMetrics(this.writer.getFormat(), this.writer);
+	}
+
+	// --- INSTALL ---
+
+	/**
+	 * Wraps the current reader and writer of the specified format.
+	 * 
+	 * @param format
+	 *            format (eg. "json", "xml", "cbor")
+	 * 
+	 * @return the installed decorator
+	 */
+	public static final MetricsAdapter install(String format) {
+		MetricsAdapter adapter = new MetricsAdapter(TreeReaderRegistry.getReader(format),
+				TreeWriterRegistry.getWriter(format));
+		TreeReaderRegistry.setReader(format, adapter);
+		TreeWriterRegistry.setWriter(format, adapter);
+		return adapter;
+	}
+
+	// --- NAME OF THE FORMAT ---
+
+	@Override
+	public String getFormat() {
+		return reader.getFormat();
+	}
+
+	// --- IMPLEMENTED WRITER METHODS ---
+
+	@Override
+	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		try {
+			String result = writer.toString(value, meta, pretty, insertMeta);
+			writerMetrics.serializeLatency.record(System.nanoTime() - start);
+			recordAllocations(writerMetrics, false, allocated);
+			if (result != null) {
+				recordLength(writerMetrics.bytesWritten, writerMetrics.charsWritten, result);
+			}
+			return result;
+		} catch (RuntimeException cause) {
+			writerMetrics.serializeErrors.increment();
+			throw cause;
+		}
+	}
+
+	@Override
+	public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		try {
+			byte[] result = writer.toBinary(value, meta, insertMeta);
+			writerMetrics.serializeLatency.record(System.nanoTime() - start);
+			recordAllocations(writerMetrics, false, allocated);
+			if (result != null) {
+				writerMetrics.bytesWritten.add(result.length);
+			}
+			return result;
+		} catch (RuntimeException cause) {
+			writerMetrics.serializeErrors.increment();
+			throw cause;
+		}
+	}
+
+	// --- IMPLEMENTED PARSER METHODS ---
+
+	@Override
+	public Object parse(String source) throws Exception {
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		try {
+			Object result = reader.parse(source);
+			readerMetrics.parseLatency.record(System.nanoTime() - start);
+			recordAllocations(readerMetrics, true, allocated);
+			if (source != null) {
+				recordLength(readerMetrics.bytesRead, readerMetrics.charsRead, source);
+			}
+			return result;
+		} catch (Exception cause) {
+			readerMetrics.parseErrors.increment();
+			throw cause;
+		}
+	}
+
+	@Override
+	public Object parse(byte[] source) throws Exception {
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		try {
+			Object result = reader.parse(source);
+			readerMetrics.parseLatency.record(System.nanoTime() - start);
+			recordAllocations(readerMetrics, true, allocated);
+			if (source != null) {
+				readerMetrics.bytesRead.add(source.length);
+			}
+			return result;
+		} catch (Exception cause) {
+			readerMetrics.parseErrors.increment();
+			throw cause;
+		}
+	}
+
+	// --- SIZE OF THE STRING INPUT / OUTPUT ---
+
+	protected void recordLength(LongAdder bytes, LongAdder chars, String text) {
+		if (countUtf8Bytes) {
+			bytes.add(utf8Length(text));
+		} else {
+			chars.add(text.length());
+		}
+	}
+
+	// --- ALLOCATION COUNTER ---
+
+	protected static final com.sun.management.ThreadMXBean ALLOCATIONS = createAllocationCounter();
+
+	protected static final com.sun.management.ThreadMXBean createAllocationCounter() {
+		try {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (bean instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) bean;
+				if (counter.isThreadAllocatedMemorySupported()) {
+					if (!counter.isThreadAllocatedMemoryEnabled()) {
+						counter.setThreadAllocatedMemoryEnabled(true);
+					}
+					return counter;
+				}
+			}
+		} catch (Throwable notSupported) {
+
+			// Not a HotSpot / OpenJ9 JVM, or the access is denied
+		}
+		return null;
+	}
+
+	protected long allocatedBytes() {
+		if (measureAllocations && ALLOCATIONS != null) {
+			return ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	protected void recordAllocations(AdapterMetrics metrics, boolean parser, long start) {
+		if (start < 0) {
+			return;
+		}
+		long allocated = allocatedBytes() - start;
+		if (allocated > 0) {
+			if (parser) {
+				metrics.parseAllocatedBytes.add(allocated);
+			} else {
+				metrics.serializeAllocatedBytes.add(allocated);
+			}
+		}
+	}
+
+	// --- METRICS REGISTRY (PULL API) ---
+
+	protected static final ConcurrentHashMap<String, AdapterMetrics> registry = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the metrics of the specified adapter.
+	 * 
+	 * @param format
+	 *            format (eg. "json")
+	 * @param adapter
+	 *            simple class name of the adapter (eg. "JsonJackson")
+	 * 
+	 * @return metrics or {@code null}
+	 */
+	public static final AdapterMetrics getMetrics(String format, String adapter) {
+		return registry.get(format + '/' + adapter);
+	}
+
+	/**
+	 * Returns the metrics of all adapters of the specified format.
+	 * 
+	 * @param format
+	 *            format (eg. "json")
+	 * 
+	 * @return list of metrics
+	 */
+	public static final List<AdapterMetrics> getMetrics(String format) {
+		ArrayList<AdapterMetrics> list = new ArrayList<>();
+		for (AdapterMetrics metrics : registry.values()) {
+			if (metrics.getFormat().equals(format)) {
+				list.add(metrics);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the metrics of all wrapped adapters.
+	 * 
+	 * @return collection of metrics
+	 */
+	public static final Collection<AdapterMetrics> getMetrics() {
+		return Collections.unmodifiableCollection(registry.values());
+	}
+
+	public static final void resetMetrics() {
+		for (AdapterMetrics metrics : registry.values()) {
+			metrics.reset();
+		}
+	}
+
+	protected static final AdapterMetrics getOrCreateMetrics(String format, Object adapter) {
+		String name = adapter.getClass().getSimpleName();
+		return registry.computeIfAbsent(format + '/' + name, key -> {
+			AdapterMetrics metrics = new AdapterMetrics(format, name);
+			try {
+				MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+				ObjectName objectName = new ObjectName(
+						"io.datatree:type=AdapterMetrics,format=" + format + ",adapter=" + name);
+				if (server.isRegistered(objectName)) {
+					server.unregisterMBean(objectName);
+				}
+				server.registerMBean(metrics, objectName);
+			} catch (Throwable jmxError) {
+
+				// JMX is not available (the pull API still works)
+			}
+			return metrics;
+		});
+	}
+
+	// --- UTILITIES ---
+
+	protected static final TreeReader unwrap(TreeReader reader) {
+		return reader instanceof MetricsAdapter ? ((MetricsAdapter) reader).reader : reader;
+	}
+
+	protected static final TreeWriter unwrap(TreeWriter writer) {
+		return writer instanceof MetricsAdapter ? ((MetricsAdapter) writer).writer : writer;
+	}
+
+	protected static final long utf8Length(String text) {
+		long length = text.length();
+		for (int i = 0, n = text.length(); i < n; i++) {
+			char c = text.charAt(i);
+			if (c >= 0x80) {
+				if (c < 0x800) {
+					length++;
+				} else if (Character.isHighSurrogate(c)) {
+					length += 2;
+					i++;
+				} else {
+					length += 2;
+				}
+			}
+		}
+		return length;
+	}
+
+}
\ No newline at end of file
@@ -18,7 +18,10 @@
 package io.datatree.dom.adapters;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.InetAddress;
+import java.nio.ByteBuffer;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
@@ -31,6 +34,7 @@ import org.msgpack.type.ArrayValue;
 import org.msgpack.type.MapValue;
 import org.msgpack.type.RawValue;
 import org.msgpack.type.Value;
+import org.msgpack.unpacker.BufferUnpacker;
 import org.msgpack.unpacker.Unpacker;
 
 import io.datatree.dom.BASE64;
@@ -81,7 +85,7 @@ import io.datatree.dom.builtin.AbstractAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(20)
-public class MsgPackOrg extends AbstractAdapter {
+public class MsgPackOrg extends AbstractAdapter implements ByteBufferAdapter, ByteStreamAdapter, FramedAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -136,11 +140,27 @@ public class MsgPackOrg extends AbstractAdapter {
 		});
 	}
 
+	@Override
+	public void toBinary(Object value, Object meta, boolean insertMeta, ByteBuffer target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+			mapper.write(new ByteBufferOutputStream(target), input);
+			return null;
+		});
+	}
+
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return BASE64.encode(toBinary(value, meta, insertMeta));
 	}
 
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, OutputStream target) {
+		toBinary(value, meta, insertMeta, (input) -> {
+			mapper.write(target, input);
+			return null;
+		});
+	}
+
 	// --- IMPLEMENTED PARSER METHODS ---
 
 	@Override
@@ -148,11 +168,50 @@ public class MsgPackOrg extends AbstractAdapter {
 		return toObject(mapper.read(source));
 	}
 
+	@Override
+	public Object parse(InputStream source) throws Exception {
+		return toObject(mapper.read(source));
+	}
+
+	@Override
+	public Object parse(ByteBuffer source) throws Exception {
+		try {
+			return toObject(mapper.read(source));
+		} finally {
+			source.position(source.limit());
+		}
+	}
+
 	@Override
 	public Object parse(String source) throws Exception {
 		return parse(BASE64.decode(source));
 	}
 
+	// --- LENGTH-PREFIXED FRAMES ---
+
+	@Override
+	public FrameEncoder createFrameEncoder(OutputStream buffer) throws Exception {
+		Packer packer = mapper.createPacker(buffer);
+		return (value, meta) -> {
+			toBinary(value, meta, true, (input) -> {
+				packer.write(input);
+				packer.flush();
+				return null;
+			});
+		};
+	}
+
+	@Override
+	public FrameDecoder createFrameDecoder() throws Exception {
+
+		// One unpacker for all frames (re-wrapped for each frame)
+		BufferUnpacker unpacker = mapper.createBufferUnpacker();
+		return (source, offset, length) -> {
+			unpacker.wrap(source, offset, length);
+			return toObject(unpacker.readValue());
+		};
+	}
+
 	// --- RECURSIVE CONVERTER ---
 
 	protected static final Object toObject(Value value) {
@@ -0,0 +1,92 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * JSON adapters with native support for newline-delimited JSON (NDJSON / JSON
+ * Lines). Used by the NdJsonReader and NdJsonWriter.
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public interface NdJsonAdapter {
+
+	/**
+	 * Parses one JSON document from a region of the byte array (without
+	 * converting the region into a String). JsonJackson and JsonJsoniter parse
+	 * the region in place. DSL-JSON can only read from the beginning of an
+	 * array, so JsonDSL copies the region (if the offset is not zero) into a
+	 * reusable buffer first.
+	 * 
+	 * @param source
+	 *            UTF-8 encoded bytes
+	 * @param offset
+	 *            start of the document
+	 * @param length
+	 *            length of the document
+	 * 
+	 * @return parsed structure (Map or List)
+	 * 
+	 * @throws Exception
+	 *             any parser exception
+	 */
+	Object parse(byte[] source, int offset, int length) throws Exception;
+
+	/**
+	 * Creates a reusable line writer (one generator and buffer for all
+	 * records) on the specified stream.
+	 * 
+	 * @param target
+	 *            output stream
+	 * 
+	 * @return line writer
+	 * 
+	 * @throws IOException
+	 *             any I/O exception
+	 */
+	LineWriter createLineWriter(OutputStream target) throws IOException;
+
+	// --- LINE WRITER ---
+
+	/**
+	 * Writes compact JSON documents, each followed by a newline character.
+	 * Closing the writer closes the target stream.
+	 */
+	public interface LineWriter extends Flushable, Closeable {
+
+		/**
+		 * Writes one record.
+		 * 
+		 * @param value
+		 *            record (Map, List, etc.)
+		 * @param meta
+		 *            meta structure of the record, inserted as "_meta" (or
+		 *            {@code null})
+		 * 
+		 * @throws IOException
+		 *             any I/O exception
+		 */
+		void write(Object value, Object meta) throws IOException;
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,225 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import io.datatree.Tree;
+import io.datatree.dom.TreeReader;
+import io.datatree.dom.TreeReaderRegistry;
+
+/**
+ * <b>NDJSON / JSON LINES READER</b><br>
+ * <br>
+ * Description: Lazily reads newline-delimited JSON records from an
+ * InputStream, one Tree per line. The lines are read into one reusable
+ * buffer (the memory usage depends on the length of the longest line, not on
+ * the size of the stream), and adapters which implement NdJsonAdapter
+ * (JsonJackson, JsonDSL, JsonJsoniter) parse the lines directly from this
+ * buffer. Other JSON adapters get one String per line. Blank lines are
+ * skipped. Closing the reader closes the InputStream.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (NdJsonReader reader = new NdJsonReader(in)) {<br>
+ * &nbsp;&nbsp;for (Tree record : reader) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;System.out.println(record.get("id", 0));<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class NdJsonReader implements Iterator<Tree>, Iterable<Tree>, Closeable {
+
+	// --- SOURCE AND ADAPTER ---
+
+	protected final InputStream source;
+	protected final TreeReader reader;
+
+	// --- LINE BUFFER ---
+
+	protected byte[] buffer;
+	protected int start;
+	protected int end;
+	protected int scan;
+	protected boolean eof;
+
+	// --- CURRENT LINE ---
+
+	protected int lineStart;
+	protected int lineLength;
+	protected long lineNumber;
+
+	// --- NEXT RECORD ---
+
+	protected Tree next;
+
+	// --- CONSTRUCTORS ---
+
+	public NdJsonReader(InputStream source) {
+		this(source, TreeReaderRegistry.getReader("json"));
+	}
+
+	public NdJsonReader(InputStream source, TreeReader reader) {
+		this(source, reader, 65536);
+	}
+
+	public NdJsonReader(InputStream source, TreeReader reader, int bufferSize) {
+		this.source = source;
+		this.reader = reader;
+		this.buffer = new byte[Math.max(bufferSize, 16)];
+	}
+
+	// --- ITERATOR ---
+
+	@Override
+	public Iterator<Tree> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null) {
+			next = readRecord();
+		}
+		return next != null;
+	}
+
+	@Override
+	public Tree next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Tree record = next;
+		next = null;
+		return record;
+	}
+
+	/**
+	 * Returns the line number of the last returned record.
+	 * 
+	 * @return line number (1-based)
+	 */
+	public long getLineNumber() {
+		return lineNumber;
+	}
+
+	// --- READ RECORD ---
+
+	protected Tree readRecord() {
+		try {
+			if (!readLine()) {
+				return null;
+			}
+		} catch (IOException cause) {
+			throw new UncheckedIOException(cause);
+		}
+		Object value;
+		try {
+			if (reader instanceof NdJsonAdapter) {
+				value = ((NdJsonAdapter) reader).parse(buffer, lineStart, lineLength);
+			} else {
+				value = reader.parse(new String(buffer, lineStart, lineLength, StandardCharsets.UTF_8));
+			}
+		} catch (Exception cause) {
+			throw new IllegalArgumentException("Unable to parse line " + lineNumber + "!", cause);
+		}
+		return ParsedTree.create(value);
+	}
+
+	protected boolean readLine() throws IOException {
+		while (true) {
+
+			// Find the next line feed
+			while (scan < end) {
+				if (buffer[scan] == '\n') {
+					lineNumber++;
+					boolean found = setLine(start, scan);
+					start = ++scan;
+					if (found) {
+						return true;
+					}
+				} else {
+					scan++;
+				}
+			}
+
+			// Last line (without line feed)
+			if (eof) {
+				if (start < end) {
+					lineNumber++;
+					boolean found = setLine(start, end);
+					start = end;
+					return found;
+				}
+				return false;
+			}
+
+			// Move the unprocessed bytes to the beginning of the buffer
+			if (start > 0) {
+				System.arraycopy(buffer, start, buffer, 0, end - start);
+				end -= start;
+				scan -= start;
+				start = 0;
+			}
+
+			// Grow buffer (line is longer than the buffer)
+			if (end == buffer.length) {
+				byte[] larger = new byte[buffer.length * 2];
+				System.arraycopy(buffer, 0, larger, 0, end);
+				buffer = larger;
+			}
+
+			// Read next block
+			int count = source.read(buffer, end, buffer.length - end);
+			if (count < 0) {
+				eof = true;
+			} else {
+				end += count;
+			}
+		}
+	}
+
+	protected boolean setLine(int from, int to) {
+
+		// Trim whitespaces (and the CR of CR-LF)
+		while (from < to && buffer[from] <= ' ' && buffer[from] >= 0) {
+			from++;
+		}
+		while (to > from && buffer[to - 1] <= ' ' && buffer[to - 1] >= 0) {
+			to--;
+		}
+		lineStart = from;
+		lineLength = to - from;
+		return lineLength > 0;
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import io.datatree.Tree;
+import io.datatree.dom.TreeWriter;
+import io.datatree.dom.TreeWriterRegistry;
+
+/**
+ * <b>NDJSON / JSON LINES WRITER</b><br>
+ * <br>
+ * Description: Appends records to an OutputStream as newline-delimited JSON.
+ * Adapters which implement NdJsonAdapter (JsonJackson, JsonDSL, JsonJsoniter)
+ * use one generator and buffer for all records. Other JSON adapters serialize
+ * the records one by one. Closing the writer flushes the buffer and closes the
+ * OutputStream.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (NdJsonWriter writer = new NdJsonWriter(out)) {<br>
+ * &nbsp;&nbsp;for (Tree event : events) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;writer.write(event);<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class NdJsonWriter implements Flushable, Closeable {
+
+	// --- TARGET AND ADAPTER ---
+
+	protected final OutputStream target;
+	protected final TreeWriter writer;
+	protected final NdJsonAdapter.LineWriter lineWriter;
+
+	// --- CONSTRUCTORS ---
+
+	public NdJsonWriter(OutputStream target) throws IOException {
+		this(target, TreeWriterRegistry.getWriter(TreeWriterRegistry.JSON));
+	}
+
+	public NdJsonWriter(OutputStream target, TreeWriter writer) throws IOException {
+		this.target = target;
+		this.writer = writer;
+		if (writer instanceof NdJsonAdapter) {
+			lineWriter = ((NdJsonAdapter) writer).createLineWriter(target);
+		} else {
+			lineWriter = null;
+		}
+	}
+
+	// --- WRITE RECORD ---
+
+	public void write(Tree record) throws IOException {
+		Tree meta = record.getMeta(false);
+		write(record.asObject(), meta == null ? null : meta.asObject());
+	}
+
+	public void write(Object value) throws IOException {
+		write(value, null);
+	}
+
+	public void write(Object value, Object meta) throws IOException {
+		if (lineWriter == null) {
+			target.write(writer.toBinary(value, meta, true));
+			target.write('\n');
+		} else {
+			lineWriter.write(value, meta);
+		}
+	}
+
+	// --- FLUSH AND CLOSE ---
+
+	@Override
+	public void flush() throws IOException {
+		if (lineWriter == null) {
+			target.flush();
+		} else {
+			lineWriter.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (lineWriter == null) {
+			target.close();
+		} else {
+			lineWriter.close();
+		}
+	}
+
+}
\ No newline at end of file
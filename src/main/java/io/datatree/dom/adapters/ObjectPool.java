@@ -0,0 +1,365 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.datatree.dom.Config;
+
+/**
+ * Bounded, lock-free pool of reusable (non thread-safe) objects, like parsers
+ * and writers of the adapters. The slots of the pool are divided into
+ * stripes (a power of two, at most one per CPU core and one per slot; the
+ * slots are spread evenly), a thread first probes the stripe selected by its thread ID, so concurrent threads rarely touch the
+ * same slots. The number of pooled objects is maintained by a counter, so the
+ * bounds check is a constant-time operation. The pool is a Queue, so the
+ * "Queue" fields of the adapters keep their types. Usage:<br>
+ * <br>
+ * JSONParser parser = parsers.poll();<br>
+ * if (parser == null) {<br>
+ * &nbsp;&nbsp;parser = new JSONParser();<br>
+ * }<br>
+ * Object result = parser.parse(source);<br>
+ * parsers.offer(parser);<br>
+ * <br>
+ * The default capacity is the value of "Config.POOL_SIZE". The pool of an
+ * adapter can be resized with {@link #setCapacity(int)} (eg.
+ * "((ObjectPool&lt;?&gt;) jsonSmart.parsers).setCapacity(64)").
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class ObjectPool<T> extends AbstractQueue<T> {
+
+	// --- SLOTS (REPLACED BY SETCAPACITY) ---
+
+	protected volatile Slots<T> slots;
+
+	protected final int stripes;
+
+	// --- STATISTICS ---
+
+	protected final LongAdder hits = new LongAdder();
+
+	protected final LongAdder misses = new LongAdder();
+
+	protected final LongAdder returns = new LongAdder();
+
+	protected final LongAdder drops = new LongAdder();
+
+	// --- CONSTRUCTORS ---
+
+	public ObjectPool() {
+		this(Config.POOL_SIZE);
+	}
+
+	public ObjectPool(int capacity) {
+		this(capacity, Runtime.getRuntime().availableProcessors());
+	}
+
+	public ObjectPool(int capacity, int stripes) {
+		this.stripes = Math.max(1, stripes);
+		this.slots = new Slots<>(capacity, this.stripes);
+	}
+
+	// --- POLL / OFFER ---
+
+	/**
+	 * Retrieves and removes a pooled object.
+	 * 
+	 * @return pooled object, or {@code null} if the pool is empty
+	 */
+	@Override
+	public T poll() {
+		Slots<T> s = slots;
+		if (s.size.get() > 0) {
+			int stripe = stripe(s);
+			T item = s.pollRange(s.stripeStart(stripe), s.stripeStart(stripe + 1));
+			if (item == null && s.size.get() > 0) {
+
+				// Steal from other stripes
+				item = s.pollRange(0, s.capacity);
+			}
+			if (item != null) {
+				s.size.decrementAndGet();
+				hits.increment();
+				return item;
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Puts back an object into the pool.
+	 * 
+	 * @param item
+	 *            object to recycle
+	 * 
+	 * @return {@code false} if the pool is full (the object is dropped)
+	 */
+	@Override
+	public boolean offer(T item) {
+		if (item == null) {
+			throw new NullPointerException();
+		}
+		Slots<T> s = slots;
+		if (s.size.get() < s.capacity) {
+			int stripe = stripe(s);
+			boolean added = s.offerRange(item, s.stripeStart(stripe), s.stripeStart(stripe + 1));
+			if (!added && s.size.get() < s.capacity) {
+				added = s.offerRange(item, 0, s.capacity);
+			}
+			if (added) {
+				s.size.incrementAndGet();
+				returns.increment();
+				return true;
+			}
+		}
+		drops.increment();
+		return false;
+	}
+
+	@Override
+	public T peek() {
+		Slots<T> s = slots;
+		for (int i = 0; i < s.capacity; i++) {
+			T item = s.array.get(i);
+			if (item != null) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Removes all objects from the pool.
+	 */
+	@Override
+	public void clear() {
+		Slots<T> s = slots;
+		for (int i = 0; i < s.capacity; i++) {
+			if (s.array.getAndSet(i, null) != null) {
+				s.size.decrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the pooled objects (the iterator does not support
+	 * removal).
+	 * 
+	 * @return iterator over the pooled objects
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		Slots<T> s = slots;
+		ArrayList<T> items = new ArrayList<>(s.size.get());
+		for (int i = 0; i < s.capacity; i++) {
+			T item = s.array.get(i);
+			if (item != null) {
+				items.add(item);
+			}
+		}
+		return Collections.unmodifiableList(items).iterator();
+	}
+
+	@Override
+	public int size() {
+		return slots.size.get();
+	}
+
+	// --- CAPACITY ---
+
+	public int getCapacity() {
+		return slots.capacity;
+	}
+
+	/**
+	 * Changes the capacity of the pool. The pooled objects are moved into the
+	 * new slots (the objects over the new capacity, and the objects returned
+	 * concurrently into the previous slots are dropped).
+	 * 
+	 * @param capacity
+	 *            new capacity (0 = pooling disabled)
+	 */
+	public void setCapacity(int capacity) {
+		Slots<T> previous = slots;
+		Slots<T> next = new Slots<>(capacity, stripes);
+		slots = next;
+		for (int i = 0; i < previous.capacity; i++) {
+			T item = previous.array.getAndSet(i, null);
+			if (item != null && next.size.get() < next.capacity && next.offerRange(item, 0, next.capacity)) {
+				next.size.incrementAndGet();
+			}
+		}
+	}
+
+	// --- STATISTICS ---
+
+	/**
+	 * Returns the number of the pooled objects.
+	 * 
+	 * @return number of pooled objects
+	 */
+	public int getSize() {
+		return size();
+	}
+
+	/**
+	 * Returns the number of the successful {@link #poll()} calls.
+	 * 
+	 * @return number of reused objects
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Returns the number of the {@link #poll()} calls on an empty pool.
+	 * 
+	 * @return number of created objects
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Returns the number of the recycled objects.
+	 * 
+	 * @return number of successful {@link #offer(Object)} calls
+	 */
+	public long getReturns() {
+		return returns.sum();
+	}
+
+	/**
+	 * Returns the number of the objects dropped because the pool was full.
+	 * 
+	 * @return number of rejected {@link #offer(Object)} calls
+	 */
+	public long getDrops() {
+		return drops.sum();
+	}
+
+	public void resetStats() {
+		hits.reset();
+		misses.reset();
+		returns.reset();
+		drops.reset();
+	}
+
+	@Override
+	public String toString() {
+		return "ObjectPool [size=" + getSize() + ", capacity=" + getCapacity() + ", hits=" + getHits() + ", misses="
+				+ getMisses() + ", returns=" + getReturns() + ", drops=" + getDrops() + "]";
+	}
+
+	// --- PRIVATE UTILITIES ---
+
+	protected int stripe(Slots<T> s) {
+		int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & s.stripeMask;
+	}
+
+	/**
+	 * Returns the number of stripes (a power of two, not more than the
+	 * requested stripes and the capacity).
+	 * 
+	 * @param capacity
+	 *            capacity of the pool
+	 * @param stripes
+	 *            requested number of stripes
+	 * 
+	 * @return number of stripes
+	 */
+	protected static final int stripeCount(int capacity, int stripes) {
+		int count = 1;
+		while (count * 2 <= stripes && count * 2 <= capacity) {
+			count *= 2;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the first slot of the stripe. The slots are distributed evenly,
+	 * so every stripe has at least one slot.
+	 * 
+	 * @param stripe
+	 *            stripe index (0...count)
+	 * @param count
+	 *            number of stripes
+	 * @param capacity
+	 *            capacity of the pool
+	 * 
+	 * @return first slot of the stripe (or the capacity, for the end of the
+	 *         last stripe)
+	 */
+	protected static final int stripeStart(int stripe, int count, int capacity) {
+		return (int) ((long) stripe * capacity / count);
+	}
+
+	// --- SLOTS AND STRIPES ---
+
+	protected static final class Slots<T> {
+
+		protected final AtomicReferenceArray<T> array;
+
+		protected final int capacity;
+
+		protected final int stripeMask;
+
+		protected final AtomicInteger size = new AtomicInteger();
+
+		protected Slots(int capacity, int stripes) {
+			this.capacity = Math.max(0, capacity);
+			this.stripeMask = stripeCount(this.capacity, stripes) - 1;
+			this.array = new AtomicReferenceArray<>(Math.max(this.capacity, 1));
+		}
+
+		protected int stripeStart(int stripe) {
+			return ObjectPool.stripeStart(stripe, stripeMask + 1, capacity);
+		}
+
+		protected T pollRange(int from, int to) {
+			for (int i = from; i < to; i++) {
+				T item = array.get(i);
+				if (item != null && array.compareAndSet(i, item, null)) {
+					return item;
+				}
+			}
+			return null;
+		}
+
+		protected boolean offerRange(T item, int from, int to) {
+			for (int i = from; i < to; i++) {
+				if (array.get(i) == null && array.compareAndSet(i, null, item)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -17,7 +17,10 @@
  */
 package io.datatree.dom.adapters;
 
+import java.util.Map;
+
 import io.datatree.Tree;
+import io.datatree.dom.Config;
 
 /**
  * Parsed tree.
@@ -39,5 +42,23 @@ public class ParsedTree extends Tree {
 	public ParsedTree(Object value, Object meta) {
 		super(value, meta);
 	}
-	
+
+	/**
+	 * Creates a new Tree by a parsed value. If the value is a Map, its "_meta"
+	 * entry is removed and used as the meta structure of the Tree.
+	 * 
+	 * @param value
+	 *            parsed value (Map, List, or any other Object)
+	 * 
+	 * @return new Tree
+	 */
+	@SuppressWarnings("rawtypes")
+	public static final ParsedTree create(Object value) {
+		Object meta = null;
+		if (value instanceof Map) {
+			meta = ((Map) value).remove(Config.META);
+		}
+		return new ParsedTree(value, meta);
+	}
+
 }
@@ -77,7 +77,7 @@ public class PropertiesJackson extends AbstractJacksonTextAdapter {
 
 		// Install MongoDB / BSON serializers
 		// (Using JSON serializers)
-		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper, prettyMapper);
+		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import io.datatree.dom.builtin.AbstractAdapter;
+
+/**
+ * <b>PAYLOAD-SIZE-AWARE ROUTING ADAPTER</b><br>
+ * <br>
+ * Description: Composite adapter, which delegates small payloads to an
+ * adapter with low per-call overhead (eg. JsonDSL or JsonJsoniter), and large
+ * payloads to an adapter which performs better on large documents (eg.
+ * JsonJackson). Readers are selected by the length of the input, writers are
+ * selected by the estimated size of the output (the estimation stops at the
+ * threshold, so it does not walk the whole structure).<br>
+ * <br>
+ * If the "learn" property is {@code true}, the adapter measures both delegates
+ * per size class (powers of two) and routes each size class to the faster
+ * one. One call out of "explorationRate" calls is sent to the slower route to
+ * keep the measurements up to date. In this mode the size estimation of the
+ * writer stops at "threshold" x {@link #LEARN_LIMIT_MULTIPLIER}, so the larger
+ * structures share the same (last) size class.<br>
+ * <br>
+ * <b>Set as default:</b><br>
+ * <br>
+ * RoutingAdapter router = new RoutingAdapter(new JsonDSL(), new JsonJackson());<br>
+ * router.threshold = 16 * 1024;<br>
+ * TreeReaderRegistry.setReader("json", router);<br>
+ * TreeWriterRegistry.setWriter("json", router);
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class RoutingAdapter extends AbstractAdapter {
+
+	// --- DELEGATES ---
+
+	public final AbstractAdapter small;
+
+	public final AbstractAdapter large;
+
+	// --- PROPERTIES ---
+
+	/**
+	 * Payloads larger than (or equal to) this size (in bytes or characters)
+	 * are handled by the "large" adapter.
+	 */
+	public long threshold = 64 * 1024;
+
+	/**
+	 * Route by the measured latencies of the size classes.
+	 */
+	public boolean learn;
+
+	/**
+	 * One of "explorationRate" calls is sent to the other route (in learning
+	 * mode).
+	 */
+	public int explorationRate = 64;
+
+	/**
+	 * The size estimation of the writer stops at "threshold" multiplied by
+	 * this value (in learning mode).
+	 */
+	public static final long LEARN_LIMIT_MULTIPLIER = 16;
+
+	// --- STATISTICS OF THE SIZE CLASSES ---
+
+	protected final Statistics readerStats = new Statistics();
+
+	protected final Statistics writerStats = new Statistics();
+
+	// --- CONSTRUCTOR ---
+
+	public RoutingAdapter(AbstractAdapter small, AbstractAdapter large) {
+		this.small = small;
+		this.large = large;
+	}
+
+	// --- NAME OF THE FORMAT ---
+
+	@Override
+	public String getFormat() {
+		return small.getFormat();
+	}
+
+	// --- IMPLEMENTED WRITER METHODS ---
+
+	@Override
+	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
+		long size = estimateSize(value, getEstimationLimit());
+		boolean useLarge = route(writerStats, size);
+		AbstractAdapter adapter = useLarge ? large : small;
+		if (!learn) {
+			return adapter.toString(value, meta, pretty, insertMeta);
+		}
+		long start = System.nanoTime();
+		String result = adapter.toString(value, meta, pretty, insertMeta);
+		writerStats.record(size, useLarge, System.nanoTime() - start);
+		return result;
+	}
+
+	@Override
+	public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+		long size = estimateSize(value, getEstimationLimit());
+		boolean useLarge = route(writerStats, size);
+		AbstractAdapter adapter = useLarge ? large : small;
+		if (!learn) {
+			return adapter.toBinary(value, meta, insertMeta);
+		}
+		long start = System.nanoTime();
+		byte[] result = adapter.toBinary(value, meta, insertMeta);
+		writerStats.record(size, useLarge, System.nanoTime() - start);
+		return result;
+	}
+
+	// --- IMPLEMENTED PARSER METHODS ---
+
+	@Override
+	public Object parse(String source) throws Exception {
+		long size = source.length();
+		boolean useLarge = route(readerStats, size);
+		AbstractAdapter adapter = useLarge ? large : small;
+		if (!learn) {
+			return adapter.parse(source);
+		}
+		long start = System.nanoTime();
+		Object result = adapter.parse(source);
+		readerStats.record(size, useLarge, System.nanoTime() - start);
+		return result;
+	}
+
+	@Override
+	public Object parse(byte[] source) throws Exception {
+		long size = source.length;
+		boolean useLarge = route(readerStats, size);
+		AbstractAdapter adapter = useLarge ? large : small;
+		if (!learn) {
+			return adapter.parse(source);
+		}
+		long start = System.nanoTime();
+		Object result = adapter.parse(source);
+		readerStats.record(size, useLarge, System.nanoTime() - start);
+		return result;
+	}
+
+	// --- ROUTING ---
+
+	/**
+	 * Returns the size where the estimation of the output size stops.
+	 * 
+	 * @return "threshold", or "threshold" x {@link #LEARN_LIMIT_MULTIPLIER} in
+	 *         learning mode
+	 */
+	public long getEstimationLimit() {
+		if (!learn) {
+			return threshold;
+		}
+		long limit = threshold * LEARN_LIMIT_MULTIPLIER;
+		return limit / LEARN_LIMIT_MULTIPLIER == threshold ? limit : Long.MAX_VALUE;
+	}
+
+	protected boolean route(Statistics stats, long size) {
+		boolean useLarge = size >= threshold;
+		if (!learn) {
+			return useLarge;
+		}
+		int sizeClass = Statistics.sizeClass(size);
+		long smallNanos = stats.averages.get(sizeClass * 2);
+		long largeNanos = stats.averages.get(sizeClass * 2 + 1);
+
+		// Measure the untested route first
+		if (smallNanos == 0 || largeNanos == 0) {
+			return smallNanos != 0;
+		}
+		useLarge = largeNanos < smallNanos;
+
+		// Exploration
+		if (explorationRate > 0 && stats.calls.incrementAndGet(sizeClass) % explorationRate == 0) {
+			return !useLarge;
+		}
+		return useLarge;
+	}
+
+	/**
+	 * Returns the smallest size where the "large" adapter was faster than the
+	 * "small" adapter (in learning mode).
+	 * 
+	 * @param reader
+	 *            {@code true} = reader's threshold, {@code false} = writer's
+	 *            threshold
+	 * 
+	 * @return learned threshold, or -1 if there is not enough data
+	 */
+	public long getLearnedThreshold(boolean reader) {
+		Statistics stats = reader ? readerStats : writerStats;
+		for (int sizeClass = 0; sizeClass < Statistics.SIZE_CLASSES; sizeClass++) {
+			long smallNanos = stats.averages.get(sizeClass * 2);
+			long largeNanos = stats.averages.get(sizeClass * 2 + 1);
+			if (smallNanos != 0 && largeNanos != 0 && largeNanos < smallNanos) {
+				return sizeClass == 0 ? 0 : 1L << (sizeClass - 1);
+			}
+		}
+		return -1;
+	}
+
+	// --- SIZE ESTIMATION ---
+
+	/**
+	 * Estimates the serialized size of the structure. The estimation stops
+	 * when the size reaches the limit.
+	 * 
+	 * @param value
+	 *            structure (Map, Collection, array, etc.)
+	 * @param limit
+	 *            size limit
+	 * 
+	 * @return estimated size (in bytes / characters)
+	 */
+	public static final long estimateSize(Object value, long limit) {
+		return estimateSize(value, 0, limit);
+	}
+
+	protected static final long estimateSize(Object value, long size, long limit) {
+		if (size >= limit) {
+			return size;
+		}
+		if (value == null) {
+			return size + 4;
+		}
+		if (value instanceof String) {
+			return size + ((String) value).length() + 2;
+		}
+		if (value instanceof Map) {
+			size += 2;
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				size = estimateSize(entry.getValue(), size + String.valueOf(entry.getKey()).length() + 4, limit);
+				if (size >= limit) {
+					return size;
+				}
+			}
+			return size;
+		}
+		if (value instanceof Collection) {
+			size += 2;
+			for (Object item : (Collection<?>) value) {
+				size = estimateSize(item, size + 1, limit);
+				if (size >= limit) {
+					return size;
+				}
+			}
+			return size;
+		}
+		if (value instanceof byte[]) {
+			return size + ((byte[]) value).length * 4 / 3 + 4;
+		}
+		if (value.getClass().isArray()) {
+			size += 2;
+			int length = Array.getLength(value);
+			for (int i = 0; i < length; i++) {
+				size = estimateSize(Array.get(value, i), size + 1, limit);
+				if (size >= limit) {
+					return size;
+				}
+			}
+			return size;
+		}
+		if (value instanceof Boolean) {
+			return size + 5;
+		}
+		if (value instanceof Number) {
+			return size + 8;
+		}
+		return size + 24;
+	}
+
+	// --- LATENCY STATISTICS ---
+
+	protected static class Statistics {
+
+		protected static final int SIZE_CLASSES = 64;
+
+		/**
+		 * Moving averages of the execution times (nanoseconds) per size class
+		 * (index = size class * 2 + route).
+		 */
+		protected final AtomicLongArray averages = new AtomicLongArray(SIZE_CLASSES * 2);
+
+		protected final AtomicLongArray calls = new AtomicLongArray(SIZE_CLASSES);
+
+		protected static final int sizeClass(long size) {
+			return 64 - Long.numberOfLeadingZeros(Math.max(0, size));
+		}
+
+		protected void record(long size, boolean large, long nanos) {
+			int index = sizeClass(size) * 2 + (large ? 1 : 0);
+			long average = averages.get(index);
+
+			// Exponentially weighted moving average (lost updates are harmless)
+			averages.set(index, Math.max(1, average == 0 ? nanos : average + (nanos - average) / 8));
+		}
+
+	}
+
+}
\ No newline at end of file
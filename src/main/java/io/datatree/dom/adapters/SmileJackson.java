@@ -17,8 +17,13 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
 
 import io.datatree.dom.Priority;
 
@@ -88,4 +93,35 @@ public class SmileJackson extends AbstractJacksonBinaryAdapter {
 		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper);
 	}
 
+	// --- NON-BLOCKING (ASYNC) PARSER ---
+
+	/**
+	 * Creates a feed-style, non-blocking parser. The input can be fed in byte
+	 * chunks as they arrive, and the complete top-level Smile values are
+	 * returned as Trees.
+	 * 
+	 * @return new async parser (not thread-safe)
+	 * 
+	 * @throws IOException
+	 *             unable to create parser
+	 */
+	public AsyncTreeParser createAsyncParser() throws IOException {
+		return new AsyncTreeParser(this, mapper.getFactory().createNonBlockingByteArrayParser());
+	}
+
+	// --- LENGTH-PREFIXED FRAMES ---
+
+	@Override
+	protected JsonFactory getFrameFactory() {
+
+		// Self-contained frames (without header and back-references to the
+		// names and values of the previous records)
+		SmileFactory factory = ((SmileFactory) mapper.getFactory()).copy();
+		factory.disable(SmileGenerator.Feature.WRITE_HEADER);
+		factory.disable(SmileGenerator.Feature.CHECK_SHARED_NAMES);
+		factory.disable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES);
+		factory.disable(SmileParser.Feature.REQUIRE_HEADER);
+		return factory;
+	}
+
 }
\ No newline at end of file
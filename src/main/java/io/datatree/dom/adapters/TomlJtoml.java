@@ -18,9 +18,7 @@
 package io.datatree.dom.adapters;
 
 import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
-import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
 import me.grison.jtoml.TomlParser;
@@ -84,7 +82,7 @@ public class TomlJtoml extends AbstractTextAdapter {
 
 	// --- PARSER CACHE ---
 
-	public Queue<TomlParser> parsers = new ConcurrentLinkedQueue<>();
+	public Queue<TomlParser> parsers = new ObjectPool<>();
 
 	// --- NAME OF THE FORMAT ---
 
@@ -121,10 +119,7 @@ public class TomlJtoml extends AbstractTextAdapter {
 			parser = new SimpleTomlParser();
 		}
 		final Object result = parser.parse(source);
-		if (parsers.size() > Config.POOL_SIZE) {
-			return result;
-		}
-		parsers.add(parser);
+		parsers.offer(parser);
 		return result;
 	}
 
@@ -17,10 +17,11 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Queue;
 import java.util.TimeZone;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.moandjiezana.toml.Toml;
 import com.moandjiezana.toml.TomlWriter;
@@ -69,7 +70,7 @@ import io.datatree.dom.builtin.AbstractTextAdapter;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(20)
-public class TomlToml4j extends AbstractTextAdapter {
+public class TomlToml4j extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- OBJECT MAPPER INSTANCE ---
 
@@ -77,7 +78,7 @@ public class TomlToml4j extends AbstractTextAdapter {
 
 	// --- PARSER CACHE ---
 
-	public Queue<Toml> parsers = new ConcurrentLinkedQueue<>();
+	public Queue<Toml> parsers = new ObjectPool<>();
 
 	// --- NAME OF THE FORMAT ---
 
@@ -118,10 +119,32 @@ public class TomlToml4j extends AbstractTextAdapter {
 			parser = new Toml();
 		}
 		final Object result = parser.read(source).toMap();
-		if (parsers.size() > Config.POOL_SIZE) {
-			return result;
+		parsers.offer(parser);
+		return result;
+	}
+
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			mapper.write(input, target);
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		Toml parser = parsers.poll();
+		if (parser == null) {
+			parser = new Toml();
 		}
-		parsers.add(parser);
+
+		// Toml4j closes the Reader at the end of the document
+		final Object result = parser.read(CharStreamAdapter.keepOpen(source)).toMap();
+		parsers.offer(parser);
 		return result;
 	}
 
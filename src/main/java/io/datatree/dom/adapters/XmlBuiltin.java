@@ -17,22 +17,33 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
+import java.util.Map;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-
-import io.datatree.Tree;
+import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
 import io.datatree.dom.builtin.AbstractTextAdapter;
+import io.datatree.dom.converters.DataConverterRegistry;
 
 /**
  * <b>BUILT-IN XML ADAPTER</b><br>
@@ -47,12 +58,21 @@ import io.datatree.dom.builtin.AbstractTextAdapter;
  * Innvoke this implementation directly:<br>
  * <br>
  * Tree node = new Tree(inputString, "XmlBuiltin");<br>
- * String outputString = node.toString("XmlBuiltin");
+ * String outputString = node.toString("XmlBuiltin");<br>
+ * <br>
+ * <b>Stream repeated elements (in constant memory):</b><br>
+ * <br>
+ * try (XmlElementReader entries = xmlBuiltin.readElements(reader, "entry"))
+ * {<br>
+ * &nbsp;&nbsp;for (Tree entry : entries) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;...<br>
+ * &nbsp;&nbsp;}<br>
+ * }
  * 
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(20)
-public class XmlBuiltin extends AbstractTextAdapter {
+public class XmlBuiltin extends AbstractTextAdapter implements CharStreamAdapter, ByteStreamAdapter {
 
 	// --- CONSTANTS ---
 
@@ -66,11 +86,28 @@ public class XmlBuiltin extends AbstractTextAdapter {
 	protected static final char[] QUOT = "&quot;".toCharArray();
 	protected static final char[] X27 = "&#x27;".toCharArray();
 	protected static final char[] ITEM_BEGIN = "<item>".toCharArray();
-	protected static final char[] ITEM_END = "<item>".toCharArray();
+	protected static final char[] ITEM_END = "</item>".toCharArray();
+
+	// --- ESCAPE TABLES (ASCII CHARACTER -> ENTITY) ---
 
-	// --- COMMON XML BUILDER FACTORY ---
+	protected static final char[][] CONTENT_ESCAPES = new char[128][];
+	protected static final char[][] ATTRIBUTE_ESCAPES = new char[128][];
+
+	static {
+		CONTENT_ESCAPES['<'] = LT;
+		CONTENT_ESCAPES['>'] = GT;
+		CONTENT_ESCAPES['&'] = AMP;
+		CONTENT_ESCAPES['"'] = QUOT;
+		CONTENT_ESCAPES['\''] = X27;
+
+		ATTRIBUTE_ESCAPES['<'] = LT;
+		ATTRIBUTE_ESCAPES['&'] = AMP;
+		ATTRIBUTE_ESCAPES['"'] = QUOT;
+	}
 
-	public DocumentBuilderFactory builderFactory = DocumentBuilderFactory.newInstance();
+	// --- COMMON XML PARSER FACTORY ---
+
+	public XMLInputFactory inputFactory = XMLInputFactory.newInstance();
 
 	// --- NAME OF THE FORMAT ---
 	
@@ -82,405 +119,669 @@ public class XmlBuiltin extends AbstractTextAdapter {
 	// --- CONSTRUCTOR ---
 
 	public XmlBuiltin() {
-		builderFactory.setValidating(false);
+		inputFactory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+		inputFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
 	}
 	
-	// --- IMPLEMENTED WRITER METHOD ---
+	// --- IMPLEMENTED WRITER METHODS ---
 
 	@Override
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		if (value == null) {
 			return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<xml/>";
 		}
-		StringBuilder out = new StringBuilder(512);
-		out.append(XML_HEADER);
-		Tree node = new ParsedTree(value, meta);
-		toXML(out, pretty ? 0 : -1, insertMeta && node.isMeta() ? false : insertMeta, node);
+		StringWriter out = new StringWriter(512);
+		write(value, meta, pretty, insertMeta, out);
 		return out.toString();
 	}
 
-	// --- protected UTILITIES ---
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		try {
+			target.write(XML_HEADER);
+			if (value == null) {
+				target.write("<xml/>");
+			} else {
+				writeElement(target, pretty ? 0 : -1, insertMeta ? meta : null, null, true, value, false);
+			}
+			target.flush();
+		} catch (IOException cause) {
+			throw new IllegalArgumentException(cause);
+		}
+	}
 
-	protected static final void toXML(StringBuilder out, int indent, boolean insertMeta, Tree node) {
-		String name = node.get("_name", node.isPrimitive() ? "item" : node.getName());
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, OutputStream target) {
+		write(value, meta, pretty, insertMeta,
+				new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 8192));
+	}
 
-		// Start XML element
-		addSpaces(out, indent);
-		out.append('<');
-		String elementName;
+	// --- STREAMING XML WRITER ---
+
+	/**
+	 * Writes an element directly from the raw Map / List structure (without
+	 * Tree wrappers).
+	 * 
+	 * @param out
+	 *            output
+	 * @param indent
+	 *            indentation (-1 = compact output)
+	 * @param meta
+	 *            meta structure (only at the root element)
+	 * @param key
+	 *            key of the value in the parent structure ({@code null} or ""
+	 *            = root or array item)
+	 * @param root
+	 *            root element
+	 * @param value
+	 *            Map, Collection, array or simple value
+	 * @param lineEnd
+	 *            write line break after the closing tag
+	 * 
+	 * @throws IOException
+	 *             any I/O exception
+	 */
+	protected static final void writeElement(Writer out, int indent, Object meta, String key, boolean root,
+			Object value, boolean lineEnd) throws IOException {
+		Map<?, ?> map = value instanceof Map ? (Map<?, ?>) value : null;
+		boolean primitive = map == null && isPrimitive(value);
+
+		// Name of the XML element
+		String name = null;
+		if (map != null) {
+			Object nameValue = map.get("_name");
+			if (nameValue != null) {
+				name = asString(nameValue);
+			}
+		}
+		if (name == null) {
+			name = primitive ? "item" : key;
+		}
 		if (name == null || name.isEmpty()) {
-			elementName = node.get("_name", node.getParent() == null ? "xml" : "item");
-		} else {
-			elementName = name;
+			name = root ? "xml" : "item";
 		}
-		out.append(elementName);
+
+		// Start XML element
+		addSpaces(out, indent);
+		out.write('<');
+		out.write(name);
 
 		// Write attributes
-		for (Tree attr : node) {
-			String attrName = attr.getName();
-			if (!attrName.startsWith("@")) {
-				continue;
+		if (map != null) {
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				String attrName = String.valueOf(entry.getKey());
+				if (!attrName.startsWith("@")) {
+					continue;
+				}
+				out.write(' ');
+				out.write(attrName, 1, attrName.length() - 1);
+				out.write(EQUALS);
+				writeEscaped(out, asString(entry.getValue()), ATTRIBUTE_ESCAPES);
+				out.write('"');
 			}
-			out.append(' ');
-			out.append(attrName.substring(1));
-			out.append(EQUALS);
-			writeAttribute(out, attr.asString());
-			out.append('\"');
 		}
+		out.write('>');
 
-		// End of XML element
-		out.append('>');
-		if (indent > -1) {
-			out.append(CR_LF);
+		// Text content, array items
+		String text = null;
+		Object items = null;
+		if (primitive) {
+			text = asString(value);
+		} else if (map != null) {
+			Object textValue = map.get("_text");
+			if (textValue != null) {
+				text = asString(textValue);
+			}
+			items = map.get("_items");
 		}
 
-		// Insert metadata
-		if (insertMeta) {
-			Tree meta = node.getMeta(false);
-			if (meta != null && !meta.isEmpty()) {
-				toXML(out, indent > -1 ? 2 : -1, false, meta);
-			}
+		// The opening line break is omitted when the element has no content
+		boolean pretty = indent > -1;
+		boolean content = pretty && text == null && hasContent(map, value, items);
+		boolean hasMeta = meta instanceof Map && !((Map<?, ?>) meta).isEmpty();
+		if (pretty && (hasMeta || content)) {
+			out.write(CR_LF);
 		}
 
-		// Properties
-		int len = out.length();
-		String text = null;
-		for (Tree child : node) {
-			String childName = child.getName();
-			if (childName.isEmpty() || node.isEnumeration()) {
-				childName = "item";
-			} else {
-				if (childName.startsWith("@") || "_name".equals(childName)) {
-					continue;
-				}
-				if ("_text".equals(childName)) {
-					text = child.asString();
-					continue;
-				}
-			}
-			
-			// BASE64
-			if (!child.isPrimitive()) {
-				continue;
-			}
-			if (indent > -1) {
-				addSpaces(out, indent + 2);
-			}
-			out.append('<');
-			out.append(childName);
-			out.append('>');
-			writeXMLContent(out, String.valueOf(child.asString()));
-			out.append(BEGIN_END_TAG);
-			out.append(childName);
-			out.append('>');
-			if (indent > -1) {
-				out.append(CR_LF);
-			}
+		// Insert metadata
+		if (hasMeta) {
+			writeElement(out, pretty ? 2 : -1, null, Config.META, false, meta, content);
 		}
-		if (text == null && node.isPrimitive()) {
-			text = node.asString();
+
+		// Properties (in pretty mode they are omitted next to a text content)
+		if (!pretty || text == null) {
+			writeProperties(out, indent, map, value);
 		}
 		if (text == null) {
 
 			// Write items of array
-			Tree items = node.get("_items");
-
 			if (items != null) {
-				addChildren(out, indent, items, false);
+				writeChildren(out, indent, items, false);
 			} else {
-				addChildren(out, indent, node, true);
+				writeChildren(out, indent, value, true);
 			}
-
-			// Formatting
-			if (indent > -1) {
-				if (out.length() == len) {
-					out.setLength(len - 2);
-				} else {
-					addSpaces(out, indent);
-				}
+			if (content) {
+				addSpaces(out, indent);
 			}
 		} else {
 
-			// Formatting
-			if (indent > -1) {
-				out.setLength(len - 2);
-			}
-
 			// Text content
-			writeXMLContent(out, text.trim());
+			writeEscaped(out, text.trim(), CONTENT_ESCAPES);
 		}
 
 		// Close element
-		out.append(BEGIN_END_TAG);
-		out.append(elementName);
-		out.append('>');
-		if (indent > 0) {
-			out.append(CR_LF);
+		out.write(BEGIN_END_TAG);
+		out.write(name);
+		out.write('>');
+		if (lineEnd) {
+			out.write(CR_LF);
 		}
 	}
 
-	protected static final void addChildren(StringBuilder out, int indent, Tree node, boolean skipPrimitive) {
-		int newIndent = indent > -1 ? indent + 2 : 0;
-		for (Tree child : node) {
-			if (child.isPrimitive()) {
-				if (skipPrimitive) {
-					continue;
-				}
-				addSpaces(out, newIndent);
-				out.append(ITEM_BEGIN);
-				out.append(child.asString());
-				out.append(ITEM_END);
-				if (indent > 0) {
-					out.append(CR_LF);
+	protected static final void writeProperties(Writer out, int indent, Map<?, ?> map, Object value)
+			throws IOException {
+		if (map == null) {
+			if (!isPrimitive(value)) {
+				for (Object child : toIterable(value)) {
+					if (isPrimitive(child)) {
+						writeProperty(out, indent, "item", child);
+					}
 				}
+			}
+			return;
+		}
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			Object child = entry.getValue();
+			if (!isPrimitive(child)) {
 				continue;
 			}
-			toXML(out, indent > -1 ? newIndent : -1, false, child);
+			String childName = String.valueOf(entry.getKey());
+			if (childName.isEmpty()) {
+				childName = "item";
+			} else if (isReserved(childName)) {
+				continue;
+			}
+			writeProperty(out, indent, childName, child);
+		}
+	}
+
+	protected static final void writeProperty(Writer out, int indent, String name, Object value)
+			throws IOException {
+		if (indent > -1) {
+			addSpaces(out, indent + 2);
+		}
+		out.write('<');
+		out.write(name);
+		out.write('>');
+		writeEscaped(out, String.valueOf(asString(value)), CONTENT_ESCAPES);
+		out.write(BEGIN_END_TAG);
+		out.write(name);
+		out.write('>');
+		if (indent > -1) {
+			out.write(CR_LF);
 		}
 	}
 
-	protected static final void addSpaces(StringBuilder out, int count) {
-		if (count < 1) {
+	protected static final void writeChildren(Writer out, int indent, Object value, boolean skipPrimitive)
+			throws IOException {
+		if (isPrimitive(value)) {
 			return;
 		}
-		for (int i = 0; i < count; i++) {
-			out.append(' ');
+		int newIndent = indent > -1 ? indent + 2 : 0;
+		if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				writeChild(out, indent, newIndent, String.valueOf(entry.getKey()), entry.getValue(), skipPrimitive);
+			}
+			return;
+		}
+		for (Object child : toIterable(value)) {
+			writeChild(out, indent, newIndent, "", child, skipPrimitive);
 		}
 	}
 
-	protected static final void writeAttribute(StringBuilder builder, String fromString) {
-		if (fromString == null) {
+	protected static final void writeChild(Writer out, int indent, int newIndent, String key, Object child,
+			boolean skipPrimitive) throws IOException {
+		if (isPrimitive(child)) {
+			if (skipPrimitive) {
+				return;
+			}
+			addSpaces(out, newIndent);
+			out.write(ITEM_BEGIN);
+			writeEscaped(out, String.valueOf(asString(child)), CONTENT_ESCAPES);
+			out.write(ITEM_END);
+			if (indent > 0) {
+				out.write(CR_LF);
+			}
 			return;
 		}
-		char[] chars = fromString.toCharArray();
-		if (chars.length != 0) {
-			char c;
-			for (int n = 0; n < chars.length; n++) {
-				c = chars[n];
-				if (c == '"') {
-					builder.append(QUOT);
-				} else {
-					builder.append(c);
+		writeElement(out, indent > -1 ? newIndent : -1, null, key, false, child, indent > -1);
+	}
+
+	protected static final boolean hasContent(Map<?, ?> map, Object value, Object items) {
+		if (items != null && !isPrimitive(items) && toIterable(items).iterator().hasNext()) {
+			return true;
+		}
+		if (map == null) {
+			return !isPrimitive(value) && toIterable(value).iterator().hasNext();
+		}
+		for (Map.Entry<?, ?> entry : map.entrySet()) {
+			if (isPrimitive(entry.getValue())) {
+				String childName = String.valueOf(entry.getKey());
+				if (childName.isEmpty() || !isReserved(childName)) {
+					return true;
 				}
+			} else if (items == null) {
+				return true;
 			}
 		}
+		return false;
+	}
+
+	// --- PROTECTED UTILITIES ---
+
+	protected static final boolean isReserved(String name) {
+		return name.startsWith("@") || "_name".equals(name) || "_text".equals(name);
+	}
+
+	protected static final boolean isPrimitive(Object value) {
+		return !(value instanceof Map || value instanceof Collection || value instanceof Object[]);
+	}
+
+	protected static final Iterable<?> toIterable(Object value) {
+		if (value instanceof Map) {
+			return ((Map<?, ?>) value).values();
+		}
+		if (value instanceof Collection) {
+			return (Collection<?>) value;
+		}
+		return Arrays.asList((Object[]) value);
+	}
+
+	protected static final String asString(Object value) {
+		if (value == null || value instanceof String) {
+			return (String) value;
+		}
+		return DataConverterRegistry.convert(String.class, value);
+	}
+
+	protected static final void addSpaces(Writer out, int count) throws IOException {
+		for (int i = 0; i < count; i++) {
+			out.write(' ');
+		}
 	}
 
-	protected static final void writeXMLContent(StringBuilder builder, String fromString) {
-		if (fromString == null) {
+	protected static final void writeEscaped(Writer out, String text, char[][] escapes) throws IOException {
+		if (text == null) {
 			return;
 		}
-		char[] chars = fromString.toCharArray();
-		if (chars.length != 0) {
-			char c;
-			for (int n = 0; n < chars.length; n++) {
-				c = chars[n];
-				switch (c) {
-				case '<':
-					builder.append(LT);
-					break;
-				case '>':
-					builder.append(GT);
-					break;
-				case '&':
-					builder.append(AMP);
-					break;
-				case '"':
-					builder.append(QUOT);
-					break;
-				case '\'':
-					builder.append(X27);
-					break;
-				default:
-					builder.append(c);
-					break;
+		int len = text.length();
+		int start = 0;
+		char c;
+		char[] entity;
+		for (int i = 0; i < len; i++) {
+			c = text.charAt(i);
+			if (c < 128 && (entity = escapes[c]) != null) {
+				if (i > start) {
+					out.write(text, start, i - start);
 				}
+				out.write(entity);
+				start = i + 1;
 			}
 		}
+		if (start < len) {
+			out.write(text, start, len - start);
+		}
 	}
-	
+
 	// --- IMPLEMENTED PARSER METHOD ---
 
 	@Override
 	public Object parse(String source) throws Exception {
-		DocumentBuilder builder = builderFactory.newDocumentBuilder();
-		InputSource is = new InputSource(new StringReader(source));
-		Node node = builder.parse(is).getFirstChild();
-		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
-		return copyChildren("xml", node, map);
+		return parse(new StringReader(source));
 	}
 
-	// --- RECURSIVE STRUCTURE BUILDER ---
+	@Override
+	public Object parse(Reader source) throws Exception {
+		return parse(inputFactory.createXMLStreamReader(source));
+	}
 
-	protected static final Object copyChildren(String parentName, Node source, LinkedHashMap<String, Object> map) {
+	@Override
+	public Object parse(InputStream source) throws Exception {
+		return parse(inputFactory.createXMLStreamReader(source));
+	}
 
-		// Node name
-		LinkedList<Object> array = null;
-		boolean isArray = isArray(source);
-		String name = source.getNodeName();
-		if (name != null && !parentName.equals(name)) {
-			map.put("_name", name);
-		}
-
-		// Copy attributes
-		NamedNodeMap attributes = source.getAttributes();
-		if (attributes != null) {
-			int max = attributes.getLength();
-			for (int i = 0; i < max; i++) {
-				Node attribute = attributes.item(i);
-				name = attribute.getNodeName();
-				String value = attribute.getNodeValue();
-				if (name != null && value != null) {
-					map.put('@' + name, value);
+	protected Object parse(XMLStreamReader reader) throws Exception {
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+					return readElement(reader, true).toValue("xml");
 				}
 			}
+			throw new IllegalArgumentException("Missing root element!");
+		} finally {
+			reader.close();
 		}
+	}
 
-		// JSON array?
-		if (isArray) {
-			array = new LinkedList<>();
-			if (hasProperties(source)) {
-				map.put("_items", array);
+	// --- ELEMENT STREAMING ---
+
+	/**
+	 * Creates a lazy iterator over the child elements of the root element.
+	 * Only the current element is kept in memory. Elements with simple text
+	 * content are returned as primitive values.
+	 * 
+	 * @param source
+	 *            input (closed by the XmlElementReader)
+	 * 
+	 * @return element reader
+	 * 
+	 * @throws XMLStreamException
+	 *             invalid XML header
+	 */
+	public XmlElementReader readElements(Reader source) throws XMLStreamException {
+		return readElements(source, null);
+	}
+
+	/**
+	 * Creates a lazy iterator over the elements with the specified name (at
+	 * any depth, eg. "item" in an RSS feed). Only the current element is kept
+	 * in memory.
+	 * 
+	 * @param source
+	 *            input (closed by the XmlElementReader)
+	 * @param elementName
+	 *            qualified name of the elements (or {@code null} = children of
+	 *            the root element)
+	 * 
+	 * @return element reader
+	 * 
+	 * @throws XMLStreamException
+	 *             invalid XML header
+	 */
+	public XmlElementReader readElements(Reader source, String elementName) throws XMLStreamException {
+		return new XmlElementReader(inputFactory.createXMLStreamReader(source), source, elementName);
+	}
+
+	// --- SINGLE-PASS STRUCTURE BUILDER ---
+
+	/**
+	 * Reads an element (the reader must be on its START_ELEMENT event) until
+	 * the matching END_ELEMENT event. Produces the same structure as the
+	 * former DOM-based builder: repeated child elements are collected into a
+	 * List ("_items"), attributes are stored with "@" prefix, and the text
+	 * content of elements with attributes is stored as "_text".
+	 * 
+	 * @param reader
+	 *            StAX reader
+	 * @param root
+	 *            root element
+	 * 
+	 * @return parsed element
+	 * 
+	 * @throws XMLStreamException
+	 *             invalid XML
+	 */
+	protected static final XmlElement readElement(XMLStreamReader reader, boolean root)
+			throws XMLStreamException {
+		XmlElement element = new XmlElement(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+
+		// Attributes and namespace declarations
+		int attributeCount = reader.getAttributeCount();
+		int namespaceCount = reader.getNamespaceCount();
+		int max = attributeCount + namespaceCount;
+		String[] names = null;
+		String[] values = null;
+		if (max > 0) {
+			names = new String[max];
+			values = new String[max];
+			for (int i = 0; i < attributeCount; i++) {
+				names[i] = qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+				values[i] = reader.getAttributeValue(i);
+			}
+			for (int i = 0; i < namespaceCount; i++) {
+				String prefix = reader.getNamespacePrefix(i);
+				names[attributeCount + i] = prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix;
+				values[attributeCount + i] = reader.getNamespaceURI(i);
+			}
+
+			// Sort by name (same order as in the DOM)
+			for (int i = 1; i < max; i++) {
+				String name = names[i];
+				String value = values[i];
+				int j = i - 1;
+				while (j >= 0 && names[j].compareTo(name) > 0) {
+					names[j + 1] = names[j];
+					values[j + 1] = values[j];
+					j--;
+				}
+				names[j + 1] = name;
+				values[j + 1] = value;
 			}
 		}
 
-		// Loop on children
-		NodeList children = source.getChildNodes();
-		if (children != null) {
-			int max = children.getLength();
-			for (int i = 0; i < max; i++) {
-				Node child = children.item(i);
-				if (child.getNodeType() != Node.ELEMENT_NODE) {
-					continue;
+		// Child nodes
+		ArrayList<XmlElement> children = null;
+		HashSet<String> childNames = null;
+		boolean isArray = false;
+		String text = null;
+		StringBuilder textBuilder = null;
+		int nodes = 0;
+		int nonTextNodes = 0;
+		boolean lastText = false;
+		boolean allLeaf = true;
+		boolean allItem = true;
+		while (true) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				break;
+			}
+			switch (event) {
+			case XMLStreamConstants.START_ELEMENT:
+				XmlElement child = readElement(reader, false);
+				nodes++;
+				nonTextNodes++;
+				lastText = false;
+				if (child.value == null) {
+					allLeaf = false;
+				} else if (allItem && !"item".equals(child.name)) {
+					allItem = false;
 				}
-				String value = getTextValue(child);
-				if (value != null && !hasProperties(child)) {
-
-					// Property
-					name = child.getNodeName();
-					if (name != null) {
-						if (isArray) {
-							putWithType(null, array, name, value);
-						} else {
-							putWithType(map, null, name, value);
+				if (children == null) {
+					children = new ArrayList<>();
+					text = null;
+					textBuilder = null;
+				} else if (!isArray) {
+					isArray = containsName(children, childNames, child.name);
+					if (!isArray && children.size() > 7) {
+						if (childNames == null) {
+							childNames = new HashSet<>();
+							for (XmlElement previous : children) {
+								childNames.add(previous.name);
+							}
 						}
+						childNames.add(child.name);
 					}
+				}
+				children.add(child);
+				break;
 
-				} else {
-
-					// Substructure
-					LinkedHashMap<String, Object> subTree = new LinkedHashMap<>();
-					if (isArray) {
-						name = "";
-						array.add(subTree);
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.CDATA:
+				if (event == XMLStreamConstants.CDATA) {
+					nodes++;
+					nonTextNodes++;
+					allLeaf = false;
+					lastText = false;
+				} else if (!lastText) {
+					nodes++;
+					lastText = true;
+				}
+				if (children == null) {
+					if (text == null) {
+						text = reader.getText();
 					} else {
-						name = child.getNodeName();
-						map.put(name, subTree);
-					}
-					String text = getTextValue(child);
-					if (text != null && !text.isEmpty()) {
-						subTree.put("_text", text);
-					}
-
-					// Recursive copy
-					Object result = copyChildren(name, child, subTree);
-					if (result != subTree) {
-						map.put(name, result);
+						if (textBuilder == null) {
+							textBuilder = new StringBuilder(text);
+						}
+						textBuilder.append(reader.getTextCharacters(), reader.getTextStart(),
+								reader.getTextLength());
 					}
 				}
+				break;
+
+			case XMLStreamConstants.COMMENT:
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				nodes++;
+				nonTextNodes++;
+				allLeaf = false;
+				lastText = false;
+				break;
+
+			default:
+				break;
 			}
 		}
-		return map.isEmpty() && array != null ? array : map;
-	}
 
-	// --- XML DOM HELPERS ---
+		// Text value (null if the element has child elements)
+		if (children == null) {
+			element.value = textBuilder == null ? (text == null ? "" : text) : textBuilder.toString();
+		}
+		element.properties = max > 0 || (nonTextNodes > 0 && allLeaf && !(nodes > 1 && allItem));
 
-	protected static final boolean isArray(Node node) {
-		NodeList children = node.getChildNodes();
-		if (children != null) {
-			HashSet<String> names = new HashSet<String>();
-			int max = children.getLength();
-			for (int i = 0; i < max; i++) {
-				Node child = children.item(i);
-				if (child.getNodeType() == Node.ELEMENT_NODE) {
-					String name = child.getNodeName();
-					if (names.contains(name)) {
-						return true;
-					}
-					names.add(name);
-				}
+		// Simple property (the parent stores the value)
+		if (!root && element.value != null && !element.properties) {
+			return element;
+		}
+
+		// Substructure
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		if (!root && element.value != null && !element.value.isEmpty()) {
+			map.put("_text", element.value);
+		}
+
+		// The parent removes the name when it is the key of the element
+		map.put("_name", element.name);
+		for (int i = 0; i < max; i++) {
+			if (names[i] != null && values[i] != null) {
+				map.put('@' + names[i], values[i]);
 			}
 		}
-		return false;
-	}
 
-	protected static final boolean hasProperties(Node node) {
-		NamedNodeMap attributes = node.getAttributes();
-		if (attributes != null && attributes.getLength() > 0) {
-			return true;
+		// JSON array?
+		LinkedList<Object> array = null;
+		if (isArray) {
+			array = new LinkedList<>();
+			if (element.properties) {
+				map.put("_items", array);
+			}
 		}
-		NodeList children = node.getChildNodes();
+
+		// Copy children
 		if (children != null) {
-			int max = children.getLength();
-			boolean textOnly = false;
-			boolean allItem = true;
-			for (int i = 0; i < max; i++) {
-				Node child = children.item(i);
-				if (child.getNodeType() == Node.TEXT_NODE) {
-					continue;
-				}
-				String value = getTextValue(child);
-				if (value != null) {
-					textOnly = true;
-					if (allItem && !"item".equals(child.getNodeName())) {
-						allItem = false;
+			for (XmlElement child : children) {
+				if (child.map == null) {
+					if (isArray) {
+						putWithType(null, array, child.name, child.value);
+					} else {
+						putWithType(map, null, child.name, child.value);
 					}
+				} else if (isArray) {
+					array.add(child.toValue(""));
 				} else {
-					textOnly = false;
-					break;
+					map.put(child.name, child.toValue(child.name));
 				}
 			}
-			if (textOnly && !(max > 1 && allItem)) {
+		}
+		element.map = map;
+		element.array = array;
+		return element;
+	}
+
+	protected static final boolean containsName(ArrayList<XmlElement> children, HashSet<String> childNames,
+			String name) {
+		if (childNames != null) {
+			return childNames.contains(name);
+		}
+		for (XmlElement child : children) {
+			if (child.name.equals(name)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
-	protected static final String getTextValue(Node node) {
-		if (node.getNodeType() == Node.ELEMENT_NODE) {
-			NodeList subChildren = node.getChildNodes();
-			if (subChildren != null) {
-				int subMax = subChildren.getLength();
-				StringBuilder tmp = new StringBuilder(32);
-				for (int j = 0; j < subMax; j++) {
-					Node subChild = subChildren.item(j);
-					short type = subChild.getNodeType();
-					if (type == Node.TEXT_NODE || type == Node.CDATA_SECTION_NODE) {
-						tmp.append(subChild.getNodeValue());
-					} else if (type == Node.ELEMENT_NODE) {
-						return null;
-					}
-				}
-				return tmp.toString();
+	protected static final String qualifiedName(String prefix, String localName) {
+		if (prefix == null || prefix.isEmpty()) {
+			return localName;
+		}
+		return prefix + ':' + localName;
+	}
+
+	// --- PARSED ELEMENT ---
+
+	protected static final class XmlElement {
+
+		protected final String name;
+
+		/**
+		 * Text content (or {@code null} if the element has child elements).
+		 */
+		protected String value;
+
+		/**
+		 * Element has attributes or simple properties.
+		 */
+		protected boolean properties;
+
+		/**
+		 * Structure of the element (or {@code null} if the element is a
+		 * simple property).
+		 */
+		protected LinkedHashMap<String, Object> map;
+		protected LinkedList<Object> array;
+
+		protected XmlElement(String name) {
+			this.name = name;
+		}
+
+		/**
+		 * Returns the structure of the element, stored under the specified
+		 * key.
+		 * 
+		 * @param key
+		 *            key in the parent structure ("" = array item)
+		 * 
+		 * @return Map, List or simple value
+		 */
+		protected Object toValue(String key) {
+			if (map == null) {
+				return typedValue(value);
+			}
+			if (key.equals(name)) {
+				map.remove("_name");
 			}
+			return map.isEmpty() && array != null ? array : map;
 		}
-		return null;
+
 	}
 
+	// --- VALUE CONVERTERS ---
+
 	protected static final void putWithType(LinkedHashMap<String, Object> map, LinkedList<Object> list, String name,
 			String value) {
+		putOrAdd(map, list, name, typedValue(value));
+	}
+
+	protected static final Object typedValue(String value) {
 		if (value == null || value.isEmpty()) {
-			putOrAdd(map, list, name, value);
-			return;
+			return value;
 		}
 		if ("true".equals(value)) {
-			putOrAdd(map, list, name, true);
-			return;
+			return true;
 		}
 		if ("false".equals(value)) {
-			putOrAdd(map, list, name, false);
-			return;
+			return false;
 		}
 		boolean isNumeric = true;
 		boolean isInteger = true;
@@ -503,13 +804,11 @@ public class XmlBuiltin extends AbstractTextAdapter {
 		}
 		if (isNumeric) {
 			if (isInteger) {
-				putOrAdd(map, list, name, Long.parseLong(value));
-			} else {
-				putOrAdd(map, list, name, Double.parseDouble(value));
+				return Long.parseLong(value);
 			}
-			return;
+			return Double.parseDouble(value);
 		}
-		putOrAdd(map, list, name, value);
+		return value;
 	}
 
 	protected static final void putOrAdd(LinkedHashMap<String, Object> map, LinkedList<Object> list, String name,
@@ -0,0 +1,154 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import io.datatree.Tree;
+import io.datatree.dom.adapters.XmlBuiltin.XmlElement;
+
+/**
+ * <b>XML ELEMENT READER</b><br>
+ * <br>
+ * Description: Lazily reads repeated elements of a large XML document (eg.
+ * the entries of a feed), one Tree per element (see XmlBuiltin.readElements).
+ * The elements are converted to the same structure as the array items of the
+ * XmlBuiltin parser. Only the current element is kept in memory. Closing the
+ * reader closes the Reader.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (XmlElementReader entries = xmlBuiltin.readElements(reader, "entry"))
+ * {<br>
+ * &nbsp;&nbsp;for (Tree entry : entries) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;System.out.println(entry.get("title", ""));<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class XmlElementReader implements Iterator<Tree>, Iterable<Tree>, Closeable {
+
+	// --- SOURCE ---
+
+	protected final XMLStreamReader reader;
+	protected final Closeable source;
+
+	// --- ELEMENT FILTER ---
+
+	protected final String elementName;
+	protected int depth;
+
+	// --- NEXT ELEMENT ---
+
+	protected Tree next;
+	protected boolean finished;
+
+	// --- CONSTRUCTOR ---
+
+	/**
+	 * Creates an element reader.
+	 * 
+	 * @param reader
+	 *            StAX reader
+	 * @param source
+	 *            underlying stream (or {@code null})
+	 * @param elementName
+	 *            qualified name of the elements (or {@code null} = children of
+	 *            the root element)
+	 */
+	public XmlElementReader(XMLStreamReader reader, Closeable source, String elementName) {
+		this.reader = reader;
+		this.source = source;
+		this.elementName = elementName;
+	}
+
+	// --- ITERATOR ---
+
+	@Override
+	public Iterator<Tree> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (next == null && !finished) {
+			next = readElement();
+			finished = next == null;
+		}
+		return next != null;
+	}
+
+	@Override
+	public Tree next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		Tree element = next;
+		next = null;
+		return element;
+	}
+
+	// --- READ ELEMENT ---
+
+	protected Tree readElement() {
+		try {
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+					if (elementName == null ? depth == 2
+							: elementName.equals(XmlBuiltin.qualifiedName(reader.getPrefix(), reader.getLocalName()))) {
+						XmlElement element = XmlBuiltin.readElement(reader, false);
+						depth--;
+						return new ParsedTree(element.toValue(""), null);
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+		} catch (XMLStreamException cause) {
+			throw new IllegalArgumentException("Unable to parse XML element (line "
+					+ reader.getLocation().getLineNumber() + ")!", cause);
+		}
+		return null;
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		try {
+			reader.close();
+		} catch (XMLStreamException cause) {
+			throw new IOException(cause);
+		} finally {
+			if (source != null) {
+				source.close();
+			}
+		}
+	}
+
+}
\ No newline at end of file
@@ -75,7 +75,7 @@ public class XmlJackson extends AbstractJacksonTextAdapter {
 		super(new XmlMapper());
 
 		// Install MongoDB / BSON serializers
-		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper, prettyMapper);
+		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper);
 	}
 
 }
@@ -17,6 +17,8 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.Reader;
+import java.io.Writer;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
@@ -75,7 +77,7 @@ import io.datatree.dom.converters.DataConverterRegistry;
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(30)
-public class XmlXStream extends AbstractTextAdapter {
+public class XmlXStream extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- COMMON MAPPER INSTANCE ---
 
@@ -156,6 +158,23 @@ public class XmlXStream extends AbstractTextAdapter {
 		return mapper.fromXML(source);
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			mapper.toXML(input, target);
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		return mapper.fromXML(source);
+	}
+
 	// --- ADD CUSTOM SERIALIZER ---
 
 	public static final <TYPE> void addSerializer(XStream mapper, Class<TYPE> type, Function<TYPE, String> function) {
@@ -0,0 +1,106 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+
+import io.datatree.Tree;
+
+/**
+ * <b>YAML DOCUMENT READER</b><br>
+ * <br>
+ * Description: Lazily reads the "---" separated documents of a YAML stream,
+ * one Tree per document (see YamlSnakeYaml.readAll). Only the current document
+ * is kept in memory. Closing the reader closes the Reader.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (YamlDocumentReader documents = yamlSnakeYaml.readAll(reader)) {<br>
+ * &nbsp;&nbsp;for (Tree document : documents) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;System.out.println(document.get("kind", ""));<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class YamlDocumentReader implements Iterator<Tree>, Iterable<Tree>, Closeable {
+
+	// --- SOURCE ---
+
+	protected final Iterator<Object> documents;
+	protected final Closeable source;
+
+	// --- DOCUMENT COUNTER ---
+
+	protected long documentNumber;
+
+	// --- CONSTRUCTOR ---
+
+	/**
+	 * Creates a document reader.
+	 * 
+	 * @param documents
+	 *            lazy document iterator (eg. Yaml.loadAll(reader).iterator())
+	 * @param source
+	 *            underlying stream (or {@code null})
+	 */
+	public YamlDocumentReader(Iterator<Object> documents, Closeable source) {
+		this.documents = documents;
+		this.source = source;
+	}
+
+	// --- ITERATOR ---
+
+	@Override
+	public Iterator<Tree> iterator() {
+		return this;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return documents.hasNext();
+	}
+
+	@Override
+	public Tree next() {
+		Object value = documents.next();
+		documentNumber++;
+		return ParsedTree.create(value);
+	}
+
+	/**
+	 * Returns the index of the last returned document.
+	 * 
+	 * @return document number (1-based)
+	 */
+	public long getDocumentNumber() {
+		return documentNumber;
+	}
+
+	// --- CLOSE ---
+
+	@Override
+	public void close() throws IOException {
+		if (source != null) {
+			source.close();
+		}
+	}
+
+}
\ No newline at end of file
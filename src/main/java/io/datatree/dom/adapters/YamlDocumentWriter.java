@@ -0,0 +1,104 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree.dom.adapters;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+import io.datatree.Tree;
+
+/**
+ * <b>YAML DOCUMENT WRITER</b><br>
+ * <br>
+ * Description: Appends "---" separated documents to a YAML stream (see
+ * YamlSnakeYaml.createDocumentWriter). The documents are serialized directly
+ * into the Writer, one by one. Closing the writer closes the Writer.<br>
+ * <br>
+ * <b>Usage:</b><br>
+ * <br>
+ * try (YamlDocumentWriter writer = yamlSnakeYaml.createDocumentWriter(out,
+ * true)) {<br>
+ * &nbsp;&nbsp;for (Tree manifest : manifests) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;writer.write(manifest);<br>
+ * &nbsp;&nbsp;}<br>
+ * }
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class YamlDocumentWriter implements Flushable, Closeable {
+
+	// --- CONSTANTS ---
+
+	protected static final String DOCUMENT_START = "---\n";
+
+	// --- TARGET AND ADAPTER ---
+
+	protected final YamlSnakeYaml adapter;
+	protected final Writer target;
+	protected final boolean pretty;
+
+	// --- DOCUMENT COUNTER ---
+
+	protected long documentCount;
+
+	// --- CONSTRUCTOR ---
+
+	public YamlDocumentWriter(YamlSnakeYaml adapter, Writer target, boolean pretty) {
+		this.adapter = adapter;
+		this.target = target;
+		this.pretty = pretty;
+	}
+
+	// --- WRITE DOCUMENT ---
+
+	public void write(Tree document) throws IOException {
+		Tree meta = document.getMeta(false);
+		write(document.asObject(), meta == null ? null : meta.asObject());
+	}
+
+	public void write(Object value) throws IOException {
+		write(value, null);
+	}
+
+	public void write(Object value, Object meta) throws IOException {
+		if (documentCount > 0) {
+			target.write(DOCUMENT_START);
+		}
+		adapter.write(value, meta, pretty, true, target);
+		documentCount++;
+	}
+
+	public long getDocumentCount() {
+		return documentCount;
+	}
+
+	// --- FLUSH AND CLOSE ---
+
+	@Override
+	public void flush() throws IOException {
+		target.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		target.close();
+	}
+
+}
\ No newline at end of file
@@ -79,7 +79,7 @@ public class YamlJackson extends AbstractJacksonTextAdapter {
 		
 		// Install MongoDB / BSON serializers
 		// (Using JSON serializers)
-		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper, prettyMapper);
+		tryToAddSerializers("io.datatree.dom.adapters.JsonJacksonBsonSerializers", mapper);
 	}
 	
 }
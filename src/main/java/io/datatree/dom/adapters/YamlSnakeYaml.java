@@ -17,11 +17,15 @@
  */
 package io.datatree.dom.adapters;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
-import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -34,6 +38,7 @@ import org.yaml.snakeyaml.nodes.Tag;
 import org.yaml.snakeyaml.representer.Represent;
 import org.yaml.snakeyaml.representer.Representer;
 
+import io.datatree.Tree;
 import io.datatree.dom.BASE64;
 import io.datatree.dom.Config;
 import io.datatree.dom.Priority;
@@ -72,12 +77,20 @@ import io.datatree.dom.converters.DataConverterRegistry;
  * Innvoke this implementation directly:<br>
  * <br>
  * Tree node = new Tree(inputString, "YamlSnakeYaml");<br>
- * String outputString = node.toString("YamlSnakeYaml");
+ * String outputString = node.toString("YamlSnakeYaml");<br>
+ * <br>
+ * <b>Multi-document YAML streams:</b><br>
+ * <br>
+ * try (YamlDocumentReader documents = yamlSnakeYaml.readAll(reader)) {<br>
+ * &nbsp;&nbsp;for (Tree document : documents) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;...<br>
+ * &nbsp;&nbsp;}<br>
+ * }
  * 
  * @author Andras Berkes [andras.berkes@programmer.net]
  */
 @Priority(10)
-public class YamlSnakeYaml extends AbstractTextAdapter {
+public class YamlSnakeYaml extends AbstractTextAdapter implements CharStreamAdapter {
 
 	// --- MAPPER INSTANCES ---
 
@@ -153,9 +166,9 @@ public class YamlSnakeYaml extends AbstractTextAdapter {
 	public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
 		return toString(value, meta, insertMeta, (input) -> {
 			if (pretty) {
-				return prettyMapper.dumpAll(Collections.singleton(input).iterator());
+				return prettyMapper.dump(input);
 			}
-			return mapper.dumpAll(Collections.singleton(input).iterator());
+			return mapper.dump(input);
 		});
 	}
 
@@ -166,6 +179,84 @@ public class YamlSnakeYaml extends AbstractTextAdapter {
 		return mapper.load(source);
 	}
 
+	// --- STREAMING WRITER ---
+
+	@Override
+	public void write(Object value, Object meta, boolean pretty, boolean insertMeta, Writer target) {
+		toString(value, meta, insertMeta, (input) -> {
+			if (pretty) {
+				prettyMapper.dump(input, target);
+			} else {
+				mapper.dump(input, target);
+			}
+			return null;
+		});
+	}
+
+	// --- STREAMING PARSER ---
+
+	@Override
+	public Object parse(Reader source) throws Exception {
+		return mapper.load(source);
+	}
+
+	// --- MULTI-DOCUMENT STREAMING ---
+
+	/**
+	 * Creates a lazy iterator over the "---" separated documents of a YAML
+	 * stream. The documents are parsed one by one, only the current document
+	 * is kept in memory.
+	 * 
+	 * @param source
+	 *            input (closed by the YamlDocumentReader)
+	 * 
+	 * @return document reader
+	 */
+	public YamlDocumentReader readAll(Reader source) {
+		return new YamlDocumentReader(mapper.loadAll(source).iterator(), source);
+	}
+
+	/**
+	 * Creates a writer which appends "---" separated documents to the Writer.
+	 * 
+	 * @param target
+	 *            output (closed by the YamlDocumentWriter)
+	 * @param pretty
+	 *            block-style (pretty) output
+	 * 
+	 * @return document writer
+	 */
+	public YamlDocumentWriter createDocumentWriter(Writer target, boolean pretty) {
+		return new YamlDocumentWriter(this, target, pretty);
+	}
+
+	/**
+	 * Writes all documents of the Iterator (Trees or raw structures) as one
+	 * YAML stream. The documents are pulled from the Iterator one by one.
+	 * 
+	 * @param documents
+	 *            documents to write
+	 * @param pretty
+	 *            block-style (pretty) output
+	 * @param target
+	 *            output (remains open)
+	 */
+	public void writeAll(Iterator<?> documents, boolean pretty, Writer target) {
+		YamlDocumentWriter writer = createDocumentWriter(target, pretty);
+		try {
+			while (documents.hasNext()) {
+				Object document = documents.next();
+				if (document instanceof Tree) {
+					writer.write((Tree) document);
+				} else {
+					writer.write(document);
+				}
+			}
+		} catch (IOException cause) {
+			throw new UncheckedIOException(cause);
+		}
+	}
+
 	// --- ADD CUSTOM SERIALIZER ---
 
 	public static final <T> void addSerializer(ExtensibleRepresenter representer, Class<T> type,
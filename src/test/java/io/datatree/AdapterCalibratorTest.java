@@ -0,0 +1,157 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.datatree.dom.TreeReader;
+import io.datatree.dom.TreeReaderRegistry;
+import io.datatree.dom.TreeWriter;
+import io.datatree.dom.TreeWriterRegistry;
+import io.datatree.dom.adapters.AdapterCalibrator;
+import io.datatree.dom.adapters.AdapterCalibrator.Result;
+import io.datatree.dom.adapters.JsonJackson;
+import junit.framework.TestCase;
+
+/**
+ * AdapterCalibratorTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AdapterCalibratorTest extends TestCase {
+
+	@Test
+	public void testCalibration() throws Exception {
+		TreeReader reader = TreeReaderRegistry.getReader("yaml");
+		TreeWriter writer = TreeWriterRegistry.getWriter("yaml");
+		try {
+			AdapterCalibrator calibrator = new AdapterCalibrator();
+			calibrator.warmupMillis = 10;
+			calibrator.measureMillis = 20;
+
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("a", "b");
+			map.put("c", 3);
+			calibrator.sample("yaml", map);
+			calibrator.sample("yaml", "x: 1\r\ny: true\r\n");
+			Result result = calibrator.calibrate("yaml");
+
+			assertNotNull(result.reader);
+			assertNotNull(result.writer);
+			assertTrue(result.readerNanos.containsKey("YamlJackson"));
+			assertTrue(result.writerNanos.containsKey("YamlSnakeYaml"));
+			assertEquals(result.bestReaderNanos, (long) result.readerNanos.get(result.reader.getClass().getSimpleName()));
+			assertSame(result.reader, TreeReaderRegistry.getReader("yaml"));
+			assertSame(result.writer, TreeWriterRegistry.getWriter("yaml"));
+
+			// No samples
+			try {
+				calibrator.calibrate("json");
+				fail();
+			} catch (IllegalStateException expected) {
+			}
+		} finally {
+			TreeReaderRegistry.setReader("yaml", reader);
+			TreeWriterRegistry.setWriter("yaml", writer);
+		}
+	}
+
+	@Test
+	public void testLossyAdapters() throws Exception {
+		JsonJackson reference = new JsonJackson();
+		TreeReaderRegistry.setReader("lossy", reference);
+		TreeWriterRegistry.setWriter("lossy", reference);
+		AdapterCalibrator.CANDIDATES.put("lossy",
+				new String[] { "JsonJackson", "io.datatree.AdapterCalibratorTest$LossyAdapter" });
+		try {
+			AdapterCalibrator calibrator = new AdapterCalibrator();
+			calibrator.warmupMillis = 10;
+			calibrator.measureMillis = 20;
+			calibrator.register = false;
+
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("a", "b");
+			map.put("c", 3);
+			map.put("d", Arrays.asList(1, 2, 3));
+			Result result = calibrator.calibrate("lossy", map);
+
+			// The lossy reader and writer are never selected
+			assertEquals("JsonJackson", result.reader.getClass().getSimpleName());
+			assertEquals("JsonJackson", result.writer.getClass().getSimpleName());
+			assertEquals(Long.MAX_VALUE, (long) result.readerNanos.get("LossyAdapter"));
+			assertEquals(Long.MAX_VALUE, (long) result.writerNanos.get("LossyAdapter"));
+		} finally {
+			AdapterCalibrator.CANDIDATES.remove("lossy");
+		}
+	}
+
+	@Test
+	public void testIsEqual() throws Exception {
+		LinkedHashMap<String, Object> map1 = new LinkedHashMap<>();
+		map1.put("a", 3);
+		map1.put("b", Arrays.asList(1.5, "x"));
+		LinkedHashMap<String, Object> map2 = new LinkedHashMap<>();
+		map2.put("b", new Object[] { 1.5f, "x" });
+		map2.put("a", 3L);
+		assertTrue(AdapterCalibrator.isEqual(map1, map2));
+
+		// Reordered list
+		map2.put("b", Arrays.asList("x", 1.5));
+		assertFalse(AdapterCalibrator.isEqual(map1, map2));
+
+		// Type dropped
+		map2.put("b", Arrays.asList(1.5, "x"));
+		map2.put("a", "3");
+		assertFalse(AdapterCalibrator.isEqual(map1, map2));
+	}
+
+	/**
+	 * Drops the last entry of the Maps (while reading and writing).
+	 */
+	public static class LossyAdapter extends JsonJackson {
+
+		@Override
+		public Object parse(String source) throws Exception {
+			return dropLast(super.parse(source));
+		}
+
+		@Override
+		public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
+			return super.toString(dropLast(value), meta, pretty, insertMeta);
+		}
+
+		protected static final Object dropLast(Object value) {
+			if (value instanceof Map) {
+				LinkedHashMap<Object, Object> copy = new LinkedHashMap<>((Map<?, ?>) value);
+				Object last = null;
+				for (Object key : copy.keySet()) {
+					last = key;
+				}
+				copy.remove(last);
+				return copy;
+			}
+			return value;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,78 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.AssertionFailedError;
+
+/**
+ * Runs the same test on a list of adapters. Every adapter is tested, even if
+ * a previous adapter has failed. The failures are reported together at the
+ * end (the stack traces are attached as suppressed exceptions).
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public final class AdapterTestRunner {
+
+	private AdapterTestRunner() {
+	}
+
+	@FunctionalInterface
+	public interface AdapterTest<T> {
+
+		/**
+		 * Tests one adapter.
+		 * 
+		 * @param adapter
+		 *            adapter to test
+		 * @param name
+		 *            simple class name of the adapter (for the assertion
+		 *            messages)
+		 * 
+		 * @throws Exception
+		 *             any exception
+		 */
+		void test(T adapter, String name) throws Exception;
+
+	}
+
+	public static final <T> void testAll(List<? extends T> adapters, AdapterTest<T> test) {
+		List<String> failed = new ArrayList<>();
+		List<Throwable> causes = new ArrayList<>();
+		for (T adapter : adapters) {
+			String name = adapter.getClass().getSimpleName();
+			try {
+				test.test(adapter, name);
+			} catch (Throwable cause) {
+				failed.add(name + " (" + cause + ")");
+				causes.add(cause);
+			}
+		}
+		if (!failed.isEmpty()) {
+			AssertionFailedError error = new AssertionFailedError(
+					failed.size() + " of " + adapters.size() + " adapters failed: " + failed);
+			for (Throwable cause : causes) {
+				error.addSuppressed(cause);
+			}
+			throw error;
+		}
+	}
+
+}
\ No newline at end of file
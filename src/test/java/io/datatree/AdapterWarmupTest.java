@@ -0,0 +1,91 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.AdapterWarmup;
+import io.datatree.dom.adapters.AdapterWarmup.Result;
+import io.datatree.dom.adapters.IonIon;
+import junit.framework.TestCase;
+
+/**
+ * AdapterWarmupTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AdapterWarmupTest extends TestCase {
+
+	@Test
+	public void testWarmup() throws Exception {
+		IonIon ion = new IonIon();
+		AdapterWarmup warmup = new AdapterWarmup();
+		warmup.threads = 2;
+		warmup.batchSize = 10;
+		warmup.maxMillis = 2000;
+		warmup.tolerance = 10;
+
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "b");
+		map.put("c", 3);
+		Result result = warmup.warmUp("ion", ion, ion, Collections.singletonList(map));
+
+		assertTrue(result.toString(), result.steady);
+		assertTrue(result.iterations >= warmup.minIterations + 10 * warmup.stableBatches);
+		assertTrue(result.steadyAfterIterations >= warmup.minIterations);
+		assertTrue(result.nanosPerCycle > 0);
+		assertTrue(ion.writers.size() > 0);
+
+		// Iteration budget
+		warmup.tolerance = 0;
+		warmup.maxIterations = 100;
+		result = warmup.warmUp("ion", ion, ion, Collections.singletonList(ion.toBinary(map, null, false)));
+		assertFalse(result.steady);
+		assertTrue(result.iterations >= 100);
+	}
+
+	@Test
+	public void testMinIterations() throws Exception {
+		assertTrue(AdapterWarmup.getCompileThreshold() > 0);
+
+		IonIon ion = new IonIon();
+		AdapterWarmup warmup = new AdapterWarmup();
+		warmup.threads = 1;
+		warmup.batchSize = 10;
+		warmup.maxMillis = 2000;
+		warmup.tolerance = 10;
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", 1);
+
+		// Stable latencies, but fewer cycles than the compile threshold
+		warmup.minIterations = 1000;
+		warmup.maxIterations = 500;
+		Result result = warmup.warmUp("ion", ion, ion, Collections.singletonList(map));
+		assertFalse(result.toString(), result.steady);
+
+		// Enough cycles
+		warmup.maxIterations = 100000;
+		result = warmup.warmUp("ion", ion, ion, Collections.singletonList(map));
+		assertTrue(result.toString(), result.steady);
+		assertTrue(result.steadyAfterIterations >= 1000 + 10 * warmup.stableBatches);
+	}
+
+}
\ No newline at end of file
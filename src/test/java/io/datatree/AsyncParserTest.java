@@ -0,0 +1,112 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+import io.datatree.dom.adapters.AsyncTreeParser;
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.SmileJackson;
+import junit.framework.TestCase;
+
+/**
+ * AsyncParserTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class AsyncParserTest extends TestCase {
+
+	@Test
+	public void testAsyncParser() throws Exception {
+		List<Object> records = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("id", i);
+			map.put("text", "árvíztűrő " + i);
+			map.put("list", Arrays.asList(1, 2.5, i % 2 == 0, null));
+			LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+			sub.put("a", "b");
+			map.put("map", sub);
+			records.add(map);
+		}
+		records.add(Arrays.asList(1, 2, 3));
+
+		// JSON (whitespace separated top-level values)
+		JsonJackson json = new JsonJackson();
+		StringBuilder text = new StringBuilder();
+		for (Object record : records) {
+			text.append(json.toString(record, null, false, false)).append('\n');
+		}
+		byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+		assertEquals(records, feed(json.createAsyncParser(), bytes));
+
+		// Smile
+		SmileJackson smile = new SmileJackson();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (SequenceWriter writer = smile.mapper.writer().writeValues(out)) {
+			for (Object record : records) {
+				writer.write(record);
+			}
+		}
+		assertEquals(records, feed(smile.createAsyncParser(), out.toByteArray()));
+
+		// Backpressure (the previous chunk is not consumed yet)
+		AsyncTreeParser parser = json.createAsyncParser();
+		parser.feed(bytes, 0, 100);
+		assertFalse(parser.needMoreInput());
+		try {
+			parser.feed(bytes, 100, 100);
+			fail();
+		} catch (IOException expected) {
+		}
+		assertNotNull(parser.next());
+		parser.close();
+	}
+
+	private List<Object> feed(AsyncTreeParser parser, byte[] bytes) throws Exception {
+		List<Object> values = new ArrayList<>();
+		Random random = new Random(1);
+		int offset = 0;
+		while (offset < bytes.length) {
+			int length = Math.min(bytes.length - offset, 1 + random.nextInt(64));
+			parser.feed(bytes, offset, length, (value) -> {
+				values.add(value.asObject());
+			});
+			offset += length;
+		}
+		parser.endOfInput((value) -> {
+			values.add(value.asObject());
+		});
+		assertTrue(parser.isFinished());
+		assertEquals(values.size(), parser.getValueCount());
+		parser.close();
+		return values;
+	}
+
+}
\ No newline at end of file
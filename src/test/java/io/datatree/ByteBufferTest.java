@@ -0,0 +1,92 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.BsonJackson;
+import io.datatree.dom.adapters.ByteBufferAdapter;
+import io.datatree.dom.adapters.CborJackson;
+import io.datatree.dom.adapters.IonIon;
+import io.datatree.dom.adapters.KryoKryo;
+import io.datatree.dom.adapters.MsgPackJackson;
+import io.datatree.dom.adapters.MsgPackOrg;
+import io.datatree.dom.adapters.SmileJackson;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * ByteBufferTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class ByteBufferTest extends TestCase {
+
+	@Test
+	public void testByteBuffers() throws Exception {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíztűrő");
+		map.put("b", 3);
+		LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+		sub.put("c", true);
+		map.put("d", sub);
+
+		List<AbstractAdapter> adapters = Arrays.asList(new CborJackson(), new SmileJackson(), new MsgPackJackson(),
+				new BsonJackson(), new IonIon(), new MsgPackOrg(), new KryoKryo());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			ByteBufferAdapter buffered = (ByteBufferAdapter) adapter;
+			byte[] expected = adapter.toBinary(map, null, false);
+			String parsed = adapter.toString(adapter.parse(expected), null, false, false);
+
+			for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(1024), ByteBuffer.allocateDirect(1024),
+					ByteBuffer.wrap(new byte[1024], 10, 1000).slice() }) {
+
+				// Write (twice, to use the pooled writers)
+				for (int i = 0; i < 2; i++) {
+					buffer.clear();
+					buffer.position(7);
+					buffered.toBinary(map, buffer);
+					assertEquals(name, 7 + expected.length, buffer.position());
+					byte[] written = new byte[expected.length];
+					buffer.position(7);
+					buffer.get(written);
+					assertTrue(name, Arrays.equals(expected, written));
+				}
+
+				// Read
+				buffer.limit(buffer.position());
+				buffer.position(7);
+				assertEquals(name, parsed, adapter.toString(buffered.parse(buffer), null, false, false));
+				assertEquals(name, buffer.limit(), buffer.position());
+			}
+
+			// Overflow
+			try {
+				buffered.toBinary(map, ByteBuffer.allocate(expected.length / 2));
+				fail(name);
+			} catch (RuntimeException expectedException) {
+			}
+		});
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.CsvOpenCSV;
+import io.datatree.dom.adapters.CsvRowReader;
+import io.datatree.dom.adapters.CsvRowWriter;
+import io.datatree.dom.adapters.TsvOpenCSV;
+import junit.framework.TestCase;
+
+/**
+ * CsvStreamingTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class CsvStreamingTest extends TestCase {
+
+	@Test
+	public void testCsvStreaming() throws Exception {
+		testAdapter(new CsvOpenCSV());
+		testAdapter(new TsvOpenCSV());
+	}
+
+	private void testAdapter(CsvOpenCSV adapter) throws Exception {
+
+		// Write records (header mode)
+		StringWriter out = new StringWriter();
+		try (CsvRowWriter writer = adapter.createRowWriter(out, true)) {
+			for (int i = 0; i < 50; i++) {
+				LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+				map.put("id", i);
+				map.put("name", "name \"" + i + "\"");
+				map.put("flag", i % 2 == 0);
+				writer.write(map);
+			}
+		}
+		String text = out.toString();
+
+		// Read records
+		try (CsvRowReader<Map<String, String>> records = adapter.readRecords(new StringReader(text))) {
+			assertEquals(Arrays.asList("id", "name", "flag"), Arrays.asList(records.getHeader()));
+			int i = 0;
+			for (Map<String, String> record : records) {
+				assertEquals(Integer.toString(i), record.get("id"));
+				assertEquals("name \"" + i + "\"", record.get("name"));
+				assertEquals(Boolean.toString(i % 2 == 0), record.get("flag"));
+				i++;
+			}
+			assertEquals(50, i);
+			assertFalse(records.hasNext());
+		}
+
+		// Read rows as Stream
+		try (CsvRowReader<String[]> rows = adapter.readRows(new StringReader(text))) {
+			List<String> ids = rows.stream().map(row -> row[0]).collect(Collectors.toList());
+			assertEquals(51, ids.size());
+			assertEquals("id", ids.get(0));
+			assertEquals("49", ids.get(50));
+		}
+
+		// Write rows (list mode), compare with the DOM-based writer
+		out = new StringWriter();
+		List<Object> lines = Arrays.asList(Arrays.asList("a", "b"), Arrays.asList(1, 2), new Object[] { 3, 4 });
+		try (CsvRowWriter writer = adapter.createRowWriter(out, false)) {
+			for (Object line : lines) {
+				writer.write(line);
+			}
+		}
+		assertEquals(adapter.toString(lines, null, false, false), out.toString());
+
+		// Empty input
+		try (CsvRowReader<Map<String, String>> records = adapter.readRecords(new StringReader(""))) {
+			assertFalse(records.hasNext());
+		}
+	}
+
+}
\ No newline at end of file
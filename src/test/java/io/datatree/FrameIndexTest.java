@@ -0,0 +1,262 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.CborJackson;
+import io.datatree.dom.adapters.FrameIndex;
+import io.datatree.dom.adapters.FrameWriter;
+import io.datatree.dom.adapters.FramedAdapter;
+import io.datatree.dom.adapters.IndexedFrameReader;
+import io.datatree.dom.adapters.IonIon;
+import io.datatree.dom.adapters.KryoKryo;
+import io.datatree.dom.adapters.MsgPackOrg;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * FrameIndexTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class FrameIndexTest extends TestCase {
+
+	@Test
+	public void testIndex() throws Exception {
+		List<Object> records = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("id", i);
+			map.put("user", "user" + (i % 7));
+			char[] padding = new char[i % 50 * 5];
+			Arrays.fill(padding, 'x');
+			map.put("padding", new String(padding));
+			records.add(map);
+		}
+
+		List<AbstractAdapter> adapters = Arrays.asList(new IonIon(), new MsgPackOrg(), new KryoKryo(),
+				new CborJackson());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			FramedAdapter framed = (FramedAdapter) adapter;
+			Path file = Files.createTempFile("frames", ".bin");
+			Path indexFile = Files.createTempFile("frames", ".idx");
+			try {
+
+				// Write frames and index
+				FrameIndex index = new FrameIndex("user");
+				try (OutputStream out = Files.newOutputStream(file);
+						FrameWriter writer = new FrameWriter(out, framed, index)) {
+					for (Object record : records) {
+						writer.write(record);
+					}
+					assertEquals(writer.getPosition(), index.getLength());
+				}
+				assertEquals(records.size(), index.size());
+				assertEquals(Files.size(file), index.getLength());
+				index.save(indexFile);
+
+				// Save / load
+				ByteArrayOutputStream copy = new ByteArrayOutputStream();
+				FrameIndex.load(indexFile).save(copy);
+				assertTrue(Arrays.equals(Files.readAllBytes(indexFile), copy.toByteArray()));
+
+				try (IndexedFrameReader reader = new IndexedFrameReader(file, indexFile, framed)) {
+					assertEquals(records.size(), reader.size());
+
+					// Random access
+					for (int i : new int[] { 499, 0, 250, 1, 498, 123 }) {
+						Object expected = adapter.parse(adapter.toBinary(records.get(i), null, false));
+						assertEquals(expected, reader.read(i).asObject());
+					}
+
+					// Range
+					int id = 100;
+					for (Tree record : reader.range(100, 110)) {
+						assertEquals(String.valueOf(id++), String.valueOf(((Map<?, ?>) record.asObject()).get("id")));
+					}
+					assertEquals(110, id);
+					assertFalse(reader.range(5, 5).iterator().hasNext());
+
+					// Find by key
+					List<Tree> found = reader.find("user", "user3");
+					assertEquals(71, found.size());
+					for (Tree record : found) {
+						assertEquals("user3", ((Map<?, ?>) record.asObject()).get("user"));
+					}
+					assertEquals(0, reader.find("user", "missing").size());
+				}
+			} finally {
+				Files.deleteIfExists(file);
+				Files.deleteIfExists(indexFile);
+			}
+		});
+
+		// Invalid index
+		try {
+			FrameIndex.load(new ByteArrayInputStream(new byte[] { 1, 2, 3, 4, 5 }));
+			fail();
+		} catch (IOException expected) {
+		}
+	}
+
+	@Test
+	public void testPosition() throws Exception {
+		MsgPackOrg adapter = new MsgPackOrg();
+		byte[] header = "HEADER".getBytes("UTF-8");
+		Path file = Files.createTempFile("frames", ".bin");
+		try {
+
+			// Frames after a header
+			FrameIndex index = new FrameIndex("id");
+			try (OutputStream out = Files.newOutputStream(file)) {
+				out.write(header);
+				try (FrameWriter writer = new FrameWriter(out, adapter, index, header.length)) {
+					for (int i = 0; i < 10; i++) {
+						writer.write(record(i));
+					}
+				}
+			}
+			assertEquals(header.length, index.getOffset(0));
+			assertEquals(Files.size(file), index.getLength());
+
+			// Append to the file
+			try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.APPEND);
+					FrameWriter writer = new FrameWriter(out, adapter, index, Files.size(file))) {
+				for (int i = 10; i < 20; i++) {
+					writer.write(record(i));
+				}
+			}
+			assertEquals(20, index.size());
+			assertEquals(Files.size(file), index.getLength());
+
+			try (IndexedFrameReader reader = new IndexedFrameReader(file, index, adapter)) {
+				for (int i = 0; i < 20; i++) {
+					assertEquals("" + i, String.valueOf(((Map<?, ?>) reader.read(i).asObject()).get("id")));
+				}
+				assertEquals(1, reader.find("id", 15).size());
+			}
+
+			// Wrong position (overlaps the indexed frames)
+			try (FrameWriter writer = new FrameWriter(new ByteArrayOutputStream(), adapter, index)) {
+				writer.write(record(20));
+				fail();
+			} catch (IllegalArgumentException expected) {
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testCorruptedIndex() throws Exception {
+		FrameIndex index = new FrameIndex("user", "id");
+		for (int i = 0; i < 100; i++) {
+			index.add(i * 10, 10, record(i));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		index.save(out);
+		byte[] bytes = out.toByteArray();
+		assertEquals(100, FrameIndex.load(new ByteArrayInputStream(bytes)).size());
+
+		// Truncated
+		for (int length = 0; length < bytes.length; length++) {
+			assertInvalid(Arrays.copyOf(bytes, length));
+		}
+
+		// Garbled (must be loaded or rejected with an IOException)
+		for (int i = 0; i < bytes.length; i++) {
+			for (int b : new int[] { 0x00, 0x7F, 0x80, 0xFF }) {
+				byte[] garbled = bytes.clone();
+				garbled[i] = (byte) b;
+				try {
+					FrameIndex loaded = FrameIndex.load(new ByteArrayInputStream(garbled));
+					for (int n = 0; n < loaded.size(); n++) {
+						assertTrue(loaded.getOffset(n) < loaded.getEnd(n));
+						assertTrue(loaded.getEnd(n) <= loaded.getLength());
+					}
+				} catch (IOException expected) {
+				}
+			}
+		}
+
+		// Huge number of records
+		assertInvalid(header(1000, Integer.MAX_VALUE));
+		assertInvalid(header(1000, Long.MAX_VALUE));
+
+		// Offsets out of order or out of range
+		assertInvalid(header(1000, 2, 10, 0, 0));
+		assertInvalid(header(1000, 2, 10, 1000, 0));
+		assertInvalid(header(1000, 1, -1L, 0));
+
+		// Record number out of range
+		byte[] valid = header(1000, 2, 0, 10, 0);
+		assertEquals(2, FrameIndex.load(new ByteArrayInputStream(valid)).size());
+		ByteArrayOutputStream key = new ByteArrayOutputStream();
+		DataOutputStream data = new DataOutputStream(key);
+		data.write(header(1000, 2, 0, 10, 1));
+		data.writeUTF("user");
+		data.write(new byte[] { 1 });
+		data.writeUTF("user1");
+		data.write(new byte[] { 1, 2 });
+		assertInvalid(key.toByteArray());
+	}
+
+	protected static final byte[] header(long length, long... varints) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0x44544958);
+		out.writeByte(1);
+		out.writeLong(length);
+		byte[] varint = new byte[FrameWriter.MAX_VARINT_SIZE];
+		for (long value : varints) {
+			out.write(varint, 0, FrameWriter.writeVarLong(value, varint, 0));
+		}
+		return bytes.toByteArray();
+	}
+
+	protected static final void assertInvalid(byte[] bytes) {
+		try {
+			FrameIndex.load(new ByteArrayInputStream(bytes));
+			fail();
+		} catch (IOException expected) {
+		}
+	}
+
+	protected static final Map<String, Object> record(int id) {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("id", id);
+		map.put("text", "record" + id);
+		return map;
+	}
+
+}
\ No newline at end of file
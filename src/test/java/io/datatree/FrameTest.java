@@ -0,0 +1,172 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.BsonJackson;
+import io.datatree.dom.adapters.CborJackson;
+import io.datatree.dom.adapters.FrameReader;
+import io.datatree.dom.adapters.FrameWriter;
+import io.datatree.dom.adapters.FramedAdapter;
+import io.datatree.dom.adapters.IonIon;
+import io.datatree.dom.adapters.KryoKryo;
+import io.datatree.dom.adapters.MsgPackJackson;
+import io.datatree.dom.adapters.MsgPackOrg;
+import io.datatree.dom.adapters.SmileJackson;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * FrameTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class FrameTest extends TestCase {
+
+	@Test
+	public void testFrames() throws Exception {
+		List<Object> records = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("id", i);
+			map.put("text", "árvíztűrő " + i);
+			map.put("list", Arrays.asList(1, 2, i % 2 == 0));
+			char[] padding = new char[i * 3];
+			Arrays.fill(padding, 'x');
+			map.put("padding", new String(padding));
+			records.add(map);
+		}
+
+		List<AbstractAdapter> adapters = Arrays.asList(new IonIon(), new MsgPackOrg(), new KryoKryo(),
+				new CborJackson(), new SmileJackson(), new MsgPackJackson(), new BsonJackson());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			FramedAdapter framed = (FramedAdapter) adapter;
+
+			// Expected values (single record per byte array)
+			List<Object> expected = new ArrayList<>();
+			for (Object record : records) {
+				expected.add(adapter.parse(adapter.toBinary(record, null, false)));
+			}
+
+			// Write frames
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (FrameWriter writer = new FrameWriter(out, framed)) {
+				for (Object record : records) {
+					writer.write(record);
+				}
+				assertEquals(records.size(), writer.getFrameCount());
+			}
+			byte[] bytes = out.toByteArray();
+
+			// Read frames (the small buffer grows to the largest frame)
+			List<Object> values = new ArrayList<>();
+			try (FrameReader reader = new FrameReader(new ByteArrayInputStream(bytes), framed, 16)) {
+				for (Tree record : reader) {
+					values.add(record.asObject());
+				}
+				assertEquals(records.size(), reader.getFrameNumber());
+			}
+			assertEquals(adapter.getClass().getSimpleName(), expected, values);
+
+			// Read frames from a channel
+			values.clear();
+			try (FrameReader reader = new FrameReader(Channels.newChannel(new ByteArrayInputStream(bytes)), framed)) {
+				for (Tree record : reader) {
+					values.add(record.asObject());
+				}
+			}
+			assertEquals(expected, values);
+
+			// Truncated stream
+			try (FrameReader reader = new FrameReader(
+					new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)), framed)) {
+				for (int i = 0; i < records.size(); i++) {
+					reader.next();
+				}
+				fail();
+			} catch (UncheckedIOException expectedException) {
+			}
+
+			// Metadata
+			Tree tree = new Tree();
+			tree.put("a", 1);
+			tree.getMeta().put("m", "abc");
+			out = new ByteArrayOutputStream();
+			try (FrameWriter writer = new FrameWriter(out, framed)) {
+				writer.write(tree);
+			}
+			try (FrameReader reader = new FrameReader(new ByteArrayInputStream(out.toByteArray()), framed)) {
+				Tree record = reader.next();
+				assertEquals(1, record.get("a", 0));
+				assertEquals("abc", record.getMeta().get("m", ""));
+			}
+		});
+	}
+
+	@Test
+	public void testVarLong() throws Exception {
+		long[] values = { 0, 1, 127, 128, 300, 16383, 16384, Integer.MAX_VALUE, Long.MAX_VALUE, -1 };
+		int[] sizes = { 1, 1, 1, 2, 2, 2, 3, 5, 9, 10 };
+		byte[] bytes = new byte[FrameWriter.MAX_VARINT_SIZE + 1];
+		for (int i = 0; i < values.length; i++) {
+			int end = FrameWriter.writeVarLong(values[i], bytes, 1);
+			assertEquals(sizes[i], end - 1);
+			assertEquals(sizes[i], FrameWriter.getVarLongSize(values[i]));
+			assertEquals(values[i], FrameReader.readVarLong(bytes, 1, end));
+
+			// Incomplete
+			try {
+				FrameReader.readVarLong(bytes, 1, end - 1);
+				fail();
+			} catch (EOFException expected) {
+			}
+		}
+
+		// Non-minimal encoding
+		try {
+			FrameReader.readVarLong(new byte[] { (byte) 0x81, 0 }, 0, 2);
+			fail();
+		} catch (IOException expected) {
+			assertFalse(expected instanceof EOFException);
+		}
+
+		// More than 64 bits
+		byte[] overflow = new byte[FrameWriter.MAX_VARINT_SIZE];
+		Arrays.fill(overflow, (byte) 0xFF);
+		overflow[overflow.length - 1] = 2;
+		try {
+			FrameReader.readVarLong(overflow, 0, overflow.length);
+			fail();
+		} catch (IOException expected) {
+			assertFalse(expected instanceof EOFException);
+		}
+	}
+
+}
\ No newline at end of file
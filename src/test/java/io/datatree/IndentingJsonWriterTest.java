@@ -0,0 +1,151 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.ByteStreamAdapter;
+import io.datatree.dom.adapters.CharStreamAdapter;
+import io.datatree.dom.adapters.IndentingJsonOutputStream;
+import io.datatree.dom.adapters.IndentingJsonWriter;
+import io.datatree.dom.adapters.JsonBoon;
+import io.datatree.dom.adapters.JsonDSL;
+import io.datatree.dom.adapters.JsonJsoniter;
+import io.datatree.dom.adapters.JsonSimple;
+import io.datatree.dom.adapters.JsonSmart;
+import io.datatree.dom.builtin.AbstractAdapter;
+import io.datatree.dom.builtin.JsonBuiltin;
+import junit.framework.TestCase;
+
+/**
+ * IndentingJsonWriterTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class IndentingJsonWriterTest extends TestCase {
+
+	@Test
+	public void testIndenter() throws Exception {
+		String json = "{\"a\":\"x{[,:]} \\\"y\\\\\",\"b\":[1,2.5,{}],\"c\":{\"d\":[],\"e\":null}, \"f\" : true}";
+		String expected = "{\r\n" //
+				+ "  \"a\": \"x{[,:]} \\\"y\\\\\",\r\n" //
+				+ "  \"b\": [\r\n" //
+				+ "    1,\r\n" //
+				+ "    2.5,\r\n" //
+				+ "    {}\r\n" //
+				+ "  ],\r\n" //
+				+ "  \"c\": {\r\n" //
+				+ "    \"d\": [],\r\n" //
+				+ "    \"e\": null\r\n" //
+				+ "  },\r\n" //
+				+ "  \"f\": true\r\n" //
+				+ "}";
+		assertEquals(expected, IndentingJsonWriter.indent(json));
+
+		// Char-by-char writing into a small buffer
+		StringWriter out = new StringWriter();
+		IndentingJsonWriter writer = new IndentingJsonWriter(out);
+		for (char c : json.toCharArray()) {
+			writer.write(c);
+		}
+		writer.flush();
+		assertEquals(expected, out.toString());
+
+		// UTF-8 bytes
+		String utf = "{\"árvíztűrő\":[\"€,😀\"]}";
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		IndentingJsonOutputStream stream = new IndentingJsonOutputStream(bytes);
+		stream.write(utf.getBytes(StandardCharsets.UTF_8));
+		stream.flush();
+		assertEquals(IndentingJsonWriter.indent(utf), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testAdapters() throws Exception {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíztűrő, [x]: {y}");
+		map.put("b", 3);
+		LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+		sub.put("c", true);
+		sub.put("d", Arrays.asList(1, 2));
+		sub.put("e", Collections.emptyList());
+		map.put("f", sub);
+
+		List<AbstractAdapter> adapters = Arrays.asList(new JsonDSL(), new JsonJsoniter(), new JsonSmart(),
+				new JsonSimple(), new JsonBoon());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			String compact;
+			String pretty;
+			try {
+				compact = adapter.toString(map, null, false, false);
+				pretty = adapter.toString(map, null, true, false);
+			} catch (RuntimeException cause) {
+				if (adapter instanceof JsonBoon && isBoonStringFailure(cause)) {
+
+					// Boon 0.34 does not work on Java 9+ (compact Strings)
+					return;
+				}
+				throw cause;
+			}
+
+			// Same output as the previous (JsonBuiltin.format) implementation
+			assertEquals(name, JsonBuiltin.format(compact), pretty);
+			assertEquals(name, IndentingJsonWriter.indent(compact), pretty);
+			assertEquals(name, adapter.parse(compact), adapter.parse(pretty));
+
+			// Streaming writers
+			if (adapter instanceof CharStreamAdapter) {
+				StringWriter out = new StringWriter();
+				((CharStreamAdapter) adapter).write(map, null, true, false, out);
+				assertEquals(name, pretty, out.toString());
+			}
+			if (adapter instanceof ByteStreamAdapter) {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				((ByteStreamAdapter) adapter).write(map, null, true, false, out);
+				assertEquals(name, pretty, new String(out.toByteArray(), StandardCharsets.UTF_8));
+			}
+		});
+	}
+
+	/**
+	 * Boon reads the internal char array of the Strings, which is a byte array
+	 * on Java 9+ (it fails with a ClassCastException in FastStringUtils).
+	 */
+	protected static final boolean isBoonStringFailure(Throwable cause) {
+		while (cause != null) {
+			if (cause instanceof ClassCastException) {
+				for (StackTraceElement element : cause.getStackTrace()) {
+					if (element.getClassName().startsWith("org.boon.core.reflection.FastStringUtils")) {
+						return true;
+					}
+				}
+			}
+			cause = cause.getCause();
+		}
+		return false;
+	}
+
+}
\ No newline at end of file
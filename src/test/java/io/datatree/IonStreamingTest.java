@@ -0,0 +1,86 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.IonIon;
+import io.datatree.dom.adapters.IonValueReader;
+import io.datatree.dom.adapters.JsonIon;
+import junit.framework.TestCase;
+
+/**
+ * IonStreamingTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class IonStreamingTest extends TestCase {
+
+	@Test
+	public void testTopLevelValues() throws Exception {
+		List<Object> records = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("id", i);
+			map.put("text", "árvíztűrő " + i);
+			map.put("list", Arrays.asList(1, 2.5, i % 2 == 0));
+			records.add(map);
+		}
+
+		// Binary Ion (one value after another)
+		IonIon ion = new IonIon();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		for (Object record : records) {
+			ion.write(record, out);
+		}
+		assertEquals(records, readAll(ion, out.toByteArray()));
+
+		// Text Ion
+		JsonIon json = new JsonIon();
+		StringBuilder text = new StringBuilder();
+		for (Object record : records) {
+			text.append(json.toString(record, null, false, false)).append('\n');
+		}
+		assertEquals(records, readAll(json, text.toString().getBytes(StandardCharsets.UTF_8)));
+
+		// Single values are parsed the same way as before
+		for (int i = 0; i < 10; i++) {
+			assertEquals(records.get(i), json.parse(json.toString(records.get(i), null, false, false)));
+		}
+	}
+
+	private List<Object> readAll(JsonIon adapter, byte[] bytes) throws Exception {
+		List<Object> values = new ArrayList<>();
+		try (IonValueReader reader = adapter.readAll(new ByteArrayInputStream(bytes))) {
+			for (Tree value : reader) {
+				values.add(value.asObject());
+			}
+			assertEquals(values.size(), reader.getValueNumber());
+		}
+		return values;
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.AbstractJacksonAdapter;
+import io.datatree.dom.adapters.BsonJackson;
+import io.datatree.dom.adapters.CborJackson;
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.MsgPackJackson;
+import io.datatree.dom.adapters.PropertiesJackson;
+import io.datatree.dom.adapters.SmileJackson;
+import io.datatree.dom.adapters.XmlJackson;
+import io.datatree.dom.adapters.YamlJackson;
+import junit.framework.TestCase;
+
+/**
+ * JacksonStreamingTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class JacksonStreamingTest extends TestCase {
+
+	@Test
+	public void testStreaming() throws Exception {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíztűrő");
+		map.put("b", 3);
+		LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+		sub.put("c", true);
+		map.put("d", sub);
+
+		List<AbstractJacksonAdapter> adapters = Arrays.asList(new JsonJackson(), new YamlJackson(), new XmlJackson(),
+				new PropertiesJackson(), new CborJackson(), new SmileJackson(), new MsgPackJackson(),
+				new BsonJackson());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			boolean binary = !adapter.toString(map, null, false, false)
+					.equals(new String(adapter.toBinary(map, null, false), StandardCharsets.UTF_8));
+
+			// Write
+			StreamChecker out = new StreamChecker();
+			adapter.write(map, out);
+			assertFalse(name, out.closed);
+			if (binary) {
+				assertTrue(name, Arrays.equals(adapter.toBinary(map, null, false), out.toByteArray()));
+			} else {
+				assertEquals(name, adapter.toString(map, null, false, false), out.toString("UTF-8"));
+				out.reset();
+				adapter.write(map, null, true, false, out);
+				assertEquals(name, adapter.toString(map, null, true, false), out.toString("UTF-8"));
+			}
+
+			// Read
+			Object parsed = adapter.parse(new ByteArrayInputStream(adapter.toBinary(map, null, false)));
+			assertEquals(name, adapter.toString(adapter.parse(adapter.toBinary(map, null, false)), null, false, false),
+					adapter.toString(parsed, null, false, false));
+		});
+	}
+
+	protected static class StreamChecker extends ByteArrayOutputStream {
+
+		protected boolean closed;
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+	}
+
+}
\ No newline at end of file
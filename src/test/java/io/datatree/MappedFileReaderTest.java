@@ -0,0 +1,78 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.CborJackson;
+import io.datatree.dom.adapters.IonIon;
+import io.datatree.dom.adapters.JsonDSL;
+import io.datatree.dom.adapters.JsonGson;
+import io.datatree.dom.adapters.JsonJsoniter;
+import io.datatree.dom.adapters.MappedFileReader;
+import io.datatree.dom.adapters.MsgPackOrg;
+import io.datatree.dom.adapters.SmileJackson;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * MappedFileReaderTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class MappedFileReaderTest extends TestCase {
+
+	@Test
+	public void testMappedFiles() throws Exception {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíztűrő");
+		map.put("b", 3);
+		LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+		sub.put("c", true);
+		map.put("d", sub);
+		map.put("e", Arrays.asList(1, 2, 3));
+
+		List<AbstractAdapter> adapters = Arrays.asList(new CborJackson(), new SmileJackson(), new IonIon(),
+				new MsgPackOrg(), new JsonDSL(), new JsonJsoniter(), new JsonGson());
+		File file = File.createTempFile("mapped", ".tmp");
+		try {
+			AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+				byte[] bytes = adapter.toBinary(map, null, false);
+				Files.write(file.toPath(), bytes);
+				String expected = adapter.toString(adapter.parse(bytes), null, false, false);
+
+				// One region
+				MappedFileReader reader = new MappedFileReader(adapter);
+				assertEquals(name, expected, adapter.toString(reader.parse(file.toPath()), null, false, false));
+
+				// Small chunks
+				reader.chunkSize = 7;
+				assertEquals(name, expected, adapter.toString(reader.parse(file.toPath()), null, false, false));
+			});
+		} finally {
+			file.delete();
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,119 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+
+import javax.management.ObjectName;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.AdapterMetrics;
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.LatencyHistogram;
+import io.datatree.dom.adapters.MetricsAdapter;
+import junit.framework.TestCase;
+
+/**
+ * MetricsAdapterTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class MetricsAdapterTest extends TestCase {
+
+	@Test
+	public void testHistogram() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(99));
+		for (long i = 1; i <= 100000; i++) {
+			histogram.record(i * 1000);
+		}
+		assertEquals(100000, histogram.getCount());
+		assertEquals(100000000L, histogram.getMax());
+		assertAccurate(50000000L, histogram.getValueAtPercentile(50));
+		assertAccurate(99000000L, histogram.getValueAtPercentile(99));
+		assertAccurate(99900000L, histogram.getValueAtPercentile(99.9));
+		assertEquals(100000000L, histogram.getValueAtPercentile(100));
+		assertAccurate(50000500L, (long) histogram.getMean());
+
+		histogram.reset();
+		histogram.record(5);
+		histogram.record(127);
+		assertEquals(5, histogram.getValueAtPercentile(50));
+		assertEquals(127, histogram.getValueAtPercentile(100));
+	}
+
+	protected void assertAccurate(long expected, long value) {
+		assertTrue(value + " != " + expected, Math.abs(value - expected) <= expected / 50);
+	}
+
+	@Test
+	public void testAdapter() throws Exception {
+		MetricsAdapter adapter = new MetricsAdapter(new JsonJackson());
+		AdapterMetrics metrics = MetricsAdapter.getMetrics("json", "JsonJackson");
+		assertSame(metrics, adapter.readerMetrics);
+		assertSame(metrics, adapter.writerMetrics);
+		metrics.reset();
+
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíz");
+		map.put("b", 3);
+		String json = adapter.toString(map, null, false, false);
+		byte[] bytes = adapter.toBinary(map, null, false);
+		assertEquals(json, adapter.toString(adapter.parse(json), null, false, false));
+		adapter.parse(bytes);
+
+		assertEquals(3, metrics.getSerializeCount());
+		assertEquals(2, metrics.getParseCount());
+		assertEquals(bytes.length, metrics.getBytesRead());
+		assertEquals(json.length(), metrics.getCharsRead());
+		assertEquals(bytes.length, metrics.getBytesWritten());
+		assertEquals(json.length() * 2, metrics.getCharsWritten());
+		assertTrue(metrics.getSerializeMaxNanos() > 0);
+		assertTrue(metrics.getSerializeP99Nanos() <= metrics.getSerializeMaxNanos());
+
+		// Failed calls are counted as errors only
+		long allocated = metrics.getParseAllocatedBytes();
+		try {
+			adapter.parse("{invalid");
+			fail();
+		} catch (Exception expected) {
+		}
+		assertEquals(1, metrics.getParseErrors());
+		assertEquals(2, metrics.getParseCount());
+		assertEquals(json.length(), metrics.getCharsRead());
+		assertEquals(allocated, metrics.getParseAllocatedBytes());
+
+		// UTF-8 length of the String data
+		metrics.reset();
+		adapter.countUtf8Bytes = true;
+		assertEquals(json, adapter.toString(adapter.parse(json), null, false, false));
+		assertEquals(bytes.length, metrics.getBytesRead());
+		assertEquals(bytes.length, metrics.getBytesWritten());
+		assertEquals(0, metrics.getCharsRead());
+		assertEquals(0, metrics.getCharsWritten());
+		assertEquals(1, metrics.getParseCount());
+
+		// Metrics are available via JMX
+		ObjectName name = new ObjectName("io.datatree:type=AdapterMetrics,format=json,adapter=JsonJackson");
+		assertEquals(1L,
+				((Number) ManagementFactory.getPlatformMBeanServer().getAttribute(name, "ParseCount")).longValue());
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.JsonDSL;
+import io.datatree.dom.adapters.JsonGson;
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.JsonJsoniter;
+import io.datatree.dom.adapters.NdJsonReader;
+import io.datatree.dom.adapters.NdJsonWriter;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * NdJsonTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class NdJsonTest extends TestCase {
+
+	@Test
+	public void testNdJson() throws Exception {
+		List<Object> records = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("id", i);
+			map.put("text", "árvíztűrő\n" + i);
+			map.put("list", Arrays.asList(1, 2, i));
+			records.add(map);
+		}
+
+		List<AbstractAdapter> adapters = Arrays.asList(new JsonJackson(), new JsonDSL(), new JsonJsoniter(),
+				new JsonGson());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+
+			// Write
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			try (NdJsonWriter writer = new NdJsonWriter(out, adapter)) {
+				for (Object record : records) {
+					writer.write(record);
+				}
+			}
+			String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+			assertEquals(name, records.size(), lines.length);
+			assertEquals(name, adapter.toString(records.get(7), null, false, false), lines[7]);
+
+			// Read (with a small buffer)
+			try (NdJsonReader reader = new NdJsonReader(new ByteArrayInputStream(out.toByteArray()), adapter, 32)) {
+				int i = 0;
+				for (Tree record : reader) {
+					assertEquals(name, adapter.toString(adapter.parse(lines[i]), null, false, false),
+							adapter.toString(record.asObject(), null, false, false));
+					assertEquals(name, i + 1, reader.getLineNumber());
+					i++;
+				}
+				assertEquals(name, records.size(), i);
+			}
+
+			// Blank lines, CR-LF, last line without line feed
+			String source = "\r\n{\"a\":1}\r\n  \n[1,2]\n\n{\"b\":2}";
+			try (NdJsonReader reader = new NdJsonReader(
+					new ByteArrayInputStream(source.getBytes(StandardCharsets.UTF_8)), adapter)) {
+				assertTrue(name, reader.next().asObject() instanceof Map);
+				assertTrue(name, reader.next().asObject() instanceof List);
+				assertEquals(name, 4, reader.getLineNumber());
+				assertTrue(name, reader.next().asObject() instanceof Map);
+				assertFalse(name, reader.hasNext());
+			}
+
+			// Metadata
+			Tree tree = new Tree();
+			tree.put("a", 1);
+			tree.getMeta().put("m", "abc");
+			out = new ByteArrayOutputStream();
+			try (NdJsonWriter writer = new NdJsonWriter(out, adapter)) {
+				writer.write(tree);
+			}
+			try (NdJsonReader reader = new NdJsonReader(new ByteArrayInputStream(out.toByteArray()), adapter)) {
+				Tree record = reader.next();
+				assertEquals(name, 1, record.get("a", 0));
+				assertEquals(name, "abc", record.getMeta().get("m", ""));
+			}
+		});
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,179 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.ObjectPool;
+import junit.framework.TestCase;
+
+/**
+ * ObjectPoolTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class ObjectPoolTest extends TestCase {
+
+	@Test
+	public void testBounds() throws Exception {
+		ObjectPool<Object> pool = new ObjectPool<>(5, 4);
+		assertNull(pool.poll());
+		assertEquals(1, pool.getMisses());
+
+		HashSet<Object> items = new HashSet<>();
+		for (int i = 0; i < 7; i++) {
+			Object item = new Object();
+			boolean added = pool.offer(item);
+			assertEquals(i < 5, added);
+			if (added) {
+				items.add(item);
+			}
+		}
+		assertEquals(5, pool.getSize());
+		assertEquals(5, pool.getReturns());
+		assertEquals(2, pool.getDrops());
+
+		for (int i = 0; i < 5; i++) {
+			assertTrue(items.remove(pool.poll()));
+		}
+		assertNull(pool.poll());
+		assertEquals(0, pool.getSize());
+		assertEquals(5, pool.getHits());
+		assertEquals(2, pool.getMisses());
+
+		// Disabled pool
+		ObjectPool<Object> disabled = new ObjectPool<>(0);
+		assertFalse(disabled.offer(new Object()));
+		assertNull(disabled.poll());
+	}
+
+	@Test
+	public void testStripes() throws Exception {
+		for (int capacity = 1; capacity <= 64; capacity++) {
+			for (int stripes = 1; stripes <= 16; stripes++) {
+				int count = StripedPool.count(capacity, stripes);
+				assertTrue(count <= stripes && count <= capacity);
+				assertEquals(0, StripedPool.start(0, count, capacity));
+				assertEquals(capacity, StripedPool.start(count, count, capacity));
+				for (int stripe = 0; stripe < count; stripe++) {
+
+					// Every stripe has at least one slot
+					assertTrue(StripedPool.start(stripe + 1, count, capacity) > StripedPool.start(stripe, count,
+							capacity));
+				}
+			}
+		}
+
+		// Capacity 5 with 4 stripes: 1 + 1 + 1 + 2 slots
+		assertEquals(4, StripedPool.count(5, 4));
+		assertEquals(3, StripedPool.start(3, 4, 5));
+	}
+
+	@Test
+	public void testSetCapacity() throws Exception {
+		ObjectPool<Object> pool = new ObjectPool<>(4);
+		for (int i = 0; i < 4; i++) {
+			assertTrue(pool.offer(new Object()));
+		}
+		pool.setCapacity(2);
+		assertEquals(2, pool.getCapacity());
+		assertEquals(2, pool.size());
+		assertFalse(pool.offer(new Object()));
+
+		pool.setCapacity(8);
+		assertEquals(2, pool.size());
+		for (int i = 0; i < 6; i++) {
+			assertTrue(pool.offer(new Object()));
+		}
+		assertFalse(pool.offer(new Object()));
+
+		pool.setCapacity(0);
+		assertEquals(0, pool.size());
+		assertNull(pool.poll());
+	}
+
+	@Test
+	public void testQueue() throws Exception {
+		Queue<String> queue = new ObjectPool<>(3);
+		assertTrue(queue.isEmpty());
+		assertNull(queue.peek());
+		queue.add("a");
+		queue.offer("b");
+		assertEquals(2, queue.size());
+		assertNotNull(queue.peek());
+		HashSet<String> items = new HashSet<>(queue);
+		assertTrue(items.contains("a") && items.contains("b"));
+		try {
+			queue.offer(null);
+			fail();
+		} catch (NullPointerException expected) {
+		}
+		queue.clear();
+		assertTrue(queue.isEmpty());
+	}
+
+	protected static final class StripedPool extends ObjectPool<Object> {
+
+		protected static final int count(int capacity, int stripes) {
+			return stripeCount(capacity, stripes);
+		}
+
+		protected static final int start(int stripe, int count, int capacity) {
+			return stripeStart(stripe, count, capacity);
+		}
+
+	}
+
+	@Test
+	public void testConcurrency() throws Exception {
+		ObjectPool<AtomicInteger> pool = new ObjectPool<>(4, 8);
+		Thread[] threads = new Thread[8];
+		AtomicInteger errors = new AtomicInteger();
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					AtomicInteger item = pool.poll();
+					if (item == null) {
+						item = new AtomicInteger();
+					}
+					if (item.incrementAndGet() != 1) {
+
+						// Same instance used by two threads
+						errors.incrementAndGet();
+					}
+					item.decrementAndGet();
+					pool.offer(item);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(0, errors.get());
+		assertTrue(pool.getSize() <= 4);
+		assertEquals(80000, pool.getHits() + pool.getMisses());
+		assertEquals(80000, pool.getReturns() + pool.getDrops());
+		assertEquals(pool.getSize(), pool.getReturns() - pool.getHits());
+	}
+
+}
\ No newline at end of file
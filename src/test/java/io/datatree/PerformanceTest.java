@@ -17,6 +17,7 @@
  */
 package io.datatree;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -45,12 +46,17 @@ public abstract class PerformanceTest extends TestCase {
 
 	// --- LARGE JSON TEST ---
 
-	private static final boolean DO_LARGE_TEST = false;
+	// Generates and processes 16 MB samples per adapter,
+	// enable with "-Ddatatree.largeTest=true"
+	private static final boolean DO_LARGE_TEST = Boolean.getBoolean("datatree.largeTest");
 
 	private static final int LARGE_READER_LOOPS = 10;
 
 	private static final int LARGE_WRITER_LOOPS = 10;
 
+	// Size of the generated "sample-large.*" files
+	private static final long LARGE_SAMPLE_SIZE = 16L * 1024L * 1024L;
+
 	// --- FORMAT ---
 
 	// null = json
@@ -76,7 +82,6 @@ public abstract class PerformanceTest extends TestCase {
 			return;
 		}
 
-		// TODO Missing file
 		long duration = doReaderTest("sample-large.json", LARGE_READER_LOOPS);
 		printResult(duration, false, true);
 	}
@@ -96,9 +101,8 @@ public abstract class PerformanceTest extends TestCase {
 			return;
 		}
 
-		// TODO Missing file
 		long duration = doWriterTest("sample-large.json", LARGE_WRITER_LOOPS);
-		printResult(duration, true, false);
+		printResult(duration, false, false);
 	}
 
 	// --- UTILITIES ---
@@ -182,7 +186,11 @@ public abstract class PerformanceTest extends TestCase {
 
 		InputStream in = PerformanceTest.class.getResourceAsStream("/" + name);
 		if (in == null) {
-			in = new FileInputStream(System.getProperty("user.dir") + "/src/test/resources/" + name);
+			File file = new File(System.getProperty("user.dir") + "/src/test/resources/" + name);
+			if (!file.isFile() && name.startsWith("sample-large.")) {
+				file = generateLargeSample(name);
+			}
+			in = new FileInputStream(file);
 		}
 		byte[] bytes = readFully(in);
 		json = new String(bytes, "UTF8");
@@ -191,6 +199,19 @@ public abstract class PerformanceTest extends TestCase {
 		return json;
 	}
 
+	private static final File generateLargeSample(String name) throws Exception {
+		File directory = new File(System.getProperty("user.dir") + "/build/samples");
+		File file = new File(directory, name);
+		if (!file.isFile()) {
+			String format = name.substring(name.lastIndexOf('.') + 1);
+			File generated = new SampleGenerator().generate(format, LARGE_SAMPLE_SIZE, directory);
+			if (!generated.renameTo(file)) {
+				throw new IOException("Unable to rename " + generated + " to " + file);
+			}
+		}
+		return file;
+	}
+
 	private static final byte[] readFully(InputStream in) throws IOException {
 		byte[] data = new byte[0];
 		try {
@@ -0,0 +1,163 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.AdapterMetrics;
+import io.datatree.dom.adapters.JsonDSL;
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.MetricsAdapter;
+import io.datatree.dom.adapters.RoutingAdapter;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * RoutingAdapterTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class RoutingAdapterTest extends TestCase {
+
+	@Test
+	public void testRouting() throws Exception {
+		MetricsAdapter small = new MetricsAdapter(new JsonDSL());
+		MetricsAdapter large = new MetricsAdapter(new JsonJackson());
+		AdapterMetrics smallMetrics = small.readerMetrics;
+		AdapterMetrics largeMetrics = large.readerMetrics;
+		smallMetrics.reset();
+		largeMetrics.reset();
+
+		RoutingAdapter router = new RoutingAdapter(small, large);
+		router.threshold = 1000;
+		assertEquals("json", router.getFormat());
+
+		LinkedHashMap<String, Object> tiny = new LinkedHashMap<>();
+		tiny.put("a", 1);
+		LinkedHashMap<String, Object> huge = new LinkedHashMap<>();
+		ArrayList<Object> list = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			list.add("value" + i);
+		}
+		huge.put("list", list);
+
+		String tinyJson = router.toString(tiny, null, false, false);
+		assertEquals(1, smallMetrics.getSerializeCount());
+		String hugeJson = router.toString(huge, null, false, false);
+		assertEquals(1, largeMetrics.getSerializeCount());
+
+		router.parse(tinyJson);
+		assertEquals(1, smallMetrics.getParseCount());
+		router.parse(hugeJson.getBytes("UTF-8"));
+		assertEquals(1, largeMetrics.getParseCount());
+
+		// Size estimation stops at the limit
+		assertTrue(RoutingAdapter.estimateSize(huge, 100) < 200);
+		assertTrue(RoutingAdapter.estimateSize(huge, Long.MAX_VALUE) >= hugeJson.length() / 2);
+
+		// Learning mode tries both routes
+		router.learn = true;
+		router.parse(tinyJson);
+		router.parse(tinyJson);
+		assertEquals(2, smallMetrics.getParseCount());
+		assertEquals(2, largeMetrics.getParseCount());
+		assertTrue(router.getLearnedThreshold(false) == -1);
+	}
+
+	@Test
+	public void testLearnModeEstimationLimit() throws Exception {
+		RoutingAdapter router = new RoutingAdapter(new NopAdapter(), new NopAdapter());
+		router.threshold = 100;
+		assertEquals(100, router.getEstimationLimit());
+		router.learn = true;
+		assertEquals(100 * RoutingAdapter.LEARN_LIMIT_MULTIPLIER, router.getEstimationLimit());
+		router.threshold = Long.MAX_VALUE / 2;
+		assertEquals(Long.MAX_VALUE, router.getEstimationLimit());
+		router.threshold = 100;
+
+		// Each item is about 10 characters long
+		AtomicInteger visited = new AtomicInteger();
+		ArrayList<Object> list = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			CountingMap item = new CountingMap(visited);
+			item.put("k", "v");
+			list.add(item);
+		}
+
+		// Learning mode does not walk the whole structure
+		for (int i = 0; i < 4; i++) {
+			router.toString(list, null, false, false);
+			router.toBinary(list, null, false);
+		}
+		assertTrue(visited.get() > 0);
+		assertTrue(visited.get() <= 8 * router.getEstimationLimit() / 10);
+	}
+
+	@SuppressWarnings("serial")
+	protected static final class CountingMap extends LinkedHashMap<String, Object> {
+
+		protected final AtomicInteger visited;
+
+		protected CountingMap(AtomicInteger visited) {
+			this.visited = visited;
+		}
+
+		@Override
+		public Set<Map.Entry<String, Object>> entrySet() {
+			visited.incrementAndGet();
+			return super.entrySet();
+		}
+
+	}
+
+	protected static final class NopAdapter extends AbstractAdapter {
+
+		@Override
+		public String getFormat() {
+			return "json";
+		}
+
+		@Override
+		public String toString(Object value, Object meta, boolean pretty, boolean insertMeta) {
+			return "{}";
+		}
+
+		@Override
+		public byte[] toBinary(Object value, Object meta, boolean insertMeta) {
+			return new byte[0];
+		}
+
+		@Override
+		public Object parse(String source) throws Exception {
+			return null;
+		}
+
+		@Override
+		public Object parse(byte[] source) throws Exception {
+			return null;
+		}
+
+	}
+
+}
\ No newline at end of file
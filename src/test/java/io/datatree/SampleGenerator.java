@@ -0,0 +1,404 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import io.datatree.dom.BASE64;
+import io.datatree.dom.TreeWriter;
+import io.datatree.dom.TreeWriterRegistry;
+import io.datatree.dom.adapters.AdapterCalibrator;
+
+/**
+ * Deterministic (seeded) generator of large test datasets. The same settings
+ * and seed always produce the same records, so the generated files are
+ * reproducible on every machine. Usage from command line:<br>
+ * <br>
+ * java io.datatree.SampleGenerator outputDirectory 64MB [json,xml,...|all]
+ * [seed=1 depth=4 fanOut=8 ...]<br>
+ * <br>
+ * The JSON, CSV and TSV outputs are written record by record (constant
+ * memory), so these files can be of any size (eg. 1 GB). All other formats
+ * are built in memory before serialization (the required heap is a multiple
+ * of the output size), so their size is limited by the "maxInMemorySize"
+ * setting (default 256 MB, and never more than 2 GB).
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class SampleGenerator {
+
+	// --- SUPPORTED FORMATS ---
+
+	public static final String[] FORMATS = { "json", "yaml", "xml", "toml", "properties", "csv", "tsv", "cbor",
+			"smile", "msgpack", "ion", "bson", "kryo" };
+
+	// --- STRING LENGTH DISTRIBUTIONS ---
+
+	public static enum StringLengths {
+		UNIFORM, NORMAL, EXPONENTIAL
+	}
+
+	// --- SETTINGS ---
+
+	public long seed = 1;
+
+	public int depth = 3;
+
+	public int fanOut = 6;
+
+	public int keyCardinality = 64;
+
+	public int minStringLength = 1;
+
+	public int maxStringLength = 32;
+
+	public StringLengths stringLengths = StringLengths.UNIFORM;
+
+	public double containerRatio = 0.3;
+
+	public double listRatio = 0.3;
+
+	/**
+	 * Maximum size of the formats which are built in memory (all formats
+	 * except JSON, CSV and TSV).
+	 */
+	public long maxInMemorySize = 256L * 1024L * 1024L;
+
+	// --- WEIGHTS OF THE PRIMITIVE TYPES ---
+
+	public int stringWeight = 50;
+
+	public int integerWeight = 20;
+
+	public int doubleWeight = 10;
+
+	public int booleanWeight = 5;
+
+	public int dateWeight = 10;
+
+	public int bytesWeight = 5;
+
+	// --- CONSTANTS ---
+
+	protected static final int CALIBRATION_RECORDS = 64;
+
+	protected static final long BASE_TIME = 1500000000000L;
+
+	protected static final char[] CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789     \u00e1\u00e9\u0151\u00fc\u00df<>&\"'"
+			.toCharArray();
+
+	// --- GENERATE FILE ---
+
+	public File generate(String format, long targetSize, File directory) throws Exception {
+		directory.mkdirs();
+		File file = new File(directory, "sample-" + toSizeLabel(targetSize) + "." + format);
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 65536)) {
+			generate(format, targetSize, out);
+		}
+		return file;
+	}
+
+	// --- GENERATE INTO STREAM ---
+
+	public long generate(String format, long targetSize, OutputStream out) throws Exception {
+		TreeWriter writer = TreeWriterRegistry.getWriter(format);
+		switch (format) {
+		case "json":
+			return writeJson(writer, targetSize, out);
+		case "csv":
+		case "tsv":
+			return writeRows(writer, targetSize, out);
+		default:
+		}
+		if (targetSize > maxInMemorySize) {
+			throw new IllegalArgumentException("The \"" + format + "\" output is built in memory, the target size ("
+					+ targetSize + " bytes) is larger than the \"maxInMemorySize\" (" + maxInMemorySize + " bytes)!");
+		}
+
+		// Estimate the number of records
+		byte[] bytes = serialize(writer, format, createRecords(CALIBRATION_RECORDS));
+		long count = Math.max(1, targetSize * CALIBRATION_RECORDS / Math.max(1, bytes.length));
+		if (count > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Target size is too large (" + targetSize + ")!");
+		}
+
+		// Generate and serialize all records
+		bytes = serialize(writer, format, createRecords((int) count));
+		out.write(bytes);
+		return bytes.length;
+	}
+
+	protected long writeJson(TreeWriter writer, long targetSize, OutputStream out) throws IOException {
+		Random random = new Random(seed);
+		byte[] header = "{\"records\":[".getBytes(StandardCharsets.UTF_8);
+		out.write(header);
+		long size = header.length + 2;
+		boolean first = true;
+		while (first || size < targetSize) {
+			if (first) {
+				first = false;
+			} else {
+				out.write(',');
+				size++;
+			}
+			byte[] bytes = writer.toString(createRecord(random), null, false, false).getBytes(StandardCharsets.UTF_8);
+			out.write(bytes);
+			size += bytes.length;
+		}
+		out.write(']');
+		out.write('}');
+		return size;
+	}
+
+	protected long writeRows(TreeWriter writer, long targetSize, OutputStream out) throws IOException {
+		Random random = new Random(seed);
+		long size = 0;
+		while (size == 0 || size < targetSize) {
+			LinkedHashMap<String, Object> row = new LinkedHashMap<>();
+			flatten(row, null, createRecord(random));
+			List<Object> rows = Collections.singletonList(new ArrayList<>(row.values()));
+			byte[] bytes = writer.toString(rows, null, false, false).getBytes(StandardCharsets.UTF_8);
+			out.write(bytes);
+			size += bytes.length;
+		}
+		return size;
+	}
+
+	protected byte[] serialize(TreeWriter writer, String format, List<Object> records) {
+		Object value;
+		if ("toml".equals(format)) {
+
+			// Tables with primitive values
+			LinkedHashMap<String, Object> tables = new LinkedHashMap<>();
+			int index = 0;
+			for (Object record : records) {
+				LinkedHashMap<String, Object> flat = new LinkedHashMap<>();
+				flatten(flat, null, record);
+				for (Map.Entry<String, Object> entry : flat.entrySet()) {
+					if (entry.getValue() instanceof byte[]) {
+						entry.setValue(BASE64.encode((byte[]) entry.getValue()));
+					}
+				}
+				tables.put("record" + index++, flat);
+			}
+			value = tables;
+		} else {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("records", records);
+			value = map;
+		}
+		if (AdapterCalibrator.isBinary(format)) {
+			return writer.toBinary(value, null, false);
+		}
+		return writer.toString(value, null, false, false).getBytes(StandardCharsets.UTF_8);
+	}
+
+	// --- RECORD FACTORY ---
+
+	public List<Object> createRecords(int count) {
+		Random random = new Random(seed);
+		ArrayList<Object> records = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			records.add(createRecord(random));
+		}
+		return records;
+	}
+
+	public Map<String, Object> createRecord(Random random) {
+		return createMap(random, 0);
+	}
+
+	protected Map<String, Object> createMap(Random random, int level) {
+		int size = Math.min(Math.max(1, fanOut), Math.max(1, keyCardinality));
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>(size * 2);
+		while (map.size() < size) {
+			String key = "key" + random.nextInt(Math.max(1, keyCardinality));
+			if (!map.containsKey(key)) {
+				map.put(key, createValue(random, level + 1));
+			}
+		}
+		return map;
+	}
+
+	protected List<Object> createList(Random random, int level) {
+		int size = Math.max(1, fanOut);
+		ArrayList<Object> list = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			list.add(createValue(random, level + 1));
+		}
+		return list;
+	}
+
+	protected Object createValue(Random random, int level) {
+		if (level < depth && random.nextDouble() < containerRatio) {
+			if (random.nextDouble() < listRatio) {
+				return createList(random, level);
+			}
+			return createMap(random, level);
+		}
+		int total = stringWeight + integerWeight + doubleWeight + booleanWeight + dateWeight + bytesWeight;
+		int type = random.nextInt(Math.max(1, total));
+		if ((type -= stringWeight) < 0) {
+			return createString(random);
+		}
+		if ((type -= integerWeight) < 0) {
+			if (random.nextBoolean()) {
+				return random.nextInt(100000);
+			}
+			return random.nextLong();
+		}
+		if ((type -= doubleWeight) < 0) {
+			return Math.round(random.nextDouble() * 1000000d) / 100d;
+		}
+		if ((type -= booleanWeight) < 0) {
+			return random.nextBoolean();
+		}
+		if ((type -= dateWeight) < 0) {
+			return new Date(BASE_TIME + (random.nextInt(Integer.MAX_VALUE) * 1000L));
+		}
+		byte[] bytes = new byte[createLength(random)];
+		random.nextBytes(bytes);
+		return bytes;
+	}
+
+	protected String createString(Random random) {
+		int length = createLength(random);
+		char[] chars = new char[length];
+		for (int i = 0; i < length; i++) {
+			chars[i] = CHARS[random.nextInt(CHARS.length)];
+		}
+		return new String(chars);
+	}
+
+	protected int createLength(Random random) {
+		int min = Math.max(0, minStringLength);
+		int range = Math.max(0, maxStringLength - min);
+		double rate;
+		switch (stringLengths) {
+		case NORMAL:
+			rate = 0.5d + random.nextGaussian() / 6d;
+			break;
+		case EXPONENTIAL:
+			rate = -Math.log(1d - random.nextDouble()) / 5d;
+			break;
+		default:
+			rate = random.nextDouble();
+			break;
+		}
+		return min + (int) Math.round(range * Math.min(1d, Math.max(0d, rate)));
+	}
+
+	// --- UTILITIES ---
+
+	public static final void flatten(Map<String, Object> target, String prefix, Object value) {
+		if (value instanceof Map) {
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+				String key = String.valueOf(entry.getKey());
+				flatten(target, prefix == null ? key : prefix + '_' + key, entry.getValue());
+			}
+			return;
+		}
+		if (value instanceof Collection) {
+			int index = 0;
+			for (Object item : (Collection<?>) value) {
+				flatten(target, prefix + '_' + index++, item);
+			}
+			return;
+		}
+		target.put(prefix, value);
+	}
+
+	public static final long parseSize(String size) {
+		String txt = size.trim().toUpperCase();
+		long multiplier = 1;
+		if (txt.endsWith("KB")) {
+			multiplier = 1024L;
+		} else if (txt.endsWith("MB")) {
+			multiplier = 1024L * 1024L;
+		} else if (txt.endsWith("GB")) {
+			multiplier = 1024L * 1024L * 1024L;
+		}
+		if (multiplier > 1) {
+			txt = txt.substring(0, txt.length() - 2).trim();
+		}
+		return Long.parseLong(txt) * multiplier;
+	}
+
+	public static final String toSizeLabel(long size) {
+		if (size % (1024L * 1024L * 1024L) == 0) {
+			return size / (1024L * 1024L * 1024L) + "GB";
+		}
+		if (size % (1024L * 1024L) == 0) {
+			return size / (1024L * 1024L) + "MB";
+		}
+		if (size % 1024L == 0) {
+			return size / 1024L + "KB";
+		}
+		return Long.toString(size);
+	}
+
+	// --- COMMAND LINE INTERFACE ---
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.out.println("Usage: SampleGenerator outputDirectory size [formats|all] [name=value...]");
+			return;
+		}
+		File directory = new File(args[0]);
+		long size = parseSize(args[1]);
+		String[] formats = args.length < 3 || "all".equals(args[2]) ? FORMATS : args[2].split(",");
+		SampleGenerator generator = new SampleGenerator();
+		for (int i = 3; i < args.length; i++) {
+			int n = args[i].indexOf('=');
+			if (n < 1) {
+				throw new IllegalArgumentException("Invalid setting: " + args[i]);
+			}
+			Field field = SampleGenerator.class.getField(args[i].substring(0, n));
+			String value = args[i].substring(n + 1);
+			if (field.getType() == long.class) {
+				field.setLong(generator, Long.parseLong(value));
+			} else if (field.getType() == int.class) {
+				field.setInt(generator, Integer.parseInt(value));
+			} else if (field.getType() == double.class) {
+				field.setDouble(generator, Double.parseDouble(value));
+			} else {
+				field.set(generator, StringLengths.valueOf(value.toUpperCase()));
+			}
+		}
+		for (String format : formats) {
+			long start = System.currentTimeMillis();
+			File file = generator.generate(format.trim(), size, directory);
+			System.out.println(file + "\t" + file.length() + " bytes\t" + (System.currentTimeMillis() - start) + " ms");
+		}
+	}
+
+}
\ No newline at end of file
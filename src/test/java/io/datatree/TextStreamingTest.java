@@ -0,0 +1,122 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.CharStreamAdapter;
+import io.datatree.dom.adapters.CsvOpenCSV;
+import io.datatree.dom.adapters.JsonBoon;
+import io.datatree.dom.adapters.JsonFast;
+import io.datatree.dom.adapters.JsonGenson;
+import io.datatree.dom.adapters.JsonGson;
+import io.datatree.dom.adapters.JsonJohnzon;
+import io.datatree.dom.adapters.JsonNano;
+import io.datatree.dom.adapters.JsonSimple;
+import io.datatree.dom.adapters.JsonSmart;
+import io.datatree.dom.adapters.TomlToml4j;
+import io.datatree.dom.adapters.XmlXStream;
+import io.datatree.dom.adapters.YamlSnakeYaml;
+import io.datatree.dom.builtin.AbstractTextAdapter;
+import junit.framework.TestCase;
+
+/**
+ * TextStreamingTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class TextStreamingTest extends TestCase {
+
+	@Test
+	public void testStreaming() throws Exception {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíztűrő");
+		map.put("b", 3);
+		LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+		sub.put("c", true);
+		map.put("d", sub);
+
+		List<AbstractTextAdapter> adapters = Arrays.asList(new JsonGson(), new JsonGenson(), new JsonSmart(),
+				new JsonSimple(), new JsonBoon(), new JsonNano(), new JsonJohnzon(), new JsonFast(),
+				new YamlSnakeYaml(), new XmlXStream(), new CsvOpenCSV(), new TomlToml4j());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			CharStreamAdapter streaming = (CharStreamAdapter) adapter;
+
+			// Write
+			WriterChecker out = new WriterChecker();
+			streaming.write(map, out);
+			assertFalse(name, out.closed);
+			assertEquals(name, adapter.toString(map, null, false, false), out.toString());
+			out = new WriterChecker();
+			streaming.write(map, null, true, false, out);
+			assertEquals(name, adapter.toString(map, null, true, false), out.toString());
+
+			// Read
+			String source = adapter.toString(map, null, false, false);
+			ReaderChecker in = new ReaderChecker(source);
+			Object parsed = streaming.parse(in);
+			assertFalse(name, in.closed);
+			assertEquals(name, adapter.toString(adapter.parse(source), null, false, false),
+					adapter.toString(parsed, null, false, false));
+		});
+	}
+
+	@Test
+	public void testArrays() throws Exception {
+		List<AbstractTextAdapter> adapters = Arrays.asList(new JsonGson(), new JsonGenson(), new JsonJohnzon());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			Object parsed = ((CharStreamAdapter) adapter).parse(new StringReader(" [1,{\"a\":[2,3]}]"));
+			assertTrue(name, parsed instanceof List);
+			assertEquals(name, adapter.toString(adapter.parse("[1,{\"a\":[2,3]}]"), null, false, false),
+					adapter.toString(parsed, null, false, false));
+		});
+	}
+
+	protected static class WriterChecker extends StringWriter {
+
+		protected boolean closed;
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+	}
+
+	protected static class ReaderChecker extends StringReader {
+
+		protected boolean closed;
+
+		protected ReaderChecker(String source) {
+			super(source);
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.JsonDSL;
+import io.datatree.dom.adapters.JsonFast;
+import io.datatree.dom.adapters.JsonGson;
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.JsonJsoniter;
+import io.datatree.dom.builtin.AbstractAdapter;
+import junit.framework.TestCase;
+
+/**
+ * Utf8BinaryTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class Utf8BinaryTest extends TestCase {
+
+	@Test
+	public void testUtf8() throws Exception {
+		LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+		map.put("a", "árvíztűrő €");
+		map.put("b", 3);
+		map.put("c", "quote\" backslash\\ tab\t");
+		LinkedHashMap<String, Object> sub = new LinkedHashMap<>();
+		sub.put("d", true);
+		sub.put("e", Arrays.asList(1, "two", false));
+		map.put("f", sub);
+		LinkedList<Object> list = new LinkedList<>();
+		list.add(map);
+		list.add("x");
+
+		List<AbstractAdapter> adapters = Arrays.asList(new JsonJackson(), new JsonDSL(), new JsonJsoniter(),
+				new JsonFast(), new JsonGson());
+		AdapterTestRunner.testAll(adapters, (adapter, name) -> {
+			for (Object value : new Object[] { map, list }) {
+
+				// Writer
+				String json = adapter.toString(value, null, false, false);
+				byte[] bytes = adapter.toBinary(value, null, false);
+				assertEquals(name, json, new String(bytes, StandardCharsets.UTF_8));
+
+				// Parser
+				Object expected = adapter.parse(json);
+				assertEquals(name, expected, adapter.parse(bytes));
+				assertEquals(name, expected.toString(), adapter.parse(bytes).toString());
+			}
+		});
+	}
+
+}
\ No newline at end of file
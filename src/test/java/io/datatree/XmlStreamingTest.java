@@ -0,0 +1,171 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.JsonJackson;
+import io.datatree.dom.adapters.XmlBuiltin;
+import io.datatree.dom.adapters.XmlElementReader;
+import junit.framework.TestCase;
+
+/**
+ * XmlStreamingTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class XmlStreamingTest extends TestCase {
+
+	@Test
+	public void testParser() throws Exception {
+		XmlBuiltin xml = new XmlBuiltin();
+		JsonJackson json = new JsonJackson();
+
+		// XML input, expected structure (same as the former DOM-based parser)
+		String[] samples = {
+				"<root><a>1</a><b>true</b><c>x y</c><d/><e>1.5</e></root>",
+				"{\"_name\":\"root\",\"a\":1,\"b\":true,\"c\":\"x y\",\"d\":\"\",\"e\":1.5}",
+				"<xml><a>1</a><a>2</a><a>3</a></xml>",
+				"{\"_items\":[1,2,3]}",
+				"<list><item>1</item><item>2</item></list>",
+				"{\"_name\":\"list\"}",
+				"<root id=\"7\" name=\"x &amp; y\"><a>1</a></root>",
+				"{\"_name\":\"root\",\"@id\":\"7\",\"@name\":\"x & y\",\"a\":1}",
+				"<root><a x=\"1\">text</a><b><c>2</c></b></root>",
+				"{\"_name\":\"root\",\"a\":{\"_text\":\"text\",\"@x\":\"1\"},\"b\":{\"c\":2}}",
+				"<root><e><n>1</n></e><e><n>2</n><m>3</m></e><e>x</e></root>",
+				"{\"_name\":\"root\"}",
+				"<root>\r\n  <a>\r\n    <b>1</b>\r\n    <b>2</b>\r\n  </a>\r\n  <c> 1 </c>\r\n</root>",
+				"{\"_name\":\"root\",\"a\":{\"_items\":[1,2]},\"c\":\" 1 \"}",
+				"<root><a><item>1</item><item>2</item></a><b><item>1</item></b></root>",
+				"{\"_name\":\"root\",\"a\":[1,2],\"b\":{\"item\":1}}",
+				"<root><a><x>1</x><x>2</x></a><a><x>3</x><x>4</x></a></root>",
+				"{\"_name\":\"root\"}",
+				"<root><a><item>1</item><item>2</item></a><a><item>3</item></a></root>",
+				"{\"_name\":\"root\"}",
+				"<root><a><!-- c -->1</a><b><![CDATA[<x>]]></b><c><!-- c --><d>1</d></c></root>",
+				"{\"_name\":\"root\",\"a\":1,\"b\":\"<x>\",\"c\":{\"d\":1}}",
+				"<root><a z=\"1\" b=\"2\" m=\"3\"/><p:x xmlns:p=\"urn:p\" p:y=\"1\">2</p:x></root>",
+				"{\"_name\":\"root\",\"a\":{\"@b\":\"2\",\"@m\":\"3\",\"@z\":\"1\"},\"p:x\":{\"_text\":\"2\",\"@p:y\":\"1\",\"@xmlns:p\":\"urn:p\"}}",
+				"<root><a k=\"v\"><b>1</b><b>2</b></a></root>",
+				"{\"_name\":\"root\",\"a\":{\"@k\":\"v\",\"_items\":[1,2]}}",
+				"<root><a k=\"v\"/><a>2</a></root>",
+				"{\"_name\":\"root\",\"_items\":[{\"_name\":\"a\",\"@k\":\"v\"},2]}",
+				"<r><a>&lt;&amp;&gt;</a><b>1.2.3</b><c>-1</c><d>007</d></r>",
+				"{\"_name\":\"r\",\"a\":\"<&>\",\"b\":\"1.2.3\",\"c\":\"-1\",\"d\":7}",
+		};
+		for (int i = 0; i < samples.length; i += 2) {
+			assertEquals(samples[i + 1], json.toString(xml.parse(samples[i]), null, false, false));
+			assertEquals(samples[i + 1],
+					json.toString(xml.parse(new StringReader(samples[i])), null, false, false));
+		}
+	}
+
+	@Test
+	public void testWriter() throws Exception {
+		XmlBuiltin xml = new XmlBuiltin();
+		JsonJackson json = new JsonJackson();
+		String source = "{\"_name\":\"root\",\"@id\":\"7\",\"@q\":\"a\\\"<&b\",\"a\":1,\"b\":\"x<y&'\","
+				+ "\"c\":{\"d\":true,\"e\":[1,2,{\"f\":3}]},\"g\":{\"_text\":\"hello\",\"@k\":\"v\"}}";
+		Object value = json.parse(source);
+
+		// Compact
+		String compact = xml.toString(value, null, false, false);
+		assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n"
+				+ "<root id=\"7\" q=\"a&quot;&lt;&amp;b\"><a>1</a><b>x&lt;y&amp;&#x27;</b>"
+				+ "<c><d>true</d><e><item>1</item><item>2</item><item><f>3</f></item></e></c>"
+				+ "<g k=\"v\">hello</g></root>", compact);
+
+		// Pretty
+		String pretty = xml.toString(value, null, true, false);
+		assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<root id=\"7\" q=\"a&quot;&lt;&amp;b\">\r\n"
+				+ "  <a>1</a>\r\n  <b>x&lt;y&amp;&#x27;</b>\r\n  <c>\r\n    <d>true</d>\r\n    <e>\r\n"
+				+ "      <item>1</item>\r\n      <item>2</item>\r\n      <item>\r\n        <f>3</f>\r\n"
+				+ "      </item>\r\n    </e>\r\n  </c>\r\n  <g k=\"v\">hello</g>\r\n</root>", pretty);
+
+		// Round trip
+		String expected = "{\"_name\":\"root\",\"@id\":\"7\",\"@q\":\"a\\\"<&b\",\"a\":1,\"b\":\"x<y&'\","
+				+ "\"c\":{\"d\":true,\"e\":[1,2,{\"_name\":\"item\",\"f\":3}]},\"g\":{\"_text\":\"hello\",\"@k\":\"v\"}}";
+		assertEquals(expected, json.toString(xml.parse(compact), null, false, false));
+		assertEquals(expected, json.toString(xml.parse(pretty), null, false, false));
+
+		// Writer and UTF-8 OutputStream
+		StringWriter writer = new StringWriter();
+		xml.write(value, null, true, false, writer);
+		assertEquals(pretty, writer.toString());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		xml.write(value, null, false, false, out);
+		assertEquals(compact, new String(out.toByteArray(), StandardCharsets.UTF_8));
+		assertEquals(expected,
+				json.toString(xml.parse(new ByteArrayInputStream(out.toByteArray())), null, false, false));
+
+		// Metadata
+		Map<String, Object> meta = new LinkedHashMap<>();
+		meta.put("m", 1);
+		assertEquals("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<xml><_meta><m>1</m></_meta><a>1</a></xml>",
+				xml.toString(json.parse("{\"a\":1}"), meta, false, true));
+	}
+
+	@Test
+	public void testElementReader() throws Exception {
+		XmlBuiltin xml = new XmlBuiltin();
+		StringBuilder feed = new StringBuilder("<?xml version=\"1.0\"?>\r\n<feed><title>test</title>");
+		for (int i = 0; i < 1000; i++) {
+			feed.append("<entry id=\"").append(i).append("\"><n>").append(i).append("</n><x>&lt;").append(i)
+					.append("&gt;</x></entry>");
+		}
+		feed.append("</feed>");
+
+		// Children of the root element
+		List<Tree> elements = new ArrayList<>();
+		try (XmlElementReader reader = xml.readElements(new StringReader(feed.toString()))) {
+			for (Tree element : reader) {
+				elements.add(element);
+			}
+		}
+		assertEquals(1001, elements.size());
+		assertEquals("test", elements.get(0).asObject());
+		for (int i = 0; i < 1000; i++) {
+			Map<?, ?> entry = (Map<?, ?>) elements.get(i + 1).asObject();
+			assertEquals("entry", entry.get("_name"));
+			assertEquals(Integer.toString(i), entry.get("@id"));
+			assertEquals((long) i, entry.get("n"));
+			assertEquals("<" + i + ">", entry.get("x"));
+		}
+
+		// Elements by name (at any depth)
+		String rss = "<rss><channel><title>t</title><item><n>1</n></item><item><n>2</n></item></channel></rss>";
+		try (XmlElementReader reader = xml.readElements(new StringReader(rss), "item")) {
+			assertTrue(reader.hasNext());
+			assertEquals(1L, ((Map<?, ?>) reader.next().asObject()).get("n"));
+			assertEquals(2L, ((Map<?, ?>) reader.next().asObject()).get("n"));
+			assertFalse(reader.hasNext());
+		}
+	}
+
+}
\ No newline at end of file
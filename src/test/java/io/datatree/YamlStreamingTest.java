@@ -0,0 +1,108 @@
+/**
+ * This software is licensed under the Apache 2 license, quoted below.<br>
+ * <br>
+ * Copyright 2017 Andras Berkes [andras.berkes@programmer.net]<br>
+ * <br>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at<br>
+ * <br>
+ * http://www.apache.org/licenses/LICENSE-2.0<br>
+ * <br>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.datatree;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.datatree.dom.adapters.YamlDocumentReader;
+import io.datatree.dom.adapters.YamlDocumentWriter;
+import io.datatree.dom.adapters.YamlSnakeYaml;
+import junit.framework.TestCase;
+
+/**
+ * YamlStreamingTest.java
+ * 
+ * @author Andras Berkes [andras.berkes@programmer.net]
+ */
+public class YamlStreamingTest extends TestCase {
+
+	@Test
+	public void testMultiDocument() throws Exception {
+		YamlSnakeYaml yaml = new YamlSnakeYaml();
+		List<Object> documents = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			LinkedHashMap<String, Object> map = new LinkedHashMap<>();
+			map.put("kind", "Service");
+			map.put("index", i);
+			map.put("ports", Arrays.asList(80, 443));
+			documents.add(map);
+		}
+
+		for (boolean pretty : new boolean[] { false, true }) {
+
+			// Push-style writer
+			StringWriter out = new StringWriter();
+			try (YamlDocumentWriter writer = yaml.createDocumentWriter(out, pretty)) {
+				for (Object document : documents) {
+					writer.write(document);
+				}
+				assertEquals(100, writer.getDocumentCount());
+			}
+			assertEquals(documents, readAll(yaml, out.toString()));
+
+			// Pull-style writer
+			out = new StringWriter();
+			yaml.writeAll(documents.iterator(), pretty, out);
+			assertEquals(documents, readAll(yaml, out.toString()));
+
+			// Metadata
+			Tree tree = new Tree();
+			tree.put("a", 1);
+			tree.getMeta().put("m", "abc");
+			out = new StringWriter();
+			try (YamlDocumentWriter writer = yaml.createDocumentWriter(out, pretty)) {
+				writer.write(tree);
+				writer.write(tree);
+			}
+			try (YamlDocumentReader reader = yaml.readAll(new StringReader(out.toString()))) {
+				for (Tree document : reader) {
+					assertEquals(1, document.get("a", 0));
+					assertEquals("abc", document.getMeta().get("m", ""));
+				}
+				assertEquals(2, reader.getDocumentNumber());
+			}
+		}
+
+		// Empty documents
+		List<Object> values = readAll(yaml, "---\na: 1\n---\n---\n5\n");
+		assertEquals(3, values.size());
+		assertEquals(1, ((Map<?, ?>) values.get(0)).get("a"));
+		assertNull(values.get(1));
+		assertEquals(5, values.get(2));
+	}
+
+	private List<Object> readAll(YamlSnakeYaml yaml, String source) throws Exception {
+		List<Object> values = new ArrayList<>();
+		try (YamlDocumentReader reader = yaml.readAll(new StringReader(source))) {
+			for (Tree document : reader) {
+				values.add(document.asObject());
+			}
+			assertEquals(values.size(), reader.getDocumentNumber());
+		}
+		return values;
+	}
+
+}
\ No newline at end of file